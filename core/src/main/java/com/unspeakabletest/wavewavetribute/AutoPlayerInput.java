@@ -0,0 +1,126 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * {@link PlayerInput} that plays by itself, for demos and soak tests. It
+ * turns only at {@link ObstacleLattice} nodes: at each node it keeps its
+ * direction if that still leads somewhere {@link #HORIZON_WIDTH} pixels ahead,
+ * else it turns. "Leads somewhere" is a backwards reachability pass over the
+ * lattice masks, redone at every node so newly generated obstacles are seen.
+ * <p>
+ * Presses and releases are stamped with the exact time the wave reaches the
+ * node, so it plays the same at any frame rate. After a crash it taps through
+ * the game-over screen.
+ */
+public class AutoPlayerInput implements PlayerInput {
+    private static final String TAG = "AutoPlayer";
+    private static final float HORIZON_WIDTH = 2400f; // Looked ahead (generation covers ~1000 px)
+    private static final float RESTART_DELAY = 1.0f; // Seconds on the game-over screen before tapping
+
+    private WaveSimulation simulation;
+    private ObstacleLattice lattice;
+    private int horizon; // HORIZON_WIDTH in node columns (96 on the 9 row grid)
+
+    private boolean pressed = false;
+    private int nodeColumn; // Next node the wave reaches
+    private int nodeRow;
+    private int direction = 0; // Of the edge into the next node; 0 before the start
+    private boolean stuckReported = false;
+    private float gameOverTimer = 0;
+
+    @Override
+    public void begin(WaveSimulation simulation, LevelGenerator levelGenerator) {
+        this.simulation = simulation;
+        this.lattice = levelGenerator instanceof LegacyLevelGenerator
+                ? ((LegacyLevelGenerator) levelGenerator).getLattice()
+                : null;
+        pressed = false;
+        direction = 0;
+        stuckReported = false;
+        gameOverTimer = 0;
+        if (lattice != null) {
+            horizon = (int) Math.ceil(HORIZON_WIDTH / lattice.getHalfColumnWidth());
+            nodeColumn = lattice.firstNodeColumnAfter(
+                    WaveSimulation.START_X + WaveSimulation.HORIZONTAL_SPEED * WaveSimulation.INPUT_DELAY);
+            nodeRow = lattice.getStartRow();
+        }
+    }
+
+    @Override
+    public void collect(float delta, TouchEvents events) {
+        if (simulation == null || lattice == null) {
+            return;
+        }
+        if (simulation.isCrashed()) {
+            if (pressed) {
+                events.add(0, false);
+                pressed = false;
+            }
+            gameOverTimer += delta;
+            if (gameOverTimer >= RESTART_DELAY) {
+                events.add(0, true); // Restart; the new run calls begin()
+                events.add(delta, false);
+                gameOverTimer = 0;
+            }
+            return;
+        }
+
+        // The simulation still stands at the start of this frame
+        float x = simulation.getPlayerPosition().x;
+        while (true) {
+            float time = (lattice.getNodeX(nodeColumn) - x) / WaveSimulation.HORIZONTAL_SPEED;
+            if (time > delta) {
+                break;
+            }
+            time = Math.max(time, 0);
+
+            int next = chooseDirection();
+            if (next > 0 && !pressed) {
+                events.add(time, true);
+                pressed = true;
+            } else if (next < 0 && pressed) {
+                events.add(time, false);
+                pressed = false;
+            }
+            direction = next;
+            nodeRow += next;
+            nodeColumn++;
+        }
+    }
+
+    /** Direction of the edge out of node (nodeColumn, nodeRow). */
+    private int chooseDirection() {
+        if (direction == 0) {
+            return 1; // The first press always climbs
+        }
+
+        // Nodes of the next column from which the wave can still go the horizon further.
+        // Past the last obstacle cells every node is alive, so start there if it's closer.
+        int last = Math.min(nodeColumn + horizon,
+                Math.max(nodeColumn + 1, lattice.lastNodeColumnTouching(lattice.getLastBlockedColumn()) + 1));
+        long alive = lattice.getAllRows();
+        for (int k = last; k > nodeColumn + 1; k--) {
+            alive = lattice.stepBack(k - 1, alive);
+        }
+
+        long node = 1L << nodeRow;
+        boolean upOk = (lattice.freeEdges(nodeColumn, 1) & node) != 0 && (alive & (node << 1)) != 0;
+        boolean downOk = (lattice.freeEdges(nodeColumn, -1) & node) != 0 && (alive & (node >>> 1)) != 0;
+
+        // Keep going straight when possible: fewest presses, long clean diagonals
+        if (direction > 0 ? upOk : downOk) {
+            return direction;
+        }
+        if (direction > 0 ? downOk : upOk) {
+            return -direction;
+        }
+        if (!stuckReported) {
+            stuckReported = true;
+            if (Gdx.app != null) { // PGO training plays without an application
+                Gdx.app.log(TAG, "No lattice path past x=" + lattice.getNodeX(nodeColumn));
+            }
+        }
+        return direction;
+    }
+}
@@ -0,0 +1,310 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetDescriptor;
+import com.badlogic.gdx.assets.AssetLoaderParameters;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.AsynchronousAssetLoader;
+import com.badlogic.gdx.assets.loaders.FileHandleResolver;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Loads a TrueType/OpenType font through the {@link AssetManager} without
+ * stalling the render thread: FreeType rasterizes the glyphs into pixmap
+ * pages on the manager's worker thread, and only the texture upload happens
+ * on the render thread, once loading is done.
+ * <p>
+ * The rasterized pages and glyph metrics are also baked to disk, under
+ * {@code cache/fonts/<font>-<size>-v<version>} (a {@code .bin} for the
+ * metrics, a {@code .png} per page), so later launches read two small files
+ * instead of running FreeType at all. Bump {@link #CACHE_VERSION} whenever
+ * the rasterization changes; old files are then simply not found. The
+ * {@code .bin} is written last, so a launch killed halfway through baking
+ * leaves nothing that is read back, and a cache that can't be read or
+ * written is never more than a fallback to FreeType.
+ * <p>
+ * Glyphs are always white; the HUD tints them with {@link BitmapFont#setColor}.
+ */
+public class BakedFontLoader extends AsynchronousAssetLoader<BitmapFont, BakedFontLoader.Parameter> {
+    private static final String TAG = "BakedFontLoader";
+    private static final int CACHE_VERSION = 1;
+    private static final int MAGIC = 0x57574654; // "WWFT"
+    private static final int PAGE_SIZE = 512; // The HUD font's printable ASCII fits on one page
+
+    public static class Parameter extends AssetLoaderParameters<BitmapFont> {
+        /** Pixel size the glyphs are rasterized at. */
+        public int size = 24;
+    }
+
+    private final FileHandle cacheDirectory;
+
+    // Handed from loadAsync (worker thread) to loadSync (render thread); the
+    // manager loads one asset at a time per loader, as libGDX's own loaders assume
+    private BitmapFontData data;
+    private Array<Pixmap> pages;
+
+    /** @param cacheDirectory where baked fonts are kept, usually {@code Gdx.files.local("cache/fonts")} */
+    public BakedFontLoader(FileHandleResolver resolver, FileHandle cacheDirectory) {
+        super(resolver);
+        this.cacheDirectory = cacheDirectory;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Array<AssetDescriptor> getDependencies(String fileName, FileHandle file, Parameter parameter) {
+        return null;
+    }
+
+    @Override
+    public void loadAsync(AssetManager manager, String fileName, FileHandle file, Parameter parameter) {
+        int size = parameter != null ? parameter.size : new Parameter().size;
+        String key = file.nameWithoutExtension() + "-" + size + "-v" + CACHE_VERSION;
+        FileHandle metrics = cacheDirectory.child(key + ".bin");
+        if (metrics.exists()) {
+            try {
+                readCache(metrics, key);
+                return;
+            } catch (IOException | GdxRuntimeException e) {
+                Gdx.app.error(TAG, "Could not read baked font " + metrics + ", rasterizing again", e);
+                disposePages();
+            }
+        }
+        rasterize(file, size);
+        try {
+            writeCache(metrics, key);
+        } catch (IOException | GdxRuntimeException e) {
+            Gdx.app.error(TAG, "Could not bake font to " + cacheDirectory, e);
+        }
+    }
+
+    @Override
+    public BitmapFont loadSync(AssetManager manager, String fileName, FileHandle file, Parameter parameter) {
+        Array<TextureRegion> regions = new Array<>(pages.size);
+        for (Pixmap page : pages) {
+            regions.add(new TextureRegion(new Texture(page)));
+        }
+        disposePages(); // The textures hold their own copy now
+        BitmapFont font = new BitmapFont(data, regions, true);
+        font.setOwnsTexture(true); // Unloading the asset frees the pages
+        data = null;
+        return font;
+    }
+
+    /** FreeType into our own packer: with the packer supplied, the generator creates no textures. */
+    private void rasterize(FileHandle file, int size) {
+        PixmapPacker packer = new PixmapPacker(PAGE_SIZE, PAGE_SIZE, Pixmap.Format.RGBA8888, 1, false,
+                new PixmapPacker.SkylineStrategy());
+        packer.setTransparentColor(Color.WHITE);
+        packer.getTransparentColor().a = 0; // As the generator sets up its own packer
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(file);
+        try {
+            FreeTypeFontGenerator.FreeTypeFontParameter parameter = new FreeTypeFontGenerator.FreeTypeFontParameter();
+            parameter.size = size;
+            parameter.color = Color.WHITE;
+            parameter.packer = packer;
+            data = generator.generateData(parameter);
+        } finally {
+            generator.dispose();
+        }
+        pages = new Array<>(packer.getPages().size);
+        for (PixmapPacker.Page page : packer.getPages()) {
+            pages.add(page.getPixmap()); // Ours now; the packer itself is dropped without dispose()
+        }
+    }
+
+    private void readCache(FileHandle metrics, String key) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(metrics.read()))) {
+            if (in.readInt() != MAGIC || in.readInt() != CACHE_VERSION) {
+                throw new IOException("Not a baked font of this version");
+            }
+            BitmapFontData baked = new BitmapFontData();
+            baked.flipped = in.readBoolean();
+            baked.padTop = in.readFloat();
+            baked.padRight = in.readFloat();
+            baked.padBottom = in.readFloat();
+            baked.padLeft = in.readFloat();
+            baked.lineHeight = in.readFloat();
+            baked.capHeight = in.readFloat();
+            baked.ascent = in.readFloat();
+            baked.descent = in.readFloat();
+            baked.down = in.readFloat();
+            baked.blankLineScale = in.readFloat();
+            baked.spaceXadvance = in.readFloat();
+            baked.xHeight = in.readFloat();
+            baked.cursorX = in.readFloat();
+            baked.xChars = readChars(in);
+            baked.capChars = readChars(in);
+            baked.breakChars = readChars(in);
+            int glyphs = in.readInt();
+            for (int i = 0; i < glyphs; i++) {
+                Glyph glyph = readGlyph(in);
+                baked.setGlyph(glyph.id, glyph);
+            }
+            baked.missingGlyph = in.readBoolean() ? readGlyph(in) : null;
+            int pageCount = in.readInt();
+            data = baked;
+            pages = new Array<>(pageCount);
+            for (int i = 0; i < pageCount; i++) {
+                pages.add(new Pixmap(metrics.sibling(key + "-" + i + ".png")));
+            }
+        }
+    }
+
+    private void writeCache(FileHandle metrics, String key) throws IOException {
+        cacheDirectory.mkdirs();
+        for (int i = 0; i < pages.size; i++) {
+            PixmapIO.writePNG(metrics.sibling(key + "-" + i + ".png"), pages.get(i));
+        }
+        Array<Glyph> glyphs = new Array<>();
+        for (Glyph[] page : data.glyphs) {
+            if (page == null) {
+                continue;
+            }
+            for (Glyph glyph : page) {
+                if (glyph != null) {
+                    glyphs.add(glyph);
+                }
+            }
+        }
+        // To a temporary file first: a half-written .bin must never be the one found
+        FileHandle partial = metrics.sibling(metrics.name() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(partial.write(false)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(CACHE_VERSION);
+            out.writeBoolean(data.flipped);
+            out.writeFloat(data.padTop);
+            out.writeFloat(data.padRight);
+            out.writeFloat(data.padBottom);
+            out.writeFloat(data.padLeft);
+            out.writeFloat(data.lineHeight);
+            out.writeFloat(data.capHeight);
+            out.writeFloat(data.ascent);
+            out.writeFloat(data.descent);
+            out.writeFloat(data.down);
+            out.writeFloat(data.blankLineScale);
+            out.writeFloat(data.spaceXadvance);
+            out.writeFloat(data.xHeight);
+            out.writeFloat(data.cursorX);
+            writeChars(out, data.xChars);
+            writeChars(out, data.capChars);
+            writeChars(out, data.breakChars);
+            out.writeInt(glyphs.size);
+            for (Glyph glyph : glyphs) {
+                writeGlyph(out, glyph);
+            }
+            out.writeBoolean(data.missingGlyph != null);
+            if (data.missingGlyph != null) {
+                writeGlyph(out, data.missingGlyph);
+            }
+            out.writeInt(pages.size);
+        }
+        partial.moveTo(metrics);
+    }
+
+    private static Glyph readGlyph(DataInputStream in) throws IOException {
+        Glyph glyph = new Glyph();
+        glyph.id = in.readInt();
+        glyph.srcX = in.readInt();
+        glyph.srcY = in.readInt();
+        glyph.width = in.readInt();
+        glyph.height = in.readInt();
+        glyph.xoffset = in.readInt();
+        glyph.yoffset = in.readInt();
+        glyph.xadvance = in.readInt();
+        glyph.page = in.readInt();
+        glyph.fixedWidth = in.readBoolean();
+        int kerning = in.readInt();
+        for (int k = 0; k < kerning; k++) {
+            glyph.setKerning(in.readChar(), in.readByte());
+        }
+        return glyph;
+    }
+
+    private static void writeGlyph(DataOutputStream out, Glyph glyph) throws IOException {
+        out.writeInt(glyph.id);
+        out.writeInt(glyph.srcX);
+        out.writeInt(glyph.srcY);
+        out.writeInt(glyph.width);
+        out.writeInt(glyph.height);
+        out.writeInt(glyph.xoffset);
+        out.writeInt(glyph.yoffset);
+        out.writeInt(glyph.xadvance);
+        out.writeInt(glyph.page);
+        out.writeBoolean(glyph.fixedWidth);
+        // Kerning is a sparse two-level table indexed by the following character: store the pairs
+        int pairs = 0;
+        if (glyph.kerning != null) {
+            for (byte[] page : glyph.kerning) {
+                if (page != null) {
+                    for (byte amount : page) {
+                        pairs += amount != 0 ? 1 : 0;
+                    }
+                }
+            }
+        }
+        out.writeInt(pairs);
+        if (pairs == 0) {
+            return;
+        }
+        for (int p = 0; p < glyph.kerning.length; p++) {
+            byte[] page = glyph.kerning[p];
+            if (page == null) {
+                continue;
+            }
+            for (int i = 0; i < page.length; i++) {
+                if (page[i] != 0) {
+                    out.writeChar(p * page.length + i);
+                    out.writeByte(page[i]);
+                }
+            }
+        }
+    }
+
+    private static char[] readChars(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = in.readChar();
+        }
+        return chars;
+    }
+
+    private static void writeChars(DataOutputStream out, char[] chars) throws IOException {
+        out.writeInt(chars != null ? chars.length : -1);
+        if (chars != null) {
+            for (char c : chars) {
+                out.writeChar(c);
+            }
+        }
+    }
+
+    private void disposePages() {
+        if (pages != null) {
+            for (Pixmap page : pages) {
+                page.dispose();
+            }
+            pages = null;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.unspeakabletest.wavewavetribute;
+
+/**
+ * One bitmask of grid rows per half column, for a sliding window of columns:
+ * a ring tagged with the column each slot holds, so columns that scrolled out
+ * long ago read as empty instead of aliasing newer ones.
+ */
+public class ColumnMasks {
+    private final long[] masks;
+    private final int[] columns;
+    private final int indexMask;
+
+    /** @param capacity Columns kept; a power of two */
+    public ColumnMasks(int capacity) {
+        if (Integer.bitCount(capacity) != 1)
+            throw new IllegalArgumentException("Capacity must be a power of two, got " + capacity);
+        masks = new long[capacity];
+        columns = new int[capacity];
+        indexMask = capacity - 1;
+        java.util.Arrays.fill(columns, Integer.MIN_VALUE);
+    }
+
+    public int getCapacity() {
+        return masks.length;
+    }
+
+    /** Sets bit {@code row} (0..63) of column {@code col}. */
+    public void set(int col, int row) {
+        or(col, 1L << row);
+    }
+
+    /** Sets the bits of {@code rows} in column {@code col}. */
+    public void or(int col, long rows) {
+        int index = col & indexMask;
+        if (columns[index] != col) {
+            columns[index] = col;
+            masks[index] = 0;
+        }
+        masks[index] |= rows;
+    }
+
+    /** Empties column {@code col}. */
+    public void clear(int col) {
+        int index = col & indexMask;
+        if (columns[index] == col) {
+            masks[index] = 0;
+        }
+    }
+
+    /** Row mask of column {@code col}; unknown columns are empty. */
+    public long get(int col) {
+        int index = col & indexMask;
+        return columns[index] == col ? masks[index] : 0;
+    }
+}
@@ -0,0 +1,92 @@
+package com.unspeakabletest.wavewavetribute;
+
+/**
+ * Picks the resolution the world is drawn at, as a fraction of the window's
+ * pixels, so frames keep up with the display. GLES2 has no GPU timers, so the
+ * measured frame interval stands in for GPU time: with vsync on it sits on the
+ * refresh period while the GPU keeps up and jumps to a multiple of it when a
+ * frame misses.
+ * <p>
+ * Missing frames steps the scale down right away. Stepping back up is a probe
+ * made after a run of frames on time; a probe that misses again doubles the
+ * wait before the next one, so a scale right at the edge doesn't flicker
+ * between two sizes every second.
+ */
+public class DynamicResolution {
+    public static final float MIN_SCALE = 0.5f;
+    public static final float MAX_SCALE = 1f;
+    private static final float STEP = 0.05f; // One step is barely visible; the fill rate moves ~10%
+    private static final float SMOOTHING = 0.2f; // Weight of the newest frame in the running average
+    private static final float OVER_BUDGET = 1.2f; // Average interval (in budgets) that steps down
+    private static final float ON_BUDGET = 1.05f; // Interval (in budgets) that counts as on time
+    private static final float STALL_SECONDS = 0.25f; // Longer frames are loading or GC, not fill rate
+    private static final int PROBE_FRAMES = 90;
+    private static final int MAX_PROBE_FRAMES = 90 * 32;
+    private static final int PROBE_GRACE_FRAMES = 30; // A miss this soon after a probe blames the probe
+
+    private final float budget;
+    private float fixedScale = 0; // 0: adapt
+    private float scale = MAX_SCALE;
+    private float average;
+    private int framesOnTime = 0;
+    private int probeFrames = PROBE_FRAMES;
+    private int framesSinceProbe = Integer.MAX_VALUE;
+
+    /** @param budgetSeconds Frame interval to hold, normally the display's refresh period */
+    public DynamicResolution(float budgetSeconds) {
+        this.budget = budgetSeconds;
+        this.average = budgetSeconds;
+    }
+
+    /** Pins the scale (clamped to {@link #MIN_SCALE}..{@link #MAX_SCALE}); 0 adapts it again. */
+    public void setFixedScale(float fixedScale) {
+        this.fixedScale = fixedScale <= 0 ? 0 : Math.max(MIN_SCALE, Math.min(MAX_SCALE, fixedScale));
+        if (this.fixedScale > 0) {
+            scale = this.fixedScale;
+        }
+    }
+
+    public float getScale() {
+        return scale;
+    }
+
+    /**
+     * Feeds the wall-clock length of the last frame.
+     *
+     * @return the scale to draw the next frame at
+     */
+    public float update(float frameSeconds) {
+        if (fixedScale > 0 || frameSeconds > STALL_SECONDS) {
+            return scale;
+        }
+        average += (frameSeconds - average) * SMOOTHING;
+        if (framesSinceProbe < Integer.MAX_VALUE)
+            framesSinceProbe++;
+
+        if (average > budget * OVER_BUDGET) {
+            if (framesSinceProbe <= PROBE_GRACE_FRAMES) {
+                probeFrames = Math.min(probeFrames * 2, MAX_PROBE_FRAMES); // That size was too much
+            }
+            setScale(scale - STEP);
+        } else if (frameSeconds <= budget * ON_BUDGET) {
+            framesOnTime++;
+            if (framesOnTime >= probeFrames && scale < MAX_SCALE) {
+                setScale(scale + STEP);
+                framesSinceProbe = 0;
+            }
+        } else {
+            framesOnTime = 0;
+        }
+        if (framesSinceProbe > PROBE_FRAMES * 4) {
+            probeFrames = PROBE_FRAMES; // Conditions changed long ago; probe eagerly again
+        }
+        return scale;
+    }
+
+    private void setScale(float scale) {
+        this.scale = Math.max(MIN_SCALE, Math.min(MAX_SCALE, Math.round(scale / STEP) * STEP));
+        // The average describes the old size; start over at budget so one change settles before the next
+        average = budget;
+        framesOnTime = 0;
+    }
+}
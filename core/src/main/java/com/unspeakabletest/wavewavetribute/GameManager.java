@@ -21,6 +21,9 @@ public class GameManager {
 
     private GameState gameState;
 
+    // Level seed. Null means every run gets a fresh random seed.
+    private Long fixedSeed = null;
+
     private GameManager() {
         // Defaults
         resetToDefaults();
@@ -64,6 +67,26 @@ public class GameManager {
         this.difficulty = difficulty;
     }
 
+    public Long getFixedSeed() {
+        return fixedSeed;
+    }
+
+    /**
+     * Pins the seed used for every new run (benchmarks, replays). Pass null to
+     * go back to a fresh random seed per run.
+     */
+    public void setFixedSeed(Long fixedSeed) {
+        this.fixedSeed = fixedSeed;
+    }
+
+    /** @return the seed the next run's level generator should use. */
+    public long nextRunSeed() {
+        if (fixedSeed != null) {
+            return fixedSeed;
+        }
+        return com.badlogic.gdx.math.MathUtils.random.nextLong();
+    }
+
     public GameState getGameState() {
         return gameState;
     }
@@ -4,33 +4,46 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.ScreenAdapter;
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.badlogic.gdx.math.Vector2;
-import com.badlogic.gdx.utils.Array;
+import com.unspeakabletest.wavewavetribute.history.EventLog;
+import com.unspeakabletest.wavewavetribute.history.Replay;
+import com.unspeakabletest.wavewavetribute.history.RunRecord;
 
-public class GameScreen extends ScreenAdapter {
+public class GameScreen extends ScreenAdapter implements WaveSimulation.Listener {
 
     private final MainGame game;
+    private final PlayerInput input;
+    private final long runSeed;
     private OrthographicCamera camera;
-    private ShapeRenderer shapeRenderer;
+    // Fixed world size whatever the window: 800x480 world units, extended up to 1120x640 so
+    // 5:4 through 21:9 fill the window without bars. The camera zoom applies on top.
+    private com.badlogic.gdx.utils.viewport.ExtendViewport worldViewport;
+    private TriangleBatch triangleBatch;
+    private LatticeInstanceRenderer latticeRenderer; // Null without GL30: the grid goes through the batch
     private LevelGenerator levelGenerator;
 
-    // Player properties
-    private Vector2 playerPosition;
-    private float verticalSpeed = 400f; // Pixels per second
-    private float horizontalSpeed = 300f; // Pixels per second
-    private int currentDirection = 1; // 1 for up, -1 for down
+    // Game rules (movement, trail, combo, collision); this screen only draws it
+    private WaveSimulation simulation;
+    private final TouchEvents events = new TouchEvents();
+
+    // With MainGame.isSimulationThreaded() the rules run on their own thread until the
+    // crash, and each frame draws the latest SimulationSnapshot it published. Otherwise
+    // the snapshot is captured here after stepping. Either way drawing reads only the view.
+    private SimulationThread simulationThread;
+    private final SimulationSnapshot snapshot = new SimulationSnapshot();
+    private SimulationSnapshot view;
+    private int seenBonusCorners = 0;
+    private int seenWaveModeStarts = 0;
+    private int seenWaveModeEnds = 0;
+    private final Vector2 nose = new Vector2();
+
+    // Earlier runs on this seed, raced as translucent waves
+    private final GhostRacers ghosts;
+    private GhostRenderer ghostRenderer;
 
-    // Trail
-    private Array<Vector2> trail;
-    private float timeSinceLastTrailPoint = 0;
-    private float trailInterval = 0.05f; // Add a point every 0.05 seconds
-
-    private float wobbleTimer = 0;
     private float shakeTimer = 0; // Screen Shake Duration
     private float hitStopTimer = 0; // Freeze Frame Duration
     private Vector2 crashPoint = new Vector2(); // Store impact point for delayed zoom
-    private final float MAX_WOBBLE_ANGLE = 3f; // Reduced from 10f as requested
     private boolean isWobbleActive = true;
 
     // --- START BURST EFFECT (Rocket Smoke) ---
@@ -60,45 +73,80 @@ public class GameScreen extends ScreenAdapter {
     }
 
     private final com.badlogic.gdx.utils.Array<BurstParticle> burstParticles = new com.badlogic.gdx.utils.Array<>();
+    private double drawnOriginX = 0; // Level origin the particles are placed against
 
     // --- HUD / UI ---
     private OrthographicCamera uiCamera;
-    private float survivalTime = 0;
-    private float scoreTime = 0;
+    private LookAheadMinimap minimap; // Null for generators without a lattice
 
     // --- WAVE MODE ---
-    private boolean waveModeActive = false;
-    private float waveModeTimer = 0;
     private float exitShakeTimer = 0; // New Shake Timer for Exit
-    private int clickComboCount = 0;
-    private float lastClickTime = 0;
-    private float waveModeDuration = 7.0f;
-    private float comboTimeWindow = 0.2f; // Reset combo if > 0.2s between clicks
-    private float scoreBonus = 0.25f; // Bonus per zigzag in Wave Mode
     private float scoreScale = 1.0f; // For text pop effect
 
     // --- RHYTHMIC PULSE (160 BPM) ---
-    private final float bpm = 160f;
-    private final float beatInterval = 60f / bpm; // Seconds per beat
-    private float beatTimer = 0;
+    private final float beatInterval = LegacyLevelGenerator.BEAT_INTERVAL; // Seconds per beat
+    private float beatTimer = 0; // Time into the beat, on the run clock
     private float pulseTimer = 0;
     private final float pulseDuration = 0.1f; // Quick decay as requested
     private final float pulseIntensity = 0.05f; // Zoom amount (0.7 -> 0.65)
 
+    // --- PAUSE / IDLE RENDERING ---
+    // Paused: the last frame is kept in a FrameBuffer and only redrawn on input.
+    // Game over (after the crash effects): redrawn on input or at the glitch FX tick.
+    private boolean pauseRequested = false;
+    private GameManager.GameState stateBeforePause;
+    private com.badlogic.gdx.graphics.glutils.FrameBuffer pauseSnapshot;
+
+    // Dynamic resolution: below full scale the world is drawn into the corner of worldTarget
+    // and stretched over the viewport; the HUD is always drawn at native resolution.
+    private DynamicResolution resolution;
+    private com.badlogic.gdx.graphics.glutils.FrameBuffer worldTarget;
+    private int worldTargetWidth, worldTargetHeight; // Part of worldTarget drawn this frame
+    private boolean idle = false;
+    private static final float GAME_OVER_TICK = 0.05f; // Matches the glitch spawn cadence
+    private final com.badlogic.gdx.utils.Timer.Task animationTick = new com.badlogic.gdx.utils.Timer.Task() {
+        @Override
+        public void run() {
+            Gdx.graphics.requestRendering();
+        }
+    };
+
+    // Trail ribbon vertices, two triangles per trail point
+    private final float[] trailVertices = new float[WaveSimulation.MAX_TRAIL_POINTS * 2 * TriangleBatch.TRIANGLE_SIZE];
+
+    private int putTrailVertex(int v, float x, float y, float color) {
+        trailVertices[v] = x;
+        trailVertices[v + 1] = y;
+        trailVertices[v + 2] = color;
+        return v + TriangleBatch.VERTEX_SIZE;
+    }
+
     private void triggerStartBurst() {
         for (int i = 0; i < 20; i++) { // Spawn 20 particles
             // Spawn in a semi-circle behind the head
-            burstParticles.add(new BurstParticle(playerPosition.x - 10, playerPosition.y));
+            burstParticles.add(new BurstParticle(view.playerX - 10, view.playerY));
         }
     }
 
     public GameScreen(MainGame game) {
         this.game = game;
+        this.input = game.getPlayerInput();
+        this.runSeed = GameManager.getInstance().nextRunSeed();
         // Initialize with Legacy Mode and Wave Difficulty for now
-        this.levelGenerator = new LegacyLevelGenerator(GameManager.getInstance().getDifficulty());
+        LegacyLevelGenerator legacyGenerator = new LegacyLevelGenerator(GameManager.getInstance().getDifficulty(),
+                runSeed);
+        legacyGenerator.setLookAhead(LookAheadMinimap.LOOK_AHEAD); // Far enough for the minimap to show
+        this.levelGenerator = legacyGenerator;
+        this.ghosts = new GhostRacers(game.getReplayStore().load(runSeed, GameManager.getInstance().getDifficulty(),
+                game.getMaxGhosts()));
+        // From the mapped best-score index: no journal is read for it
+        this.bestScore = game.getRunHistory() != null ? game.getRunHistory().getBestScore(
+                GameManager.getInstance().getDifficulty(), GameManager.getInstance().getGameMode()) : -1;
         GameManager.getInstance().setGameState(GameManager.GameState.RUNNING);
     }
 
+    private final float bestScore; // Before this run on this difficulty and mode; -1 if none
+
     private com.badlogic.gdx.graphics.g2d.SpriteBatch batch;
     private com.badlogic.gdx.graphics.g2d.BitmapFont font;
 
@@ -107,139 +155,114 @@ public class GameScreen extends ScreenAdapter {
         camera = new OrthographicCamera();
         camera.setToOrtho(false, 800, 480);
         camera.zoom = 0.7f; // Zoom in to focus on the visible band (height 300 vs 480 screen)
+        worldViewport = new com.badlogic.gdx.utils.viewport.ExtendViewport(800, 480, 1120, 640, camera);
 
         uiCamera = new OrthographicCamera();
         uiCamera.setToOrtho(false, 800, 480); // Independent UI Camera (No Zoom/Shake)
 
-        shapeRenderer = new ShapeRenderer();
+        triangleBatch = new TriangleBatch();
+        if (LatticeInstanceRenderer.isSupported() && levelGenerator instanceof LegacyLevelGenerator) {
+            latticeRenderer = new LatticeInstanceRenderer(); // GL30: the grid as instances, not batched vertices
+            ((LegacyLevelGenerator) levelGenerator).setInstanceRenderer(latticeRenderer);
+        }
         batch = new com.badlogic.gdx.graphics.g2d.SpriteBatch();
-
-        survivalTime = 0;
-        scoreTime = 0;
-
-        // Try to load custom font
-        try {
-            com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator generator = new com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator(
-                    Gdx.files.internal("fonts/ginzanarrow-heavy.otf"));
-            com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter parameter = new com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter();
-            parameter.size = 24;
-            parameter.color = Color.WHITE;
-            font = generator.generateFont(parameter);
-            generator.dispose();
-        } catch (Exception e) {
-            // Fallback
-            font = new com.badlogic.gdx.graphics.g2d.BitmapFont();
-            font.setColor(Color.WHITE);
-            font.getData().setScale(1.5f);
-            System.out.println("Could not load custom font, using default: " + e.getMessage());
+        if (ghosts.size() > 0) {
+            ghostRenderer = new GhostRenderer(ghosts);
         }
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            minimap = new LookAheadMinimap((LegacyLevelGenerator) levelGenerator);
+        }
+        Gdx.graphics.setContinuousRendering(true); // The previous screen may have left it idle
 
-        playerPosition = new Vector2(100, 240);
-        trail = new Array<>();
-        trail.add(new Vector2(playerPosition));
+        com.badlogic.gdx.Graphics.DisplayMode displayMode = Gdx.graphics.getDisplayMode(); // Null headless
+        int refreshRate = displayMode != null ? displayMode.refreshRate : 0;
+        resolution = new DynamicResolution(1f / (refreshRate > 0 ? refreshRate : 60));
+        resolution.setFixedScale(game.getRenderScale());
 
-        triggerStartBurst(); // Trigger immediately on restart (Horizontal phase)
-    }
+        font = game.getHudFont(); // Shared; loaded by the loading screen, owned by the game
 
-    // ... (rest of file)
+        if (game.isSimulationThreaded()) {
+            simulationThread = new SimulationThread(levelGenerator);
+            simulation = simulationThread.getSimulation();
+        } else {
+            simulation = new WaveSimulation(levelGenerator, WaveSimulation.START_X, WaveSimulation.START_Y, this);
+        }
+        simulation.setEventLog(game.getEventLog());
+        if (game.getEventLog() != null) {
+            game.getEventLog().startRun(runSeed, GameManager.getInstance().getDifficulty().ordinal(),
+                    GameManager.getInstance().getGameMode().ordinal());
+        }
+        input.begin(simulation, levelGenerator);
+        snapshot.capture(simulation, levelGenerator);
+        setView(snapshot);
+        if (simulationThread != null) {
+            simulationThread.start();
+        }
 
-    // ... (rest of file)
+        triggerStartBurst(); // Trigger immediately on restart (Horizontal phase)
+    }
 
-    private boolean hasStarted = false;
-    private float inputDelayTimer = 0.01f; // Ignore input for 0.2s to prevent "Restart Click" from starting the game
-                                           // immediately
+    private boolean restartRequested = false;
+    private long crashNanos; // When the game-over screen came up, for the event log
 
     @Override
     public void render(float delta) {
-        // Update logic
-        if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING) {
-
-            if (inputDelayTimer > 0) {
-                inputDelayTimer -= delta;
-            }
-
-            // Check for game start (first click)
-            if (!hasStarted && inputDelayTimer <= 0) {
-                if (Gdx.input.justTouched()) { // Use justTouched for crisp start
-                    hasStarted = true;
-                    // First click implies going UP
-                    currentDirection = 1;
-                    trail.add(new Vector2(playerPosition)); // Add corner point where we started going up
-                }
-            }
-
-            // Input handling (Normal Gameplay)
-            if (hasStarted) {
-                int targetDirection = -1; // Default to falling
-
-                // If touching, go up
-                if (Gdx.input.isTouched()) {
-                    targetDirection = 1;
-                }
+        if (GameManager.getInstance().getGameState() == GameManager.GameState.PAUSED) {
+            renderPaused();
+            return;
+        }
 
-                if (targetDirection != currentDirection) {
-                    trail.add(new Vector2(playerPosition)); // Add corner point
-                    currentDirection = targetDirection;
+        // Pausing: draw this frame once more, frozen, into the snapshot
+        if (input.consumePauseRequest()) {
+            pauseRequested = true;
+        }
+        boolean capturing = pauseRequested
+                && GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING;
+        pauseRequested = false;
+        if (capturing) {
+            delta = 0; // Time spent in the background doesn't count
+            beginSnapshot();
+        }
 
-                    // --- WAVE MODE LOGIC ---
-                    if (waveModeActive) {
-                        // Bonus Score
-                        scoreTime += scoreBonus;
-                        scoreScale = 1.5f; // Pop effect
-                    } else {
-                        // Combo Check
-                        float timeSinceClick = survivalTime - lastClickTime;
-                        if (timeSinceClick <= comboTimeWindow) {
-                            clickComboCount++;
-                        } else {
-                            clickComboCount = 1; // Reset or Start new
-                        }
-
-                        lastClickTime = survivalTime;
-
-                        if (clickComboCount >= 16) {
-                            // ACTIVATE WAVE MODE
-                            waveModeActive = true;
-                            waveModeTimer = waveModeDuration;
-                            clickComboCount = 0;
-                            // Trigger Visuals (Camera Shake / Invert)
-                            // Camera Twist
-                            camera.rotate(5f); // Instant Twist-Back handled in update? No, let's just create a shake.
-                            // Actually, user asked for "Twist transversal and vertical"
-                            // We can simulate this with a violent shake or using `currentWobble`
-                            if (levelGenerator instanceof LegacyLevelGenerator) {
-                                ((LegacyLevelGenerator) levelGenerator).setWobbleAngle(10f); // Massive wobble kick
-                            }
-                        }
-                    }
-                }
+        events.clear();
+        input.collect(delta, events);
+        if (capturing) {
+            events.clear(); // Taps that arrive with the pause are not gameplay
+        }
 
-                // Apply Vertical movement
-                playerPosition.y += verticalSpeed * currentDirection * delta;
+        // Update logic: each press / release is applied at the moment it happened
+        if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING) {
+            if (simulationThread != null) {
+                simulationThread.submit(delta, events);
+                setView(simulationThread.latest());
+                dispatchSimulationEvents(); // May end the run
+            } else {
+                simulation.advance(delta, events);
+                snapshot.capture(simulation, levelGenerator);
+                setView(snapshot);
             }
+        } else {
+            // Nothing else is stepping the simulation now
+            snapshot.capture(simulation, levelGenerator);
+            setView(snapshot);
+        }
+        if (capturing && simulationThread != null) {
+            simulationThread.setPaused(true);
+        }
+        boolean waveModeActive = view.waveModeActive;
 
-            // Allow Horizontal movement always (wave moves forward)
-            playerPosition.x += horizontalSpeed * delta;
-
-            // Collision check is now done at end of frame using NOSE position
-
-            // Trail logic (Only update when running)
-            timeSinceLastTrailPoint += delta;
-            if (timeSinceLastTrailPoint >= trailInterval) {
-                trail.add(new Vector2(playerPosition));
-                timeSinceLastTrailPoint = 0;
-                // Keep trail limited length if needed, for now let it grow or limit count
-                if (trail.size > 50) {
-                    trail.removeIndex(0);
-                }
+        // The level's origin moved on: particles are in world space too
+        if (view.originX != drawnOriginX) {
+            float shift = (float) (view.originX - drawnOriginX);
+            for (BurstParticle p : burstParticles) {
+                p.x -= shift;
             }
-        } else {
-            // Game Over / Frozen state logic (no movement, no input)
+            drawnOriginX = view.originX;
         }
 
         // Camera follow
-        camera.position.x = playerPosition.x + 200; // Keep player slightly to the left
-        camera.position.y = playerPosition.y; // Strict vertical follow
+        camera.position.x = view.playerX + 200; // Keep player slightly to the left
+        camera.position.y = view.playerY; // Strict vertical follow
 
         // --- EXIT SHAKE LOGIC (Running State) ---
         if (exitShakeTimer > 0) {
@@ -289,11 +312,8 @@ public class GameScreen extends ScreenAdapter {
 
         // Elastic Camera Wobble Logic
         if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING && isWobbleActive) {
-            wobbleTimer += delta;
-
-            // Cycle Duration: 3 seconds. T = 3. Freq = 1/3.
-            // Omega = 2 * PI * Freq = 2 * PI / 3.
-            float angle = (float) Math.sin(wobbleTimer * (Math.PI * 2 / 3.0f)) * MAX_WOBBLE_ANGLE;
+            // Same 3 second cycle that shears the grid
+            float angle = view.wobbleAngle;
 
             // Apply Rotation (Reset first to avoid accumulation)
             camera.up.set(0, 1, 0);
@@ -308,12 +328,12 @@ public class GameScreen extends ScreenAdapter {
             camera.zoom = 0.7f - (Math.abs(angle) * 0.005f);
 
             // --- RHYTHMIC PULSE LOGIC ---
-            // Update Beat Timer
-            beatTimer += delta;
-            if (beatTimer >= beatInterval) {
-                beatTimer -= beatInterval;
+            // Beats of the run clock, which the moving obstacles keep to as well
+            float beat = view.survivalTime % beatInterval;
+            if (beat < beatTimer) {
                 pulseTimer = pulseDuration; // Trigger Pulse
             }
+            beatTimer = beat;
 
             // Update Pulse Timer & Apply Zoom
             if (pulseTimer > 0) {
@@ -340,115 +360,136 @@ public class GameScreen extends ScreenAdapter {
 
         camera.update();
 
-        // Update Level Generator
-        // Update Level Generator
-        if (levelGenerator instanceof LegacyLevelGenerator) {
-            ((LegacyLevelGenerator) levelGenerator).update(delta, camera.position.x, camera.position.y);
-            // Sync Wave Mode State EARLY
-            ((LegacyLevelGenerator) levelGenerator).setWaveMode(waveModeActive);
-        } else {
-            levelGenerator.update(delta, camera.position.x);
+        // While running the simulation steps the level generator (collision needs its shear);
+        // once frozen keep ticking it here so the crash glitch FX animate.
+        if (GameManager.getInstance().getGameState() != GameManager.GameState.RUNNING) {
+            if (levelGenerator instanceof LegacyLevelGenerator) {
+                ((LegacyLevelGenerator) levelGenerator).update(delta, camera.position.x, camera.position.y);
+                ((LegacyLevelGenerator) levelGenerator).setWobbleAngle(getWobbleAngle());
+            } else {
+                levelGenerator.update(delta, camera.position.x);
+            }
+            snapshot.captureLevel(levelGenerator);
         }
 
-        // Pass Wobble for Geometic Shear
-        if (levelGenerator instanceof LegacyLevelGenerator) {
-            ((LegacyLevelGenerator) levelGenerator).setWobbleAngle(getWobbleAngle());
+        // Render
+        // Only running frames say anything about fill rate; idle and paused frames are slow on purpose
+        float renderScale = resolution.getScale();
+        if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING && !capturing) {
+            renderScale = resolution.update(Gdx.graphics.getDeltaTime());
+        }
+        if (renderScale < 1f) {
+            beginWorldTarget(renderScale);
+        } else {
+            worldViewport.apply();
         }
 
-        // Render
         // Gdx.gl.glClearColor(0.2f, 0.2f, 0.2f, 1); // Redundant, renderLevelBase
         // handles clear
         // Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        shapeRenderer.setProjectionMatrix(camera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        triangleBatch.setProjectionMatrix(camera.combined);
+        triangleBatch.begin();
 
         // 1. Draw Level Mask (White Background/Bars) - NOW FIRST
-        levelGenerator.renderLevelMask(shapeRenderer, camera);
+        levelGenerator.renderLevelMask(triangleBatch, camera);
 
         // 2. Draw Level Base (Grid + Assembly FX) - NOW SECOND (On Top)
-        levelGenerator.renderLevelBase(shapeRenderer, camera);
+        levelGenerator.renderLevelBase(triangleBatch, camera);
 
         // 3. Draw Obstacles
-        levelGenerator.renderObstacles(shapeRenderer, camera);
+        levelGenerator.renderObstacles(triangleBatch, camera);
+
+        // Same shear as the grid, for the trail and the ghosts
+        float shearAngle;
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            shearAngle = view.shearAngle;
+        } else {
+            shearAngle = getWobbleAngle();
+        }
+        float shearK = 0.055f * shearAngle;
+
+        // 4. Ghosts, under the player: all of them in one draw call
+        if (ghostRenderer != null) {
+            triangleBatch.end();
+            float runTime = view.survivalTime;
+            ghosts.setOriginX(view.originX);
+            ghosts.update(runTime);
+            Color ghostColor = levelGenerator instanceof LegacyLevelGenerator
+                    ? ((LegacyLevelGenerator) levelGenerator).getObstacleColor()
+                    : Color.WHITE;
+            ghostRenderer.render(ghosts, camera.combined, ghostColor, runTime, shearK, camera.position.y);
+            triangleBatch.begin();
+        }
 
         // Draw Player
         // Match color to obstacles (Dark Color) as requested
         if (waveModeActive) {
-            shapeRenderer.setColor(Color.WHITE);
+            triangleBatch.setColor(Color.WHITE);
         } else {
             if (levelGenerator instanceof LegacyLevelGenerator) {
-                shapeRenderer.setColor(((LegacyLevelGenerator) levelGenerator).getObstacleColor());
+                triangleBatch.setColor(((LegacyLevelGenerator) levelGenerator).getObstacleColor());
             } else {
-                shapeRenderer.setColor(Color.WHITE);
+                triangleBatch.setColor(Color.WHITE);
             }
         }
 
-        float lineWidth = 5f; // Width of the trail
+        float lineWidth = WaveSimulation.LINE_WIDTH; // Width of the trail
 
         // Calculate vertical offset for the ribbon thickness
-        float speed = new Vector2(horizontalSpeed, verticalSpeed).len();
-        float vxNorm = horizontalSpeed / speed;
+        float speed = new Vector2(WaveSimulation.HORIZONTAL_SPEED, WaveSimulation.VERTICAL_SPEED).len();
+        float vxNorm = WaveSimulation.HORIZONTAL_SPEED / speed;
         // Match trail width to triangle base width (2 * lineWidth)
         // h = R / vxNorm, where R is half-width = lineWidth
         float verticalHalfWidth = lineWidth / vxNorm;
 
         // Draw trail
-        if (trail.size > 0) {
-            float shearAngle;
-            if (levelGenerator instanceof LegacyLevelGenerator) {
-                shearAngle = ((LegacyLevelGenerator) levelGenerator).getShearAngle();
-            } else {
-                shearAngle = getWobbleAngle();
-            }
-            float shearK = 0.055f * shearAngle;
-
+        if (view.trailSize > 0) {
             // Set Color for Trail (Matches Player/Obstacles)
             if (waveModeActive) {
-                shapeRenderer.setColor(Color.WHITE);
+                triangleBatch.setColor(Color.WHITE);
             } else {
                 if (levelGenerator instanceof LegacyLevelGenerator) {
                     // FORCE MATCH OBSTACLE COLOR
-                    shapeRenderer.setColor(((LegacyLevelGenerator) levelGenerator).getObstacleColor());
+                    triangleBatch.setColor(((LegacyLevelGenerator) levelGenerator).getObstacleColor());
                 } else {
-                    shapeRenderer.setColor(Color.valueOf("66CCAA")); // Fallback for other generators
+                    triangleBatch.setColor(Color.valueOf("66CCAA")); // Fallback for other generators
                 }
             }
-
-            for (int i = 0; i < trail.size - 1; i++) {
-                Vector2 p1 = trail.get(i);
-                Vector2 p2 = trail.get(i + 1);
-
+            float color = triangleBatch.getPackedColor();
+
+            // The ribbon is built in one span (two triangles per segment, the last one up to the
+            // player) and handed to the batch in one copy
+            float[] trailX = view.trailX;
+            float[] trailY = view.trailY;
+            int v = 0;
+            for (int i = 0; i < view.trailSize; i++) {
                 // Apply Geometric Shear (Match Grid)
-                float shear1 = (p1.y - camera.position.y) * shearK;
-                float shear2 = (p2.y - camera.position.y) * shearK;
-
-                float x1 = p1.x + shear1;
-                float y1_top = p1.y + verticalHalfWidth;
-                float y1_bot = p1.y - verticalHalfWidth;
-
-                float x2 = p2.x + shear2;
-                float y2_top = p2.y + verticalHalfWidth;
-                float y2_bot = p2.y - verticalHalfWidth;
-
-                shapeRenderer.triangle(x1, y1_top, x1, y1_bot, x2, y2_top);
-                shapeRenderer.triangle(x2, y2_top, x1, y1_bot, x2, y2_bot);
+                float shear1 = (trailY[i] - camera.position.y) * shearK;
+                float x1 = trailX[i] + shear1;
+                float y1_top = trailY[i] + verticalHalfWidth;
+                float y1_bot = trailY[i] - verticalHalfWidth;
+
+                float x2, y2;
+                if (i + 1 < view.trailSize) {
+                    x2 = trailX[i + 1] + (trailY[i + 1] - camera.position.y) * shearK;
+                    y2 = trailY[i + 1];
+                } else {
+                    // Line from last trail point to player
+                    x2 = view.playerX + (view.playerY - camera.position.y) * shearK;
+                    y2 = view.playerY;
+                }
+                float y2_top = y2 + verticalHalfWidth;
+                float y2_bot = y2 - verticalHalfWidth;
+
+                v = putTrailVertex(v, x1, y1_top, color);
+                v = putTrailVertex(v, x1, y1_bot, color);
+                v = putTrailVertex(v, x2, y2_top, color);
+                v = putTrailVertex(v, x2, y2_top, color);
+                v = putTrailVertex(v, x1, y1_bot, color);
+                v = putTrailVertex(v, x2, y2_bot, color);
             }
-            // Line from last trail point to player
-            Vector2 lastTrail = trail.get(trail.size - 1);
-            float shearLast = (lastTrail.y - camera.position.y) * shearK;
-
-            float x1 = lastTrail.x + shearLast;
-            float y1_top = lastTrail.y + verticalHalfWidth;
-            float y1_bot = lastTrail.y - verticalHalfWidth;
-
-            float shearPlayer = (playerPosition.y - camera.position.y) * shearK;
-            float x2 = playerPosition.x + shearPlayer;
-            float y2_top = playerPosition.y + verticalHalfWidth;
-            float y2_bot = playerPosition.y - verticalHalfWidth;
-
-            shapeRenderer.triangle(x1, y1_top, x1, y1_bot, x2, y2_top);
-            shapeRenderer.triangle(x2, y2_top, x1, y1_bot, x2, y2_bot);
+            triangleBatch.triangles(trailVertices, 0, v / TriangleBatch.TRIANGLE_SIZE);
         }
 
         // --- RENDER BURST PARTICLES ---
@@ -457,7 +498,7 @@ public class GameScreen extends ScreenAdapter {
             if (levelGenerator instanceof LegacyLevelGenerator) {
                 pColor = ((LegacyLevelGenerator) levelGenerator).getObstacleColor();
             }
-            shapeRenderer.setColor(pColor);
+            triangleBatch.setColor(pColor);
 
             for (int i = burstParticles.size - 1; i >= 0; i--) {
                 BurstParticle p = burstParticles.get(i);
@@ -513,53 +554,32 @@ public class GameScreen extends ScreenAdapter {
                     wx3 += (wy3 - camera.position.y) * sK;
                 }
 
-                shapeRenderer.triangle(wx1, wy1, wx2, wy2, wx3, wy3);
+                triangleBatch.triangle(wx1, wy1, wx2, wy2, wx3, wy3);
             }
         }
         // Draw Head (Triangle)
         // Use the same vertical offsets as the trail to ensure seamless connection
         // Base of the triangle is the vertical line at playerPosition
-        float headX = playerPosition.x;
-        float baseTopY = playerPosition.y + verticalHalfWidth;
-        float baseBotY = playerPosition.y - verticalHalfWidth;
-
-        // Nose is projected along velocity
-        // Make the head length shorter (e.g. 2.5x lineWidth) to be less pointy
-        Vector2 velocity;
-        if (!hasStarted) {
-            velocity = new Vector2(horizontalSpeed, 0).nor(); // Flat velocity
-        } else {
-            velocity = new Vector2(horizontalSpeed, verticalSpeed * currentDirection).nor();
-        }
-        Vector2 nose = new Vector2(velocity).scl(lineWidth * 2.5f).add(playerPosition);
-
-        shapeRenderer.triangle(nose.x, nose.y, headX, baseTopY, headX, baseBotY);
+        float headX = view.playerX;
+        float baseTopY = view.playerY + verticalHalfWidth;
+        float baseBotY = view.playerY - verticalHalfWidth;
 
-        // Draw Obstacles (Moved to before Mask)
-        // levelGenerator.renderObstacles(shapeRenderer, camera);
+        // Nose is projected along velocity (the same point collision uses)
+        Vector2 nose = this.nose.set(view.noseX, view.noseY);
 
-        shapeRenderer.end();
+        triangleBatch.triangle(nose.x, nose.y, headX, baseTopY, headX, baseBotY);
 
-        // --- LOGIC UPDATES AFTER RENDER TO USE CALCULATED VALUES ---
-        // Check Collision using the NOSE (Tip) position for instant impact feel
-        if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING) {
-            if (levelGenerator.checkCollision(nose)) {
-                GameManager.getInstance().setGameState(GameManager.GameState.GAME_OVER);
+        // Draw Obstacles (Moved to before Mask)
+        // levelGenerator.renderObstacles(triangleBatch, camera);
 
-                // Initiate Hit Stop
-                hitStopTimer = 0.2f;
-                crashPoint.set(nose); // Store for Zoom later
-
-                // Do NOT apply effects yet. They trigger when hitStopTimer <= 0.
-            }
-        }
+        triangleBatch.end();
 
         // --- MANUAL RESTART LOGIC ---
         if (GameManager.getInstance().getGameState() == GameManager.GameState.GAME_OVER && hitStopTimer <= 0) {
             // Wait for Click to Restart
             // Only restart if Shake is done
-            if (shakeTimer <= 0 && com.badlogic.gdx.Gdx.input.justTouched()) {
-                game.setScreen(new GameScreen(game));
+            if (shakeTimer <= 0 && events.hasPress()) {
+                restartRequested = true; // Switch screens once this frame is fully drawn
             }
         }
 
@@ -573,8 +593,8 @@ public class GameScreen extends ScreenAdapter {
                 LegacyLevelGenerator legacyGen = (LegacyLevelGenerator) levelGenerator;
                 if (legacyGen.wasLastCollisionOuter()) {
                     // 1. Draw the specific obstacle on top (reveal it)
-                    shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
-                    legacyGen.renderCollidedObstacle(shapeRenderer);
+                    triangleBatch.begin();
+                    legacyGen.renderCollidedObstacle(triangleBatch, camera);
 
                     // 2. Draw Parallelogram Background for Text
                     // Floating slightly to the right of the tip
@@ -623,7 +643,7 @@ public class GameScreen extends ScreenAdapter {
                         boxBottom = boxTop - boxHeight;
                     }
 
-                    shapeRenderer.setColor(Color.BLACK);
+                    triangleBatch.setColor(Color.BLACK);
                     // Draw Parallelogram (Quad) using triangles
                     // Box coordinates without skew:
                     // BL: (textX, boxBottom)
@@ -637,10 +657,10 @@ public class GameScreen extends ScreenAdapter {
                     float tr_x = textX + boxWidth + skew;
                     float br_x = textX + boxWidth;
 
-                    shapeRenderer.triangle(bl_x, boxBottom, tl_x, boxTop, tr_x, boxTop);
-                    shapeRenderer.triangle(bl_x, boxBottom, tr_x, boxTop, br_x, boxBottom);
+                    triangleBatch.triangle(bl_x, boxBottom, tl_x, boxTop, tr_x, boxTop);
+                    triangleBatch.triangle(bl_x, boxBottom, tr_x, boxTop, br_x, boxBottom);
 
-                    shapeRenderer.end();
+                    triangleBatch.end();
 
                     // 3. Draw Text "OUTER COLLISION"
                     batch.setProjectionMatrix(camera.combined);
@@ -655,22 +675,16 @@ public class GameScreen extends ScreenAdapter {
             }
         }
 
-        // --- HUD / UI (FIXED) ---
-        // Update Timers
-        if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING) { // Timers start immediately
-            survivalTime += delta;
-            scoreTime += delta;
-
-            // Wave Mode Timer
-            if (waveModeActive) {
-                waveModeTimer -= delta;
-                if (waveModeTimer <= 0) {
-                    waveModeActive = false;
-                    exitShakeTimer = 1.0f; // Start 1s Shake
-                    // Reset Visuals logic will be in LevelGenerator
-                }
-            }
+        if (renderScale < 1f) {
+            endWorldTarget(capturing);
+        }
+        // The HUD covers the whole window
+        com.badlogic.gdx.graphics.glutils.HdpiUtils.glViewport(0, 0, Gdx.graphics.getWidth(),
+                Gdx.graphics.getHeight());
 
+        // --- HUD / UI (FIXED) ---
+        // Timers live in the simulation; only the score pop decays here
+        if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING) {
             // Score Scale Decay
             if (scoreScale > 1.0f) {
                 scoreScale -= 5f * delta; // Quick recover (0.1s approx)
@@ -682,8 +696,10 @@ public class GameScreen extends ScreenAdapter {
         // batch.setProjectionMatrix(uiCamera.combined); // Not needed here yet
         // batch.begin(); // REMOVED PREMATURE BEGIN
 
-        String scoreText = String.format(java.util.Locale.US, "%.3f", scoreTime);
-        String survivalText = String.format(java.util.Locale.US, "%.3f", survivalTime);
+        String scoreText = String.format(java.util.Locale.US, "%.3f", view.scoreTime);
+        String survivalText = String.format(java.util.Locale.US, "%.3f", view.survivalTime);
+        // Game over adds the best score before this run, or NEW BEST if this run beat it
+        boolean gameOver = GameManager.getInstance().getGameState() == GameManager.GameState.GAME_OVER;
 
         // Scale Score Text
         font.getData().setScale(1.2f * scoreScale);
@@ -702,7 +718,7 @@ public class GameScreen extends ScreenAdapter {
         // Calculate layout size to determine box width
         float maxTextWidth = Math.max(layoutVideo.width, layoutReal.width);
         float boxWidth = maxTextWidth + marginX * 3; // Extra padding
-        float boxHeight = 100f;
+        float boxHeight = gameOver ? 130f : 100f;
 
         // Parallelogram Geometry (Slanted \)
         // Top Left X
@@ -729,15 +745,15 @@ public class GameScreen extends ScreenAdapter {
         float y4 = boxBotY;
 
         // Draw Background
-        shapeRenderer.setProjectionMatrix(uiCamera.combined);
-        shapeRenderer.begin(ShapeRenderer.ShapeType.Filled);
+        triangleBatch.setProjectionMatrix(uiCamera.combined);
+        triangleBatch.begin();
         if (waveModeActive)
-            shapeRenderer.setColor(Color.WHITE);
+            triangleBatch.setColor(Color.WHITE);
         else
-            shapeRenderer.setColor(Color.BLACK);
-        shapeRenderer.triangle(x1, y1, x2, y2, x4, y4);
-        shapeRenderer.triangle(x2, y2, x3, y3, x4, y4);
-        shapeRenderer.end();
+            triangleBatch.setColor(Color.BLACK);
+        triangleBatch.triangle(x1, y1, x2, y2, x4, y4);
+        triangleBatch.triangle(x2, y2, x3, y3, x4, y4);
+        triangleBatch.end();
 
         // Draw Text
         batch.setProjectionMatrix(uiCamera.combined);
@@ -754,16 +770,176 @@ public class GameScreen extends ScreenAdapter {
         font.getData().setScale(1.2f); // Reset
         font.draw(batch, survivalText, screenW - layoutReal.width - marginX, screenH - marginY - 40);
 
+        if (gameOver) {
+            String bestText = view.scoreTime > bestScore ? "NEW BEST"
+                    : String.format(java.util.Locale.US, "BEST %.3f", bestScore);
+            font.getData().setScale(0.9f);
+            com.badlogic.gdx.graphics.g2d.GlyphLayout layoutBest = new com.badlogic.gdx.graphics.g2d.GlyphLayout(
+                    font, bestText);
+            font.draw(batch, layoutBest, screenW - layoutBest.width - marginX, screenH - marginY - 76);
+            font.getData().setScale(1.2f);
+        }
+
         font.setColor(Color.WHITE); // Reset for next frame
 
+        // Look-ahead strip, top left: what comes after the right edge of the view, at a tenth of the scale
+        if (minimap != null) {
+            minimap.update(camera.position.x + camera.viewportWidth * camera.zoom / 2);
+            minimap.draw(batch, ((LegacyLevelGenerator) levelGenerator).getObstacleColor(), marginX,
+                    screenH - marginY - 30, 240, 30);
+        }
+
         batch.end();
+
+        // Nothing moves on the game-over screen but the glitch FX; stop redrawing at full rate
+        setIdle(GameManager.getInstance().getGameState() == GameManager.GameState.GAME_OVER
+                && hitStopTimer <= 0 && shakeTimer <= 0, GAME_OVER_TICK);
+
+        if (capturing) {
+            pauseSnapshot.end();
+            stateBeforePause = GameManager.getInstance().getGameState();
+            GameManager.getInstance().setGameState(GameManager.GameState.PAUSED);
+            setIdle(true, 0);
+            renderPaused();
+        }
+
+        if (restartRequested) {
+            if (game.getEventLog() != null) {
+                game.getEventLog().log(EventLog.RESTART, (System.nanoTime() - crashNanos) / 1e9f);
+            }
+            game.setScreen(new GameScreen(game));
+            // Game.setScreen only hides the old screen; free its renderer and batches now
+            // so long sessions don't leak GL resources on every restart.
+            dispose();
+        }
+    }
+
+    /** Starts drawing the frame into {@link #pauseSnapshot}, (re)creating it at the back buffer size. */
+    private void beginSnapshot() {
+        int width = Gdx.graphics.getBackBufferWidth();
+        int height = Gdx.graphics.getBackBufferHeight();
+        if (pauseSnapshot == null || pauseSnapshot.getWidth() != width || pauseSnapshot.getHeight() != height) {
+            if (pauseSnapshot != null)
+                pauseSnapshot.dispose();
+            pauseSnapshot = new com.badlogic.gdx.graphics.glutils.FrameBuffer(
+                    com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888, width, height, false);
+        }
+        pauseSnapshot.begin();
+    }
+
+    /**
+     * Starts the world pass in {@link #worldTarget}, drawing to {@code scale}
+     * of the viewport's back buffer pixels in its bottom-left corner.
+     * The target is (re)created at the full viewport size, so changing the
+     * scale never reallocates it.
+     */
+    private void beginWorldTarget(float scale) {
+        int width = com.badlogic.gdx.graphics.glutils.HdpiUtils.toBackBufferX(worldViewport.getScreenWidth());
+        int height = com.badlogic.gdx.graphics.glutils.HdpiUtils.toBackBufferY(worldViewport.getScreenHeight());
+        if (worldTarget == null || worldTarget.getWidth() != width || worldTarget.getHeight() != height) {
+            if (worldTarget != null)
+                worldTarget.dispose();
+            worldTarget = new com.badlogic.gdx.graphics.glutils.FrameBuffer(
+                    com.badlogic.gdx.graphics.Pixmap.Format.RGBA8888, width, height, false);
+            // Upscaled to the window; linear hides most of the stair-stepping
+            worldTarget.getColorBufferTexture().setFilter(com.badlogic.gdx.graphics.Texture.TextureFilter.Linear,
+                    com.badlogic.gdx.graphics.Texture.TextureFilter.Linear);
+        }
+        worldTargetWidth = Math.max(1, Math.round(width * scale));
+        worldTargetHeight = Math.max(1, Math.round(height * scale));
+        worldTarget.begin();
+        Gdx.gl.glViewport(0, 0, worldTargetWidth, worldTargetHeight);
+    }
+
+    /** Ends the world pass and stretches it over the viewport, in the snapshot if one is being captured. */
+    private void endWorldTarget(boolean capturing) {
+        worldTarget.end(); // Back to the window...
+        if (capturing) {
+            pauseSnapshot.begin(); // ...or the snapshot this frame is going into
+        }
+        Gdx.gl.glClearColor(0, 0, 0, 1); // Bars, if the window is outside the viewport's aspect range
+        Gdx.gl.glClear(com.badlogic.gdx.graphics.GL20.GL_COLOR_BUFFER_BIT);
+        worldViewport.apply();
+
+        com.badlogic.gdx.graphics.Texture texture = worldTarget.getColorBufferTexture();
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, 1, 1); // The viewport is the whole draw area
+        batch.disableBlending(); // Replaces, the world pass is opaque
+        batch.begin();
+        // FrameBuffer textures are upside down
+        batch.draw(texture, 0, 0, 1, 1, 0, 0, worldTargetWidth, worldTargetHeight, false, true);
+        batch.end();
+        batch.enableBlending();
+    }
+
+    /** Shows the frozen snapshot dimmed with a PAUSED label; a tap (or the pause key) resumes. */
+    private void renderPaused() {
+        float screenW = Gdx.graphics.getWidth();
+        float screenH = Gdx.graphics.getHeight();
+
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(com.badlogic.gdx.graphics.GL20.GL_COLOR_BUFFER_BIT);
+
+        batch.getProjectionMatrix().setToOrtho2D(0, 0, screenW, screenH);
+        batch.begin();
+        if (pauseSnapshot != null) {
+            com.badlogic.gdx.graphics.Texture snapshot = pauseSnapshot.getColorBufferTexture();
+            batch.setColor(0.5f, 0.5f, 0.5f, 1f); // Dim
+            // FrameBuffer textures are upside down
+            batch.draw(snapshot, 0, 0, screenW, screenH, 0, 0, snapshot.getWidth(), snapshot.getHeight(), false,
+                    true);
+            batch.setColor(Color.WHITE);
+        }
+        font.getData().setScale(1.5f);
+        com.badlogic.gdx.graphics.g2d.GlyphLayout layout = new com.badlogic.gdx.graphics.g2d.GlyphLayout(font,
+                "PAUSED");
+        font.draw(batch, layout, (screenW - layout.width) / 2, (screenH + layout.height) / 2);
+        font.getData().setScale(1.2f);
+        batch.end();
+
+        // Resume once the frame is drawn (a non-continuous frame must not be left empty)
+        events.clear();
+        input.collect(0, events);
+        if (events.hasPress() | input.consumePauseRequest()) {
+            GameManager.getInstance().setGameState(stateBeforePause);
+            if (simulationThread != null) {
+                simulationThread.setPaused(false);
+            }
+            setIdle(false, 0);
+        }
+    }
+
+    /**
+     * Switches between continuous rendering and redrawing only on input (plus
+     * every {@code tickInterval} seconds, if positive, for idle animations).
+     */
+    private void setIdle(boolean idle, float tickInterval) {
+        idle &= game.isIdleThrottling();
+        if (idle == this.idle) {
+            return;
+        }
+        this.idle = idle;
+        animationTick.cancel();
+        if (idle && tickInterval > 0) {
+            com.badlogic.gdx.utils.Timer.schedule(animationTick, tickInterval, tickInterval);
+        }
+        Gdx.graphics.setContinuousRendering(!idle);
+    }
+
+    @Override
+    public void pause() {
+        // App went to the background: freeze on the next frame we get to draw
+        if (GameManager.getInstance().getGameState() == GameManager.GameState.RUNNING) {
+            pauseRequested = true;
+            if (simulationThread != null) {
+                simulationThread.setPaused(true); // Don't keep playing in the background
+            }
+        }
     }
 
     @Override
     public void resize(int width, int height) {
-        camera.viewportWidth = width;
-        camera.viewportHeight = height;
-        camera.update();
+        // World units stay fixed; only the pixels they cover change (and the HUD's layout)
+        worldViewport.update(width, height);
 
         uiCamera.viewportWidth = width;
         uiCamera.viewportHeight = height;
@@ -773,16 +949,125 @@ public class GameScreen extends ScreenAdapter {
 
     @Override
     public void dispose() {
-        shapeRenderer.dispose();
+        if (simulationThread != null)
+            simulationThread.stop();
+        animationTick.cancel();
+        if (pauseSnapshot != null)
+            pauseSnapshot.dispose();
+        if (worldTarget != null)
+            worldTarget.dispose();
+        triangleBatch.dispose();
+        if (latticeRenderer != null)
+            latticeRenderer.dispose();
+        if (ghostRenderer != null)
+            ghostRenderer.dispose();
+        if (minimap != null)
+            minimap.dispose();
         if (batch != null)
             batch.dispose();
-        if (font != null)
-            font.dispose();
+    }
+
+    /** Queues the finished run for the run-history journal (written off the render thread). */
+    private void recordRun() {
+        RunRecord record = new RunRecord();
+        record.timestampMillis = System.currentTimeMillis();
+        record.seed = runSeed;
+        record.difficulty = GameManager.getInstance().getDifficulty().ordinal();
+        record.mode = GameManager.getInstance().getGameMode().ordinal();
+        record.score = simulation.getScoreTime();
+        record.survivalTime = simulation.getSurvivalTime();
+        record.crashX = simulation.worldX(crashPoint.x); // Comparable between runs whatever the origin
+        record.crashY = crashPoint.y;
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            record.outerCollision = ((LegacyLevelGenerator) levelGenerator).wasLastCollisionOuter();
+            record.ceilingCollision = ((LegacyLevelGenerator) levelGenerator).wasLastCollisionCeiling();
+        }
+        game.getRunHistory().submit(record);
+
+        Replay replay = new Replay();
+        replay.seed = runSeed;
+        replay.difficulty = record.difficulty;
+        replay.mode = record.mode;
+        replay.score = record.score;
+        replay.endTime = record.survivalTime;
+        replay.crashX = record.crashX;
+        replay.crashY = record.crashY;
+        replay.movingObstacles = levelGenerator instanceof LegacyLevelGenerator
+                && ((LegacyLevelGenerator) levelGenerator).hasMovingObstacles();
+        replay.turnTimes = simulation.getTurnTimes().toArray();
+        game.getReplayStore().submit(replay);
+    }
+
+    public long getRunSeed() {
+        return runSeed;
     }
 
     public float getWobbleAngle() {
         if (!isWobbleActive || GameManager.getInstance().getGameState() != GameManager.GameState.RUNNING)
             return 0;
-        return (float) Math.sin(wobbleTimer * (Math.PI * 2 / 3.0f)) * MAX_WOBBLE_ANGLE;
+        return view.wobbleAngle;
+    }
+
+    /** Switches what this frame draws, for the level too. */
+    private void setView(SimulationSnapshot view) {
+        this.view = view;
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            ((LegacyLevelGenerator) levelGenerator).setView(view);
+        }
+    }
+
+    /**
+     * Replays the simulation thread's events (counted in the snapshot) as
+     * listener calls on this thread. On a crash the thread has stopped
+     * stepping; joining it hands the simulation and level back to this
+     * thread for the game-over effects.
+     */
+    private void dispatchSimulationEvents() {
+        while (seenBonusCorners < view.bonusCorners) {
+            seenBonusCorners++;
+            onCorner(nose.set(view.playerX, view.playerY), true);
+        }
+        while (seenWaveModeStarts < view.waveModeStarts) {
+            seenWaveModeStarts++;
+            onWaveModeStart();
+        }
+        while (seenWaveModeEnds < view.waveModeEnds) {
+            seenWaveModeEnds++;
+            onWaveModeEnd();
+        }
+        if (view.crashed) {
+            simulationThread.stop();
+            onCrash(nose.set(view.crashX, view.crashY));
+        }
+    }
+
+    // --- SIMULATION EVENTS (fired from inside simulation.advance, or replayed from a snapshot) ---
+
+    @Override
+    public void onCorner(Vector2 corner, boolean bonus) {
+        if (bonus) {
+            scoreScale = 1.5f; // Pop effect
+        }
+    }
+
+    @Override
+    public void onWaveModeStart() {
+        camera.rotate(5f); // Twist; the grid gets its wobble kick from the simulation
+    }
+
+    @Override
+    public void onWaveModeEnd() {
+        exitShakeTimer = 1.0f; // Start 1s Shake
+    }
+
+    @Override
+    public void onCrash(Vector2 point) {
+        GameManager.getInstance().setGameState(GameManager.GameState.GAME_OVER);
+
+        // Initiate Hit Stop; crash effects trigger when hitStopTimer <= 0
+        hitStopTimer = 0.2f;
+        crashPoint.set(point); // Store for Zoom later
+        crashNanos = System.nanoTime();
+        recordRun();
     }
 }
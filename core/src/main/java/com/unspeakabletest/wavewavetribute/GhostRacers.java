@@ -0,0 +1,224 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.graphics.Color;
+import com.unspeakabletest.wavewavetribute.history.Replay;
+
+import java.util.List;
+
+/**
+ * Recorded runs raced alongside the player as translucent waves. Ghosts have
+ * no collision: each one retraces its replay and stops where it crashed.
+ * <p>
+ * Stored structure-of-arrays: all ghosts' turn points sit in shared flat
+ * arrays and every per-ghost value is its own array, so advancing and
+ * triangulating 100 ghosts is a few tight loops with no objects touched and
+ * nothing allocated per frame. {@link #fillVertices} writes every ghost into
+ * one vertex array for a single draw call ({@link GhostRenderer}).
+ */
+public class GhostRacers {
+    /** Trail length in run time; the player's trail keeps about as much. */
+    private static final float TRAIL_SECONDS = 2.5f;
+    /** Segments drawn per ghost at most; older ones are dropped first. */
+    private static final int MAX_SEGMENTS = 48;
+    private static final float FADE_SECONDS = 0.5f; // Fade out after the ghost's crash
+    private static final float ALPHA = 0.3f;
+
+    /** Floats per vertex: x, y, packed color. */
+    public static final int VERTEX_SIZE = 3;
+    private static final int VERTICES_PER_GHOST = MAX_SEGMENTS * 6 + 3; // Ribbon quads + head
+
+    private final int count;
+
+    // Turn points of all ghosts; ghost g owns [first[g], first[g] + points[g]).
+    // Point 0 of each ghost is the start, then one per turn.
+    private final float[] pointTime;
+    private final float[] pointY;
+    private final int[] first;
+    private final int[] points;
+
+    private final float[] endTime;
+    private final int[] headSegment; // Segment (starting point) the head is on
+    private final int[] tailSegment; // Segment the trail's end is on
+    private final float[] headX;
+    private final float[] headY;
+    private final float[] alpha; // 0 once faded out
+
+    private double originX = 0; // Level origin the player's positions are relative to
+    private final float verticalHalfWidth;
+    private final float noseX;
+    private final float noseY;
+
+    public GhostRacers(List<Replay> replays) {
+        count = replays.size();
+        int total = 0;
+        for (Replay replay : replays) {
+            total += 1 + replay.turnTimes.length;
+        }
+        pointTime = new float[total];
+        pointY = new float[total];
+        first = new int[count];
+        points = new int[count];
+        endTime = new float[count];
+        headSegment = new int[count];
+        tailSegment = new int[count];
+        headX = new float[count];
+        headY = new float[count];
+        alpha = new float[count];
+
+        int p = 0;
+        for (int g = 0; g < count; g++) {
+            Replay replay = replays.get(g);
+            first[g] = p;
+            points[g] = 1 + replay.turnTimes.length;
+            endTime[g] = replay.endTime;
+
+            // Integrate the path once; afterwards a position is one multiply-add
+            pointTime[p] = 0;
+            pointY[p] = WaveSimulation.START_Y;
+            for (int i = 1; i < points[g]; i++) {
+                float time = replay.turnTimes[i - 1];
+                pointTime[p + i] = time;
+                pointY[p + i] = pointY[p + i - 1]
+                        + direction(i - 1) * WaveSimulation.VERTICAL_SPEED * (time - pointTime[p + i - 1]);
+            }
+            p += points[g];
+        }
+
+        // Same ribbon and head shape as the player's wave
+        float speed = (float) Math.sqrt(WaveSimulation.HORIZONTAL_SPEED * WaveSimulation.HORIZONTAL_SPEED
+                + WaveSimulation.VERTICAL_SPEED * WaveSimulation.VERTICAL_SPEED);
+        verticalHalfWidth = WaveSimulation.LINE_WIDTH * speed / WaveSimulation.HORIZONTAL_SPEED;
+        float headLength = WaveSimulation.LINE_WIDTH * 2.5f;
+        noseX = WaveSimulation.HORIZONTAL_SPEED / speed * headLength;
+        noseY = WaveSimulation.VERTICAL_SPEED / speed * headLength;
+    }
+
+    /** Vertical direction of the segment starting at local point {@code i}: flat, up, down, up... */
+    private static int direction(int i) {
+        return i == 0 ? 0 : (i % 2 == 1 ? 1 : -1);
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /** Largest {@link #fillVertices} result, in floats. */
+    public int getMaxVertexFloats() {
+        return count * VERTICES_PER_GHOST * VERTEX_SIZE;
+    }
+
+    /** World x of the player's x = 0 ({@link WaveSimulation#getOriginX()}), so ghosts line up after a rebase. */
+    public void setOriginX(double originX) {
+        this.originX = originX;
+    }
+
+    /** X at run time {@code t}, relative to the origin; worked out in double so it stays exact on long runs. */
+    private float xAt(float t) {
+        return (float) (WaveSimulation.START_X + (double) WaveSimulation.HORIZONTAL_SPEED * t - originX);
+    }
+
+    /**
+     * Moves every ghost to run time {@code time} (the player's
+     * {@link WaveSimulation#getSurvivalTime()}). Time only moves forward
+     * within a run, so each ghost's segment cursors only ever step ahead.
+     */
+    public void update(float time) {
+        float tailTime = Math.max(0, time - TRAIL_SECONDS);
+        for (int g = 0; g < count; g++) {
+            float t = Math.min(time, endTime[g]);
+            int base = first[g];
+            int last = points[g] - 1;
+
+            int head = headSegment[g];
+            while (head < last && pointTime[base + head + 1] <= t) {
+                head++;
+            }
+            headSegment[g] = head;
+            int tail = tailSegment[g];
+            while (tail < head && pointTime[base + tail + 1] <= tailTime) {
+                tail++;
+            }
+            tailSegment[g] = tail;
+
+            headX[g] = xAt(t);
+            headY[g] = yAt(base, head, t);
+            alpha[g] = time <= endTime[g] ? 1f : Math.max(0, 1f - (time - endTime[g]) / FADE_SECONDS);
+        }
+    }
+
+    private float yAt(int base, int segment, float t) {
+        return pointY[base + segment]
+                + direction(segment) * WaveSimulation.VERTICAL_SPEED * (t - pointTime[base + segment]);
+    }
+
+    /**
+     * Triangulates every visible ghost (trail ribbon plus head) into
+     * {@code vertices} as x, y, packed color, in unsheared world space.
+     *
+     * @param color Ghost tint; its alpha is scaled down per ghost
+     * @return number of floats written
+     */
+    public int fillVertices(float[] vertices, Color color, float time) {
+        float h = verticalHalfWidth;
+        float tailTime = Math.max(0, time - TRAIL_SECONDS);
+        int v = 0;
+        for (int g = 0; g < count; g++) {
+            if (alpha[g] <= 0) {
+                continue;
+            }
+            float c = Color.toFloatBits(color.r, color.g, color.b, color.a * ALPHA * alpha[g]);
+            int base = first[g];
+            int head = headSegment[g];
+            float t = Math.min(time, endTime[g]);
+
+            // Trail start: mid-segment at the trail's length, or the oldest corner kept
+            int segment = tailSegment[g];
+            float x1, y1;
+            if (head - segment >= MAX_SEGMENTS) {
+                segment = head - MAX_SEGMENTS + 1;
+                x1 = xAt(pointTime[base + segment]);
+                y1 = pointY[base + segment];
+            } else {
+                float start = Math.min(tailTime, t);
+                x1 = xAt(start);
+                y1 = yAt(base, segment, start);
+            }
+
+            // One quad per segment up to the head
+            for (int s = segment + 1; s <= head + 1; s++) {
+                float x2, y2;
+                if (s <= head) {
+                    x2 = xAt(pointTime[base + s]);
+                    y2 = pointY[base + s];
+                } else {
+                    x2 = headX[g];
+                    y2 = headY[g];
+                }
+                v = put(vertices, v, x1, y1 + h, c);
+                v = put(vertices, v, x1, y1 - h, c);
+                v = put(vertices, v, x2, y2 + h, c);
+                v = put(vertices, v, x2, y2 + h, c);
+                v = put(vertices, v, x1, y1 - h, c);
+                v = put(vertices, v, x2, y2 - h, c);
+                x1 = x2;
+                y1 = y2;
+            }
+
+            // Head, pointing along the velocity
+            int dir = direction(head);
+            float nx = dir == 0 ? WaveSimulation.LINE_WIDTH * 2.5f : noseX;
+            float ny = dir * noseY;
+            v = put(vertices, v, headX[g] + nx, headY[g] + ny, c);
+            v = put(vertices, v, headX[g], headY[g] + h, c);
+            v = put(vertices, v, headX[g], headY[g] - h, c);
+        }
+        return v;
+    }
+
+    private static int put(float[] vertices, int v, float x, float y, float color) {
+        vertices[v] = x;
+        vertices[v + 1] = y;
+        vertices[v + 2] = color;
+        return v + VERTEX_SIZE;
+    }
+}
@@ -0,0 +1,80 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Mesh;
+import com.badlogic.gdx.graphics.VertexAttribute;
+import com.badlogic.gdx.graphics.VertexAttributes;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * Draws all {@link GhostRacers} in one draw call: one streamed vertex buffer,
+ * and a shader that applies the same geometric shear the player's trail and
+ * the grid get on the CPU ({@code x += (y - pivotY) * shearK}).
+ */
+public class GhostRenderer {
+    private static final String VERTEX_SHADER = "attribute vec4 a_position;\n"
+            + "attribute vec4 a_color;\n"
+            + "uniform mat4 u_projTrans;\n"
+            + "uniform float u_shearK;\n"
+            + "uniform float u_pivotY;\n"
+            + "varying vec4 v_color;\n"
+            + "void main() {\n"
+            + "    v_color = a_color;\n"
+            + "    vec4 p = a_position;\n"
+            + "    p.x += (p.y - u_pivotY) * u_shearK;\n"
+            + "    gl_Position = u_projTrans * p;\n"
+            + "}\n";
+    private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n"
+            + "precision mediump float;\n"
+            + "#endif\n"
+            + "varying vec4 v_color;\n"
+            + "void main() {\n"
+            + "    gl_FragColor = v_color;\n"
+            + "}\n";
+
+    private final ShaderProgram shader;
+    private final Mesh mesh;
+    private final float[] vertices;
+
+    public GhostRenderer(GhostRacers ghosts) {
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new IllegalStateException("Ghost shader: " + shader.getLog());
+        }
+        vertices = new float[Math.max(ghosts.getMaxVertexFloats(), GhostRacers.VERTEX_SIZE)];
+        mesh = new Mesh(false, vertices.length / GhostRacers.VERTEX_SIZE, 0,
+                new VertexAttribute(VertexAttributes.Usage.Position, 2, ShaderProgram.POSITION_ATTRIBUTE),
+                new VertexAttribute(VertexAttributes.Usage.ColorPacked, 4, ShaderProgram.COLOR_ATTRIBUTE));
+    }
+
+    /**
+     * @param time   Run time the ghosts were last {@link GhostRacers#update updated} to
+     * @param shearK Shear factor of the player's trail this frame
+     * @param pivotY Height that the shear leaves in place
+     */
+    public void render(GhostRacers ghosts, Matrix4 projection, Color color, float time, float shearK,
+            float pivotY) {
+        int floats = ghosts.fillVertices(vertices, color, time);
+        if (floats == 0) {
+            return;
+        }
+        mesh.setVertices(vertices, 0, floats);
+
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        shader.bind();
+        shader.setUniformMatrix("u_projTrans", projection);
+        shader.setUniformf("u_shearK", shearK);
+        shader.setUniformf("u_pivotY", pivotY);
+        mesh.render(shader, GL20.GL_TRIANGLES, 0, floats / GhostRacers.VERTEX_SIZE);
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+    }
+
+    public void dispose() {
+        mesh.dispose();
+        shader.dispose();
+    }
+}
@@ -0,0 +1,195 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.GL30;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * Draws the lattice grid with GL30 instancing: every cell is an instance of
+ * one triangle template, so per cell the CPU writes 16 bytes (column and row
+ * as shorts, the packed color, the assembly drift) instead of the 36 of
+ * three {@link TriangleBatch} vertices, and works out no corner positions.
+ * <p>
+ * The template is the up-pointing triangle in cell units; the vertex shader
+ * mirrors it for down cells (where column + row is odd, as in
+ * {@link LegacyLevelGenerator}), places it on the grid and applies the shear,
+ * which is the same for the whole grid. Instance data goes out like the
+ * batch's vertices: one of two buffers re-specified per draw, in turn.
+ * <p>
+ * Needs {@code Gdx.gl30}; without it (ANGLE's GLES 2, the headless tools) the
+ * grid stays on the batch. The shaders are written like the batch's, so they
+ * also compile on the desktop GL 3.2 compatibility contexts libGDX creates.
+ */
+public class LatticeInstanceRenderer {
+    /** Bytes per instance: column and row (shorts), color (RGBA bytes), drift x and y (floats). */
+    private static final int INSTANCE_SIZE = 16;
+    private static final int INITIAL_INSTANCES = 4096;
+
+    private static final String VERTEX_SHADER = "attribute vec2 a_corner;\n" // Template, in cells
+            + "attribute vec2 a_cell;\n" // Column from the base column, row
+            + "attribute vec4 a_color;\n"
+            + "attribute vec2 a_drift;\n"
+            + "uniform mat4 u_projModelView;\n"
+            + "uniform vec4 u_grid;\n" // Base column's x, bottom row's y, triangle width, triangle height
+            + "uniform vec2 u_shear;\n" // Shear factor, pivot y
+            + "varying vec4 v_col;\n"
+            + "void main() {\n"
+            + "    float down = mod(a_cell.x + a_cell.y, 2.0);\n"
+            + "    float cornerY = mix(a_corner.y, 1.0 - a_corner.y, down);\n"
+            + "    float x = u_grid.x + a_cell.x * (u_grid.z * 0.5) + a_corner.x * u_grid.z + a_drift.x;\n"
+            + "    float y = u_grid.y + (a_cell.y + cornerY) * u_grid.w + a_drift.y;\n"
+            + "    x += (y - u_shear.y) * u_shear.x;\n"
+            + "    gl_Position = u_projModelView * vec4(x, y, 0.0, 1.0);\n"
+            + "    v_col = a_color;\n"
+            + "    v_col.a *= 255.0 / 254.0;\n" // Packed colors lose the alpha's lowest bit, as in the batch
+            + "}\n";
+    private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n"
+            + "precision mediump float;\n"
+            + "#endif\n"
+            + "varying vec4 v_col;\n"
+            + "void main() {\n"
+            + "    gl_FragColor = v_col;\n"
+            + "}\n";
+
+    private final ShaderProgram shader;
+    private final int cornerLocation;
+    private final int cellLocation;
+    private final int colorLocation;
+    private final int driftLocation;
+    private final int templateBuffer;
+    private final int[] instanceBuffers = new int[2];
+    private int nextBuffer = 0;
+
+    private int[] instances; // INSTANCE_SIZE / 4 words each
+    private IntBuffer upload;
+    private int count = 0;
+
+    public LatticeInstanceRenderer() {
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new IllegalStateException("Lattice instance shader: " + shader.getLog());
+        }
+        cornerLocation = shader.getAttributeLocation("a_corner");
+        cellLocation = shader.getAttributeLocation("a_cell");
+        colorLocation = shader.getAttributeLocation("a_color");
+        driftLocation = shader.getAttributeLocation("a_drift");
+
+        // Up triangle: bottom left, bottom right, apex (the corner order of the batched grid)
+        FloatBuffer template = BufferUtils.newFloatBuffer(6);
+        template.put(new float[] { 0, 0, 1, 0, 0.5f, 1 }).flip();
+        templateBuffer = Gdx.gl.glGenBuffer();
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, templateBuffer);
+        Gdx.gl.glBufferData(GL20.GL_ARRAY_BUFFER, 6 * 4, template, GL20.GL_STATIC_DRAW);
+        Gdx.gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+
+        instanceBuffers[0] = Gdx.gl.glGenBuffer();
+        instanceBuffers[1] = Gdx.gl.glGenBuffer();
+        allocate(INITIAL_INSTANCES);
+    }
+
+    /** Whether this GL can draw instances; if not, draw the grid with the batch. */
+    public static boolean isSupported() {
+        return Gdx.gl30 != null;
+    }
+
+    private void allocate(int capacity) {
+        int[] grown = new int[capacity * (INSTANCE_SIZE / 4)];
+        if (instances != null) {
+            System.arraycopy(instances, 0, grown, 0, count * (INSTANCE_SIZE / 4));
+        }
+        instances = grown;
+        upload = BufferUtils.newIntBuffer(grown.length);
+    }
+
+    /** Drops the instances of the last grid. */
+    public void clear() {
+        count = 0;
+    }
+
+    /**
+     * Adds a cell.
+     *
+     * @param column half column counted from the base column passed to {@link #draw}; 0 to 32767
+     * @param abgr   color as {@link com.badlogic.gdx.graphics.Color#toIntBits()}
+     */
+    public void add(int column, int row, int abgr, float driftX, float driftY) {
+        int i = count * (INSTANCE_SIZE / 4);
+        if (i == instances.length) {
+            allocate(count * 2);
+        }
+        int[] v = instances;
+        v[i] = (row << 16) | (column & 0xFFFF); // Little endian: the column's short comes first
+        v[i + 1] = abgr & 0xFEFFFFFF; // Same alpha as the batch's packed colors
+        v[i + 2] = Float.floatToRawIntBits(driftX);
+        v[i + 3] = Float.floatToRawIntBits(driftY);
+        count++;
+    }
+
+    /**
+     * Draws the cells added since {@link #clear()} in one instanced call.
+     *
+     * @param baseX   x of the base column's left corner, before drift and shear
+     * @param bottomY y of row 0's bottom edge
+     * @param shearK  horizontal shift per unit of height above {@code pivotY}
+     */
+    public void draw(Matrix4 projection, float baseX, float bottomY, float triangleWidth, float triangleHeight,
+            float shearK, float pivotY) {
+        if (count == 0) {
+            return;
+        }
+        GL20 gl = Gdx.gl;
+        GL30 gl30 = Gdx.gl30;
+        int words = count * (INSTANCE_SIZE / 4);
+        upload.clear();
+        BufferUtils.copy(instances, 0, words, upload);
+        upload.limit(words); // The copy leaves the limit alone; the upload sends what remains
+
+        shader.bind();
+        shader.setUniformMatrix("u_projModelView", projection);
+        shader.setUniformf("u_grid", baseX, bottomY, triangleWidth, triangleHeight);
+        shader.setUniformf("u_shear", shearK, pivotY);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, templateBuffer);
+        gl.glEnableVertexAttribArray(cornerLocation);
+        gl.glVertexAttribPointer(cornerLocation, 2, GL20.GL_FLOAT, false, 8, 0);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, instanceBuffers[nextBuffer]);
+        nextBuffer ^= 1;
+        gl.glBufferData(GL20.GL_ARRAY_BUFFER, words * 4, null, GL20.GL_STREAM_DRAW); // Orphan the old contents
+        gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, 0, words * 4, upload);
+        gl.glEnableVertexAttribArray(cellLocation);
+        gl.glVertexAttribPointer(cellLocation, 2, GL20.GL_SHORT, false, INSTANCE_SIZE, 0);
+        gl.glEnableVertexAttribArray(colorLocation);
+        gl.glVertexAttribPointer(colorLocation, 4, GL20.GL_UNSIGNED_BYTE, true, INSTANCE_SIZE, 4);
+        gl.glEnableVertexAttribArray(driftLocation);
+        gl.glVertexAttribPointer(driftLocation, 2, GL20.GL_FLOAT, false, INSTANCE_SIZE, 8);
+        gl30.glVertexAttribDivisor(cellLocation, 1);
+        gl30.glVertexAttribDivisor(colorLocation, 1);
+        gl30.glVertexAttribDivisor(driftLocation, 1);
+
+        gl30.glDrawArraysInstanced(GL20.GL_TRIANGLES, 0, 3, count);
+
+        // Divisors stay with the attribute index; the batches' plain attributes must not inherit them
+        gl30.glVertexAttribDivisor(cellLocation, 0);
+        gl30.glVertexAttribDivisor(colorLocation, 0);
+        gl30.glVertexAttribDivisor(driftLocation, 0);
+        gl.glDisableVertexAttribArray(cornerLocation);
+        gl.glDisableVertexAttribArray(cellLocation);
+        gl.glDisableVertexAttribArray(colorLocation);
+        gl.glDisableVertexAttribArray(driftLocation);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+    }
+
+    public void dispose() {
+        shader.dispose();
+        Gdx.gl.glDeleteBuffer(templateBuffer);
+        Gdx.gl.glDeleteBuffer(instanceBuffers[0]);
+        Gdx.gl.glDeleteBuffer(instanceBuffers[1]);
+    }
+}
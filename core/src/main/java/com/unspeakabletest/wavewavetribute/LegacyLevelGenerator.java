@@ -2,7 +2,6 @@ package com.unspeakabletest.wavewavetribute;
 
 import com.badlogic.gdx.graphics.Color;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 import com.unspeakabletest.wavewavetribute.enums.Difficulty;
 
 public class LegacyLevelGenerator implements LevelGenerator {
@@ -17,10 +16,24 @@ public class LegacyLevelGenerator implements LevelGenerator {
     private static final float MIN_Y = CENTER_Y - (VISIBLE_HEIGHT / 2);
     private static final float MAX_Y = CENTER_Y + (VISIBLE_HEIGHT / 2);
 
-    // Grid Constants
-    private static final int GRID_ROWS = 9;
-    private static final float TRIANGLE_HEIGHT = VISIBLE_HEIGHT / GRID_ROWS; // 33.333f
-    private static final float TRIANGLE_WIDTH = (TRIANGLE_HEIGHT / GRID_SLOPE) * 2f; // Matched to Wave Slope
+    // Grid (rows per difficulty; the band keeps its height, so more rows means smaller triangles)
+    private static final int BASE_GRID_ROWS = 9; // Grid the noise scales and assembly fan were tuned on
+    private final int gridRows;
+    private final float triangleHeight; // 33.333f with 9 rows
+    private final float triangleWidth; // Matched to Wave Slope
+    private final float cellScale; // Triangle size relative to the 9 row grid
+
+    // Obstacles are drawn this much wider on each side than they collide, so
+    // "critical vertices" on the boundary are captured even with float error
+    private static final float RENDER_BUFFER = 25f;
+    private static final float OBSTACLE_EXTENSION = 1000f; // How far obstacles reach past the band edge
+    // Largest distance from an obstacle's tip to any corner of its render shape
+    private static final float MAX_OBSTACLE_HALF_WIDTH = (VISIBLE_HEIGHT + OBSTACLE_EXTENSION) / GRID_SLOPE
+            + RENDER_BUFFER;
+
+    // Level RNG: everything that shapes the course comes from here so a seed
+    // reproduces the same level. Purely visual effects keep using MathUtils.random.
+    private final com.badlogic.gdx.math.RandomXS128 random;
 
     private FastNoise noiseGenerator;
     private float noiseScale = 0.1f; // Adjust for clustering size
@@ -30,7 +43,7 @@ public class LegacyLevelGenerator implements LevelGenerator {
     private Color darkColor;
 
     public Color getObstacleColor() {
-        if (isWaveMode)
+        if (drawnWaveMode())
             return Color.WHITE;
         return darkColor;
     }
@@ -45,6 +58,7 @@ public class LegacyLevelGenerator implements LevelGenerator {
 
         boolean isCeiling;
         boolean active;
+        int tipColumn; // Absolute half column of the tip; the floats are relative to the origin
 
         public void set(float tipX, float tipY, float farBaseY, float slope, boolean isCeiling) {
             this.isCeiling = isCeiling;
@@ -64,8 +78,7 @@ public class LegacyLevelGenerator implements LevelGenerator {
             // 2. Calculate Render Shape (Expanded Buffer)
             // Buffer ensures "Critical Vertices" on the boundary are captured even with
             // float error
-            float buffer = 25f;
-            float rHalfWidth = (heightDiff / slope) + buffer;
+            float rHalfWidth = (heightDiff / slope) + RENDER_BUFFER;
 
             this.rx1 = tipX - rHalfWidth;
             this.ry1 = farBaseY;
@@ -78,13 +91,121 @@ public class LegacyLevelGenerator implements LevelGenerator {
     }
 
     private final com.badlogic.gdx.utils.Array<TriangleObstacle> obstacles = new com.badlogic.gdx.utils.Array<>();
+    // The obstacle being generated with its tip at x = 0, for marking its cells
+    private final TriangleObstacle tipRelative = new TriangleObstacle();
+
+    // Floating origin: the x coordinates of everything (obstacles, player, camera)
+    // are relative to half column originColumn, which rebase() moves forward on
+    // long runs. Column indices stay absolute, so masks, colors and the lattice
+    // never move; only the floats do, and they stay as exact as in the first minute.
+    public static final float REBASE_DISTANCE = 65536f;
+    private int originColumn = 0; // Even, so cell orientation (col % 2) is unchanged
     private float lastObstacleX = 200; // Start obstacles a bit ahead
     private float obstacleSpacing = 200f; // Distance between obstacle columns (increased from 100)
 
-    public LegacyLevelGenerator(Difficulty difficulty) {
+    // Collision starts its obstacle search here: every obstacle before this one
+    // has its tip behind the wave, which collision ignores
+    private int firstObstacleAhead = 0;
+
+    // Every band cell drawn as obstacle, per half column (the grid pass and
+    // collision read this instead of testing each cell against every obstacle)
+    private final ColumnMasks occupancy;
+
+    // Obstacle cells as a search graph (autoplayer, solvability checks)
+    private final ObstacleLattice lattice;
+
+    // --- MOVING OBSTACLES ---
+    /** One beat of the soundtrack (160 BPM); moving obstacles keep time with it. */
+    public static final float BEAT_INTERVAL = 60f / 160f;
+    private static final int SWING_BEATS = 4; // Length of a swing, out and back in
+    private boolean movingObstacles;
+    private int columnsGenerated = 0;
+    // Furthest run time any wave on this level has reached; poses are a function of it
+    private double levelTime = 0;
+
+    /**
+     * A mountain that retracts towards the edge it hangs from and comes back,
+     * in steps of two rows so its tip stays on a cell of the same orientation
+     * (and its cells look like a static mountain's). It only ever shrinks, so
+     * the lattice holds its full size and the autoplayer and solvability
+     * checks stay valid whatever the beat.
+     */
+    private static class MovingMountain {
+        final TriangleObstacle shape = new TriangleObstacle(); // Current pose, relative to the origin
+        float restTipY;
+        float farBaseY;
+        int reachRows; // Even
+        int retractRows = 0;
+        boolean kick; // Else swing
+        int beatOffset;
+        int markedPass; // Redraw pass that last marked it
+    }
+
+    // Sorted by x extent, re-sorted as they move; their cells live in their own ring
+    private final SweepAndPrune<MovingMountain> movers = new SweepAndPrune<>();
+    private final ColumnMasks movingCells;
+    private final com.badlogic.gdx.utils.Array<MovingMountain> moverQuery = new com.badlogic.gdx.utils.Array<>();
+    private final com.badlogic.gdx.utils.Array<MovingMountain> movedQuery = new com.badlogic.gdx.utils.Array<>();
+    private final TriangleObstacle moverRelative = new TriangleObstacle(); // Pose with the tip at x = 0
+    private int markPass = 0;
+
+    // Cell colors come from two noise lookups each; a column's colors are worked
+    // out once when it scrolls into view and kept in a ring, like the masks.
+    // Each slot holds two columns, so split-screen views of two different
+    // stretches of level each keep theirs instead of evicting each other.
+    private final int[] colorColumns; // Column held by each way of each slot
+    private final int[] colorUsed; // Grid pass that last read each way
+    private final int[] mainColors;
+    private final int[] obstacleColors;
+    private final int colorColumnMask;
+    private int colorPass = 0;
+
+    public LegacyLevelGenerator(Difficulty difficulty, long seed) {
+        gridRows = difficulty.gridRows;
+        triangleHeight = VISIBLE_HEIGHT / gridRows;
+        triangleWidth = (triangleHeight / GRID_SLOPE) * 2f;
+        cellScale = (float) BASE_GRID_ROWS / gridRows;
+
+        // Keep the same stretch of level in the rings whatever the cell size (1024 half columns at 9 rows)
+        float halfWidth = triangleWidth / 2;
+        occupancy = new ColumnMasks(Math.max(1024, com.badlogic.gdx.math.MathUtils.nextPowerOfTwo(
+                (int) Math.ceil(ObstacleLattice.KEPT_WIDTH / halfWidth))));
+        lattice = new ObstacleLattice(gridRows, triangleHeight, halfWidth, MIN_Y, CENTER_Y,
+                0.055f * 3.0f); // Collision unshears by up to 0.055 per degree * 3 degrees
+        movingCells = new ColumnMasks(occupancy.getCapacity());
+        // The dense grids are the hard ones; a replay says for itself (Replay#movingObstacles)
+        movingObstacles = difficulty.ordinal() >= Difficulty.WAVE_WAVE.ordinal();
+
+        // Enough columns for a 2048 px wide view
+        int colorCapacity = com.badlogic.gdx.math.MathUtils.nextPowerOfTwo(
+                Math.max(64, (int) Math.ceil(2048f / halfWidth)));
+        colorColumns = new int[colorCapacity * 2];
+        java.util.Arrays.fill(colorColumns, Integer.MIN_VALUE);
+        colorUsed = new int[colorCapacity * 2];
+        mainColors = new int[colorCapacity * 2 * gridRows];
+        obstacleColors = new int[colorCapacity * 2 * gridRows];
+        colorColumnMask = colorCapacity - 1;
+
+        random = new com.badlogic.gdx.math.RandomXS128(seed);
         setColorsForDifficulty(difficulty);
-        noiseGenerator = new FastNoise(com.badlogic.gdx.math.MathUtils.random(1000));
-        nextIsTop = com.badlogic.gdx.math.MathUtils.randomBoolean(); // Randomize start direction
+        noiseGenerator = new FastNoise(random.nextInt(1001));
+        columns = createColumnGenerator(random, gridRows, lastObstacleEndX);
+    }
+
+    /**
+     * The obstacle sequence of {@code seed} on its own, exactly as a
+     * generator with that seed lays it out, for bulk tools that don't need
+     * rendering or collision.
+     */
+    public static ObstacleColumnGenerator createColumnGenerator(Difficulty difficulty, long seed) {
+        com.badlogic.gdx.math.RandomXS128 random = new com.badlogic.gdx.math.RandomXS128(seed);
+        random.nextInt(1001); // Noise seed, drawn first by the constructor
+        return createColumnGenerator(random, difficulty.gridRows, FIRST_OBSTACLE_X);
+    }
+
+    private static ObstacleColumnGenerator createColumnGenerator(com.badlogic.gdx.math.RandomXS128 random,
+            int gridRows, float firstStartX) {
+        return new ObstacleColumnGenerator(random, gridRows, VISIBLE_HEIGHT / gridRows, GRID_SLOPE, firstStartX);
     }
 
     private void setColorsForDifficulty(Difficulty difficulty) {
@@ -113,8 +234,12 @@ public class LegacyLevelGenerator implements LevelGenerator {
         mainColor = palette[0]; // Fallback
     }
 
-    private boolean nextIsTop = true; // Start pattern with top or bottom
-    private float lastObstacleEndX = 200; // Track end of last obstacle
+    private final ObstacleColumnGenerator columns; // Obstacle sizes and placement
+    private static final float FIRST_OBSTACLE_X = 200f; // Obstacles start a bit ahead of the wave
+    private float lastObstacleEndX = FIRST_OBSTACLE_X; // Track end of last obstacle
+    /** Default distance past the camera that obstacles are generated up to. */
+    public static final float DEFAULT_LOOK_AHEAD = 800f;
+    private float lookAhead = DEFAULT_LOOK_AHEAD;
 
     // Assembly FX
     public boolean ENABLE_ASSEMBLY_FX = true;
@@ -129,17 +254,35 @@ public class LegacyLevelGenerator implements LevelGenerator {
     // Color Palette
     private Color[] palette;
     private final Color tempColor = new Color();
+    private final Color assemblyColor = new Color();
 
     public void setGameSpeed(float speed) {
         this.gameSpeed = speed;
     }
 
     // Wobble Effect (Geometric Shear)
-    private float currentWobbleAngle = 0;
-    private float shearAngle = 0; // Smoothed angle for Jelly lag
+    /**
+     * The shear one wave drives and collides against. Waves sharing a level
+     * (split-screen) each keep their own and bind it with {@link #setShear}
+     * before stepping; everything else about the level is shared.
+     */
+    public static final class Shear {
+        private float wobbleAngle = 0;
+        private float angle = 0; // Smoothed angle for Jelly lag
+        private float latchedTarget = 0; // Stick to +/- 3.0 until opposite side triggers
+        private float pivotY = 0; // Height of the wave at the last update
+        private double time = 0; // Run time of the wave: the clock moving obstacles keep to
+    }
+
+    private Shear shear = new Shear();
+
+    /** Makes {@code shear} the one updates, collision and the getters below use. */
+    public void setShear(Shear shear) {
+        this.shear = shear;
+    }
 
     public void setWobbleAngle(float angle) {
-        this.currentWobbleAngle = angle;
+        shear.wobbleAngle = angle;
     }
 
     // --- GLITCH EFFECT (Paper Turn) ---
@@ -189,7 +332,7 @@ public class LegacyLevelGenerator implements LevelGenerator {
             if (com.badlogic.gdx.math.MathUtils.randomBoolean(0.3f)) { // 30% chance per check
                 // Pick random visible triangle
                 int rCol = com.badlogic.gdx.math.MathUtils.random(startCol, endCol);
-                int rRow = com.badlogic.gdx.math.MathUtils.random(0, GRID_ROWS - 1); // Include all rows
+                int rRow = com.badlogic.gdx.math.MathUtils.random(0, gridRows - 1); // Include all rows
                 boolean rIsUp = com.badlogic.gdx.math.MathUtils.randomBoolean();
 
                 // Check if already glitching
@@ -230,16 +373,58 @@ public class LegacyLevelGenerator implements LevelGenerator {
      * Used for Game Over "Snap" effect.
      */
     public void resetWobble() {
-        this.currentWobbleAngle = 0;
-        this.shearAngle = 0;
-        this.latchedShearTarget = 0;
+        shear.wobbleAngle = 0;
+        shear.angle = 0;
+        shear.latchedTarget = 0;
     }
 
     public float getShearAngle() {
-        return shearAngle;
+        return shear.angle;
+    }
+
+    /** Height the shear leaves in place (the wave's height at the last update). */
+    public float getShearPivotY() {
+        return shear.pivotY;
+    }
+
+    // --- DRAWN STATE ---
+    // Rendering reads shear, wave mode and obstacle cells from a snapshot when one is
+    // set, so it never touches state that a simulation thread is writing.
+    private SimulationSnapshot view;
+
+    public void setView(SimulationSnapshot view) {
+        this.view = view;
     }
 
-    private float lastCameraY = 0;
+    // Null draws the grid through the batch
+    private LatticeInstanceRenderer instanceRenderer;
+
+    /** Draws the grid's cells as GL30 instances with {@code renderer}; null goes back to the batch. */
+    public void setInstanceRenderer(LatticeInstanceRenderer renderer) {
+        this.instanceRenderer = renderer;
+    }
+
+    private boolean drawnWaveMode() {
+        return view != null ? view.waveModeActive : isWaveMode;
+    }
+
+    private float drawnShearK() {
+        return 0.055f * (view != null ? view.shearAngle : shear.angle);
+    }
+
+    private float drawnPivotY() {
+        return view != null ? view.shearPivotY : shear.pivotY;
+    }
+
+    private int drawnOriginColumn() {
+        return view != null ? view.originColumn : originColumn;
+    }
+
+    private long drawnOccupancy(int col) {
+        return view != null ? view.getOccupancy(col) : getCells(col);
+    }
+
+    private float lastDelta = 0;
 
     // Interface method
     @Override
@@ -247,10 +432,9 @@ public class LegacyLevelGenerator implements LevelGenerator {
         update(delta, cameraX, 0); // Warning: No Y info
     }
 
-    private float latchedShearTarget = 0; // Stick to +/- 3.0 until opposite side triggers
-
     public void update(float delta, float cameraX, float cameraY) {
-        this.lastCameraY = cameraY;
+        shear.pivotY = cameraY;
+        this.lastDelta = delta;
 
         // Update Smoothed Shear Angle (Jelly Effect)
         // Logic:
@@ -260,17 +444,18 @@ public class LegacyLevelGenerator implements LevelGenerator {
 
         float threshold = 0.5f; // Reduced from 1.5f as requested
 
-        if (currentWobbleAngle > threshold) {
-            latchedShearTarget = 3.0f;
-        } else if (currentWobbleAngle < -threshold) {
-            latchedShearTarget = -3.0f;
+        if (shear.wobbleAngle > threshold) {
+            shear.latchedTarget = 3.0f;
+        } else if (shear.wobbleAngle < -threshold) {
+            shear.latchedTarget = -3.0f;
         }
 
         // "Sinusoidal" Transition (Smooth Ease-In/Out feel)
         // Ideally we'd use a Sine function, but Lerp at moderate speed approximates the
         // "Soft Catchup".
-        float lerpSpeed = 0.75f * delta;
-        shearAngle += (latchedShearTarget - shearAngle) * lerpSpeed;
+        // Eased exactly (not one Euler step per frame), so the shear collision sees doesn't depend on the frame rate
+        float lerpSpeed = 1f - (float) Math.exp(-0.75f * delta);
+        shear.angle += (shear.latchedTarget - shear.angle) * lerpSpeed;
 
         // Simple Speed Estimation (if not passed explicitly)
         // Or we can just use a fixed value for the effect if real speed isn't critical.
@@ -281,157 +466,491 @@ public class LegacyLevelGenerator implements LevelGenerator {
         // For now, let's stick to the default 300f or update it if we can.
 
         // Generate obstacles ahead of the camera
-        while (lastObstacleEndX < cameraX + 800) {
+        while (lastObstacleEndX < cameraX + lookAhead) {
             generateObstacleColumn();
         }
+
+        // Waves sharing the level step it in turn on the same clock, which the furthest one sets;
+        // each moves the obstacles around itself (a pose is only a function of the clock)
+        shear.time += delta;
+        if (shear.time >= levelTime) {
+            levelTime = shear.time;
+            moveObstacles(cameraX);
+        }
     }
 
-    private void generateObstacleColumn() {
-        // Strict alternating pattern
-        // Consistent slope matching Wave Movement (and now Grid)
-        int maxRows = GRID_ROWS - 1; // 8
+    /**
+     * Whether generated levels get moving obstacles. Decides the layout, so
+     * set it before the first {@link #update}; by default the dense grids
+     * ({@link Difficulty#WAVE_WAVE} and up) have them.
+     */
+    public void setMovingObstacles(boolean movingObstacles) {
+        this.movingObstacles = movingObstacles;
+    }
 
-        // Ensure visibility inside the "Colored Region" (e.g., Rows 2-6)
-        // Ceiling Obstacle: Starts at Row 8 (Top) going down. To reach visible region
-        // (Row 6), it needs height >= 3 (8,7,6).
-        // Floor Obstacle: Starts at Row 0 (Bottom) going up. To reach visible region
-        // (Row 2), it needs height >= 3 (0,1,2).
+    public boolean hasMovingObstacles() {
+        return movingObstacles;
+    }
 
-        // New Constraint: Min Height 3 to ensure it pokes into the center.
-        // --- Anti-AFK Logic ---
-        // First 3 obstacles must have at least 6 rows to blocking center path deeply
-        int minRows = 2;
-        if (obstaclesGenerated < 3) {
-            minRows = 6;
-        }
+    /** Moving obstacles generated, less any a {@link #rebase} dropped far behind. */
+    public int getMovingObstacleCount() {
+        return movers.size();
+    }
 
-        // Safety: ensure min <= max
-        if (minRows > maxRows)
-            minRows = maxRows;
+    /** Adds the next obstacle after the last one. Normally driven by {@link #update}. */
+    void generateObstacleColumn() {
+        columns.next();
 
-        int heightRows = com.badlogic.gdx.math.MathUtils.random(minRows, maxRows);
+        TriangleObstacle obs = new TriangleObstacle();
+        int tipColumn = columns.getTipColumn();
+        float tipX = (tipColumn - originColumn) * (triangleWidth / 2);
+        float extendedY = OBSTACLE_EXTENSION;
+        float visualHeight = columns.getHeightRows() * triangleHeight;
 
-        float visualHeight = heightRows * TRIANGLE_HEIGHT;
-        float slope = GRID_SLOPE;
+        if (columns.isCeiling()) {
+            float tipY = MAX_Y - visualHeight;
+            float farBaseY = MAX_Y + extendedY;
+            // Calculations moved inside set()
+            obs.set(tipX, tipY, farBaseY, GRID_SLOPE, true); // isCeiling = true
+            tipRelative.set(0, tipY, farBaseY, GRID_SLOPE, true);
+        } else {
+            float tipY = MIN_Y + visualHeight;
+            float farBaseY = MIN_Y - extendedY;
+            obs.set(tipX, tipY, farBaseY, GRID_SLOPE, false); // isCeiling = false
+            tipRelative.set(0, tipY, farBaseY, GRID_SLOPE, false);
+        }
+        obs.tipColumn = tipColumn;
 
-        // Calculate the "Visual Width" at the base
-        // Slope = dy/dx. dx = dy/Slope.
-        // HalfWidth = VisualHeight / Slope.
-        // Full Width = 2 * HalfWidth
-        float visualBaseWidth = (visualHeight / slope) * 2f;
+        if (isMovingColumn(tipColumn, columns.getHeightRows())) {
+            addMovingMountain(obs, columns.getHeightRows(), tipColumn);
+        } else {
+            obstacles.add(obs);
+            markCells(tipRelative, tipColumn, occupancy, true);
+        }
+        columnsGenerated++;
+        // The column generator keeps its own origin; only its end relative to the tip carries over
+        lastObstacleEndX = tipX + (columns.getEndX() - columns.getCenterX());
+    }
 
-        // Reduced Gap for higher density: 20f to 50f
-        float gap = com.badlogic.gdx.math.MathUtils.random(20f, 50f);
+    /**
+     * Picked by hashing the tip column rather than with the level's random
+     * numbers, so the obstacle sequence is the same with or without them.
+     * Never the first three, which keep the wave from idling in the middle.
+     */
+    private boolean isMovingColumn(int tipColumn, int heightRows) {
+        return movingObstacles && columnsGenerated >= 3 && heightRows >= 4 && ((tipColumn * 0x9E3779B9) >>> 29) < 3;
+    }
 
-        float startX = lastObstacleEndX + gap;
-        float snapStep = TRIANGLE_WIDTH / 2f;
+    private void addMovingMountain(TriangleObstacle obs, int heightRows, int tipColumn) {
+        MovingMountain m = new MovingMountain();
+        m.shape.set(obs.x3, obs.y3, obs.y1, GRID_SLOPE, obs.isCeiling);
+        m.shape.tipColumn = tipColumn;
+        m.restTipY = obs.y3;
+        m.farBaseY = obs.y1;
+        m.reachRows = 2 * (heightRows / 4); // Down to about half its height
+        int hash = tipColumn * 0x9E3779B9;
+        m.kick = (hash & 0x1000) != 0;
+        m.beatOffset = (hash >>> 12) & (SWING_BEATS - 1);
+        movers.add(m, m.shape.rx1, m.shape.rx2);
+        // Full size in the lattice, and drawn at rest until it first moves
+        markCells(tipRelative, tipColumn, movingCells, true);
+    }
 
-        float proposedCenterX = startX + visualBaseWidth / 2;
-        int colIndex = Math.round(proposedCenterX / snapStep);
+    /** Rows mover {@code m} is retracted by at the current level time. */
+    private int retractRows(MovingMountain m) {
+        double beats = levelTime / BEAT_INTERVAL + m.beatOffset;
+        float amount;
+        if (m.kick) {
+            amount = 1 - (float) (beats - Math.floor(beats)); // Snaps in on the beat, grows back until the next
+        } else {
+            amount = (1 - (float) Math.cos(beats * (2 * Math.PI / SWING_BEATS))) / 2;
+        }
+        return 2 * Math.round(amount * m.reachRows / 2);
+    }
 
-        // --- PARITY SNAPPING FOR PERFECT TIPS ---
-        if (nextIsTop) {
-            // Ceiling Mountain (Points Down)
-            // Tip Y = MAX_Y - visualHeight
-            // MAX_Y = Top of Row 8 (if 9 rows 0..8). = MIN_Y + 9*H.
-            // Tip Y = MIN_Y + (9 - heightRows)*H.
-            // This Y corresponds to the Bottom of Row (9 - heightRows).
-            // A Down-Triangle in Row R has its tip at Bottom of Row R.
-            // So we need a DOWN triangle in Row R = (9 - heightRows).
-            // Is this row visible? If heightRows=2, R=7. Row 7 is visible. OK.
+    private void setPose(MovingMountain m) {
+        float tipY = m.restTipY + (m.shape.isCeiling ? 1 : -1) * m.retractRows * triangleHeight;
+        m.shape.set((m.shape.tipColumn - originColumn) * (triangleWidth / 2), tipY, m.farBaseY, GRID_SLOPE,
+                m.shape.isCeiling);
+    }
 
-            int tipRowIndex = GRID_ROWS - heightRows;
+    /**
+     * The update stage of moving obstacles: poses for the level time, for the
+     * ones near the camera (the rest keep their last pose until they are
+     * back in range), and their cells redrawn where they changed.
+     */
+    private void moveObstacles(float cameraX) {
+        if (movers.size() == 0) {
+            return;
+        }
+        float from = cameraX - 2 * lookAhead;
+        float to = cameraX + lookAhead;
+        float halfWidth = triangleWidth / 2;
+        int reach = markReach();
+        movedQuery.clear();
+        int end = movers.rangeEnd(to);
+        for (int i = movers.rangeStart(from, end); i < end; i++) {
+            MovingMountain m = movers.get(i);
+            if (movers.getMaxX(i) < from) {
+                continue;
+            }
+            int rows = retractRows(m);
+            if (rows == m.retractRows) {
+                continue;
+            }
+            m.retractRows = rows;
+            setPose(m);
+            movers.setBounds(i, m.shape.rx1, m.shape.rx2);
+            int tipCol = m.shape.tipColumn;
+            for (int col = tipCol - reach; col <= tipCol + reach; col++) {
+                movingCells.clear(col);
+            }
+            movedQuery.add(m);
+        }
+        if (movedQuery.size == 0) {
+            return;
+        }
+        movers.sort();
+
+        // Clearing a mover's columns cleared its neighbours' cells there too: redraw all it shares them with
+        markPass++;
+        for (int i = 0; i < movedQuery.size; i++) {
+            int tipCol = movedQuery.get(i).shape.tipColumn;
+            moverQuery.clear();
+            movers.query((tipCol - reach - originColumn) * halfWidth - triangleWidth,
+                    (tipCol + reach + 1 - originColumn) * halfWidth + triangleWidth, moverQuery);
+            for (int j = 0; j < moverQuery.size; j++) {
+                MovingMountain m = moverQuery.get(j);
+                if (m.markedPass != markPass) {
+                    m.markedPass = markPass;
+                    float tipY = m.shape.y3;
+                    moverRelative.set(0, tipY, m.farBaseY, GRID_SLOPE, m.shape.isCeiling);
+                    markCells(moverRelative, m.shape.tipColumn, movingCells, false);
+                }
+            }
+        }
+    }
 
-            // In Row 'tipRowIndex', which columns are DOWN?
-            // Row Even: Odd Cols are DOWN.
-            // Row Odd: Even Cols are DOWN.
-            boolean rowIsEven = (tipRowIndex % 2 == 0);
-            boolean colMustBeEven = !rowIsEven; // If Row Odd -> Even Cols. If Row Even -> Odd Cols.
+    /**
+     * Moves the origin forward by a whole number of cell pairs close to
+     * {@code x} and shifts every obstacle to match. Returns how far x
+     * coordinates moved left, which the caller subtracts from everything
+     * else it keeps in world space (player, trail, camera).
+     */
+    public float rebase(float x) {
+        float halfWidth = triangleWidth / 2;
+        int shiftColumns = 2 * (int) Math.floor(x / triangleWidth);
+        if (shiftColumns <= 0) {
+            return 0;
+        }
+        originColumn += shiftColumns;
+        lattice.setOriginColumn(originColumn);
+        for (TriangleObstacle obs : obstacles) {
+            // Rebuilt from the tip column rather than shifted, so no error builds up
+            obs.set((obs.tipColumn - originColumn) * halfWidth, obs.y3, obs.y1, GRID_SLOPE, obs.isCeiling);
+        }
 
-            // Check current colIndex parity
-            if ((colIndex % 2 == 0) != colMustBeEven) {
-                colIndex++; // Shift to matching column
+        // Obstacles far behind live on only as cells in the rings; the list would otherwise grow for good
+        int behind = 0;
+        while (behind < obstacles.size && obstacles.get(behind).rx2 < -ObstacleLattice.KEPT_WIDTH) {
+            behind++;
+        }
+        if (behind > 0) {
+            obstacles.removeRange(0, behind - 1);
+            firstObstacleAhead = Math.max(0, firstObstacleAhead - behind);
+        }
+        // Moving ones too, keeping their pose; the order stays as it was
+        for (int i = 0; i < movers.size(); i++) {
+            MovingMountain m = movers.get(i);
+            setPose(m);
+            movers.setBounds(i, m.shape.rx1, m.shape.rx2);
+        }
+        movers.removeBefore(-ObstacleLattice.KEPT_WIDTH);
+        // Polygons are placed by column and don't move; whole chunks far behind go
+        int keptFrom = originColumn - (int) (ObstacleLattice.KEPT_WIDTH / halfWidth) - polygonReachRight;
+        com.badlogic.gdx.utils.IntMap.Keys chunks = polygonChunks.keys();
+        while (chunks.hasNext) {
+            if ((chunks.next() + 1) << POLYGON_CHUNK_SHIFT < keptFrom) {
+                chunks.remove();
             }
+        }
+        float shift = shiftColumns * halfWidth;
+        lastObstacleEndX -= shift;
+        return shift;
+    }
 
-        } else {
-            // Floor Mountain (Points Up)
-            // Tip Y = MIN_Y + visualHeight
-            // Tip Y = MIN_Y + heightRows*H.
-            // This corresponds to Top of Row (heightRows - 1).
-            // An UP-Triangle in Row R has its tip at Top of Row R.
-            // So we need an UP triangle in Row R = (heightRows - 1).
-
-            int tipRowIndex = heightRows - 1;
-
-            // In Row 'tipRowIndex', which columns are UP?
-            // Row Even: Even Cols are UP.
-            // Row Odd: Odd Cols are UP.
-            boolean rowIsEven = (tipRowIndex % 2 == 0);
-            boolean colMustBeEven = rowIsEven; // Even->Even, Odd->Odd
-
-            // Check parity
-            if ((colIndex % 2 == 0) != colMustBeEven) {
-                colIndex++;
+    /** Absolute half column at x = 0. */
+    public int getOriginColumn() {
+        return originColumn;
+    }
+
+    /** World x of the origin, for anything that needs positions comparable across rebases. */
+    public double getOriginX() {
+        return (double) originColumn * (triangleWidth / 2);
+    }
+
+    /**
+     * Records every band cell of this obstacle, using the same per-cell test
+     * as collision: all of them in {@link #occupancy} for drawing, and those
+     * that can kill the wave in the lattice. Cells right of the tip only kill
+     * while the nose is still left of it, so the lattice skips columns from
+     * the tip on (a cell starting left of the tip still counts).
+     * <p>
+     * Each column is walked from the tip's side of the band towards the edge
+     * the obstacle hangs from. The obstacle only widens that way, so once a
+     * cell lies wholly inside it the rest of the column does too and is
+     * marked in one go: the tests run along the obstacle's outline only,
+     * which keeps 64 row grids as cheap as 9 row ones per pixel of outline.
+     * <p>
+     * {@code obs} has its tip at x = 0 and cells are placed relative to the
+     * tip column, so the marks don't depend on where the origin is.
+     * <p>
+     * Moving obstacles draw into their own ring, {@code cells}, and block
+     * the lattice only with their full size ({@code block}).
+     */
+    private void markCells(TriangleObstacle obs, int tipCol, ColumnMasks cells, boolean block) {
+        float halfWidth = triangleWidth / 2;
+        int reach = markReach();
+        long allRows = lattice.getAllRows();
+        for (int col = tipCol - reach; col <= tipCol + reach; col++) {
+            float finalX = (col - tipCol) * halfWidth;
+            long rows = 0;
+            for (int i = 0; i < gridRows; i++) {
+                int row = obs.isCeiling ? i : gridRows - 1 - i;
+                if (!canReach(obs, finalX, row)) {
+                    continue;
+                }
+                boolean isUp = (row % 2 == 0) ? (col % 2 == 0) : (col % 2 != 0);
+                float rowY = MIN_Y + (row * triangleHeight);
+                float y1 = isUp ? rowY : rowY + triangleHeight;
+                float y3 = isUp ? rowY + triangleHeight : rowY;
+                if (containsCell(obs, finalX, y1, finalX + triangleWidth, y1, finalX + triangleWidth / 2, y3)) {
+                    // This row and every row beyond it, up to the band edge
+                    rows |= obs.isCeiling ? (-1L << row) & allRows : -1L >>> (63 - row);
+                    break;
+                }
+                if (isBlockedBySpecificObstacle(obs, col, row, finalX, y1, finalX + triangleWidth, y1,
+                        finalX + triangleWidth / 2, y3, isUp)) {
+                    rows |= 1L << row;
+                }
+            }
+            if (rows != 0) {
+                cells.or(col, rows);
+                if (block && col > tipCol - reach && col < tipCol) {
+                    lattice.block(col, rows);
+                }
             }
         }
+    }
 
-        float centerX = colIndex * snapStep;
-        float endX = centerX + visualBaseWidth / 2;
+    /** Half columns either side of a tip that {@link #markCells} walks. */
+    private int markReach() {
+        // Inside the band the obstacle is at most gridRows half columns wide on each
+        // side, plus its render buffer and the width of a cell
+        return gridRows + (int) Math.ceil(RENDER_BUFFER / (triangleWidth / 2)) + 2; // gridRows + 3 with 9 rows
+    }
 
-        TriangleObstacle obs = new TriangleObstacle();
-        float extendedY = 1000f;
+    /**
+     * Cheap bound for the walks over an obstacle's cells: false if no point of
+     * the cells of row {@code row} starting at {@code cellX} can lie in the
+     * obstacle's render shape, which is no wider than {@link #RENDER_BUFFER}
+     * plus 1 / slope per pixel away from its tip.
+     */
+    private boolean canReach(TriangleObstacle obs, float cellX, int row) {
+        float rowY = MIN_Y + (row * triangleHeight);
+        float depth = obs.isCeiling ? rowY + triangleHeight - obs.ry3 : obs.ry3 - rowY;
+        if (depth < -1f) { // A pixel of slack against rounding at the boundary
+            return false;
+        }
+        float dx = Math.max(0, Math.max(cellX - obs.rx3, obs.rx3 - (cellX + triangleWidth)));
+        return dx <= depth / GRID_SLOPE + RENDER_BUFFER + 1f;
+    }
 
-        if (nextIsTop) {
-            float tipY = MAX_Y - visualHeight;
-            float tipX = centerX;
-            float farBaseY = MAX_Y + extendedY;
-            // Calculations moved inside set()
-            obs.set(tipX, tipY, farBaseY, slope, true); // isCeiling = true
-        } else {
-            float tipY = MIN_Y + visualHeight;
-            float tipX = centerX;
-            float farBaseY = MIN_Y - extendedY;
-            obs.set(tipX, tipY, farBaseY, slope, false); // isCeiling = false
+    /** Whether all three corners lie in the obstacle's render shape. */
+    private static boolean containsCell(TriangleObstacle obs, float x1, float y1, float x2, float y2, float x3,
+            float y3) {
+        return com.badlogic.gdx.math.Intersector.isPointInTriangle(x1, y1, obs.rx1, obs.ry1, obs.rx2, obs.ry2,
+                obs.rx3, obs.ry3)
+                && com.badlogic.gdx.math.Intersector.isPointInTriangle(x2, y2, obs.rx1, obs.ry1, obs.rx2, obs.ry2,
+                        obs.rx3, obs.ry3)
+                && com.badlogic.gdx.math.Intersector.isPointInTriangle(x3, y3, obs.rx1, obs.ry1, obs.rx2, obs.ry2,
+                        obs.rx3, obs.ry3);
+    }
+
+    // --- POLYGON OBSTACLES ---
+    // Authored convex shapes, grouped by the chunk of half columns their anchor is in
+    // (key: anchor column >> POLYGON_CHUNK_SHIFT), each chunk with its own BVH
+    private static final int POLYGON_CHUNK_SHIFT = 8; // 256 half columns
+    private final com.badlogic.gdx.utils.IntMap<PolygonBvh> polygonChunks = new com.badlogic.gdx.utils.IntMap<>();
+    // Half columns the widest polygons reach right and left of their anchor, for finding their chunks
+    private int polygonReachRight = 0;
+    private int polygonReachLeft = 0;
+
+    /**
+     * Adds an authored obstacle. Its cells are marked like a generated one's:
+     * the cells whose centre lies inside it are drawn, and every cell it
+     * overlaps at all is blocked in the lattice, so the autoplayer and
+     * solvability checks keep clear of its exact outline. Add polygons no
+     * further ahead of the wave than {@link ObstacleLattice#KEPT_WIDTH}, or
+     * the rings drop their cells before the wave gets there.
+     */
+    public void addPolygonObstacle(PolygonObstacle polygon) {
+        float halfWidth = triangleWidth / 2;
+        int chunk = polygon.getAnchorColumn() >> POLYGON_CHUNK_SHIFT;
+        PolygonBvh bvh = polygonChunks.get(chunk);
+        if (bvh == null) {
+            bvh = new PolygonBvh(chunk << POLYGON_CHUNK_SHIFT, halfWidth);
+            polygonChunks.put(chunk, bvh);
+        }
+        bvh.add(polygon);
+        polygonReachRight = Math.max(polygonReachRight, (int) Math.ceil(polygon.getMaxX() / halfWidth) + 1);
+        polygonReachLeft = Math.max(polygonReachLeft, (int) Math.ceil(-polygon.getMinX() / halfWidth) + 1);
+        markPolygonCells(polygon);
+    }
+
+    /** Polygon obstacles added, less any a {@link #rebase} dropped far behind. */
+    public int getPolygonObstacleCount() {
+        int total = 0;
+        for (PolygonBvh bvh : polygonChunks.values()) {
+            total += bvh.size();
+        }
+        return total;
+    }
+
+    private void markPolygonCells(PolygonObstacle polygon) {
+        float halfWidth = triangleWidth / 2;
+        int anchor = polygon.getAnchorColumn();
+        int startCol = anchor + (int) Math.floor(polygon.getMinX() / halfWidth) - 2;
+        int endCol = anchor + (int) Math.ceil(polygon.getMaxX() / halfWidth) + 1;
+        int startRow = Math.max(0, (int) Math.floor((polygon.getMinY() - MIN_Y) / triangleHeight));
+        int endRow = Math.min(gridRows - 1, (int) Math.floor((polygon.getMaxY() - MIN_Y) / triangleHeight));
+        for (int col = startCol; col <= endCol; col++) {
+            float finalX = (col - anchor) * halfWidth;
+            long drawn = 0;
+            long blocked = 0;
+            for (int row = startRow; row <= endRow; row++) {
+                boolean isUp = (row % 2 == 0) ? (col % 2 == 0) : (col % 2 != 0);
+                float rowY = MIN_Y + (row * triangleHeight);
+                float y1 = isUp ? rowY : rowY + triangleHeight;
+                float y3 = isUp ? rowY + triangleHeight : rowY;
+                if (polygon.overlapsTriangle(finalX, y1, finalX + triangleWidth, y1, finalX + halfWidth, y3)) {
+                    blocked |= 1L << row;
+                    if (polygon.contains(finalX + halfWidth, (y1 + y1 + y3) / 3)) { // Centroid
+                        drawn |= 1L << row;
+                    }
+                }
+            }
+            if (drawn != 0) {
+                occupancy.or(col, drawn);
+            }
+            if (blocked != 0) {
+                lattice.block(col, blocked);
+            }
         }
+    }
 
-        obstacles.add(obs);
-        lastObstacleEndX = endX;
-        nextIsTop = !nextIsTop;
-        obstaclesGenerated++;
+    /** Band cells drawn as static obstacle; bit j of a column is row j. */
+    public ColumnMasks getOccupancy() {
+        return occupancy;
     }
 
-    // --- Anti-AFK Counter ---
-    private int obstaclesGenerated = 0;
+    /** Band cells of half column {@code col} drawn as obstacle right now, moving ones included. */
+    public long getCells(int col) {
+        return occupancy.get(col) | movingCells.get(col);
+    }
+
+    public ObstacleLattice getLattice() {
+        return lattice;
+    }
+
+    public float getLastObstacleEndX() {
+        return lastObstacleEndX;
+    }
+
+    /**
+     * Generates obstacles up to {@code pixels} past the camera instead of
+     * {@link #DEFAULT_LOOK_AHEAD}, for anything that shows the level further
+     * ahead. The obstacle sequence is the same either way; only when each one
+     * is laid out changes. Stay well inside {@link ObstacleLattice#KEPT_WIDTH}.
+     */
+    public void setLookAhead(float pixels) {
+        this.lookAhead = pixels;
+    }
+
+    public int getGridRows() {
+        return gridRows;
+    }
+
+    /** Absolute half column at drawn x ({@link #getOriginColumn()} included). */
+    public int getDrawnColumnAt(float x) {
+        return drawnOriginColumn() + (int) Math.floor(x / (triangleWidth / 2));
+    }
+
+    /** Drawn obstacle rows of absolute half column {@code col}; bit j is row j. */
+    public long getDrawnOccupancy(int col) {
+        return drawnOccupancy(col);
+    }
+
+    /**
+     * Last absolute half column whose drawn cells are final: the next obstacle
+     * can't reach back further than two half columns before the end of the
+     * last one (as in {@link LevelVerifier}). With a view, also no further than
+     * the cells it copied.
+     */
+    public int getDrawnFinalColumn() {
+        float endX = view != null ? view.generatedEndX : lastObstacleEndX;
+        int column = getDrawnColumnAt(endX) - 2;
+        return view != null ? Math.min(column, view.occupancyStart + view.occupancyColumns - 1) : column;
+    }
+
+    /** Obstacles generated, less any a {@link #rebase} dropped far behind. */
+    public int getObstacleCount() {
+        return obstacles.size;
+    }
+
+    /**
+     * X of the tip of obstacle {@code index} (0 = first generated, or after a
+     * {@link #rebase} the first one kept), relative to the origin.
+     */
+    public float getObstacleTipX(int index) {
+        return obstacles.get(index).x3;
+    }
+
+    /** Absolute half column of the tip of obstacle {@code index}. */
+    public int getObstacleTipColumn(int index) {
+        return obstacles.get(index).tipColumn;
+    }
 
     @Override
-    public void renderLevelBase(ShapeRenderer shapeRenderer, OrthographicCamera camera) {
+    public void renderLevelBase(TriangleBatch batch, OrthographicCamera camera) {
         // Grid Rendering
 
         // Calculate visible column range
-        float camLeft = camera.position.x - (camera.viewportWidth * camera.zoom) / 2 - TRIANGLE_WIDTH;
-        float camRight = camera.position.x + (camera.viewportWidth * camera.zoom) / 2 + TRIANGLE_WIDTH;
+        float camLeft = camera.position.x - (camera.viewportWidth * camera.zoom) / 2 - triangleWidth;
+        float camRight = camera.position.x + (camera.viewportWidth * camera.zoom) / 2 + triangleWidth;
         // Render Logic
 
         // 1. Clear Screen to White (User Request: "Unassembled part should be white")
         // This acts as the background for the "void" where triangles haven't assembled
         // yet.
-        if (isWaveMode) {
+        if (drawnWaveMode()) {
             com.badlogic.gdx.Gdx.gl.glClearColor(0, 0, 0, 1); // Black in Wave Mode
         } else {
             com.badlogic.gdx.Gdx.gl.glClearColor(1, 1, 1, 1);
         }
         com.badlogic.gdx.Gdx.gl.glClear(com.badlogic.gdx.graphics.GL20.GL_COLOR_BUFFER_BIT);
 
-        // shapeRenderer.setProjectionMatrix(camera.combined); // Handled by GameScreen
-        // shapeRenderer.begin(com.badlogic.gdx.graphics.glutils.ShapeRenderer.ShapeType.Filled);
+        // batch.setProjectionMatrix(camera.combined); // Handled by GameScreen
+        // batch.begin();
         // // Handled by GameScreen
 
         // Grid Logic
-        // Rows: 0 to 8 (9 rows)
+        // Rows: 0 to gridRows - 1 (9 rows on the easier difficulties)
         // Row 0 is at bottom (MIN_Y)
 
-        int startCol = (int) Math.floor(camLeft / (TRIANGLE_WIDTH / 2)); // Half-width steps
-        int endCol = (int) Math.ceil(camRight / (TRIANGLE_WIDTH / 2));
+        int origin = drawnOriginColumn();
+        int startCol = (int) Math.floor(camLeft / (triangleWidth / 2)) + origin; // Half-width steps
+        int endCol = (int) Math.ceil(camRight / (triangleWidth / 2)) + origin;
 
         // PASS 0: Visible Range (White Borders) - NOW BEHIND LAYERS
         // User Request: "White background of top/bottom should be BEHIND the assembly
@@ -440,24 +959,44 @@ public class LegacyLevelGenerator implements LevelGenerator {
         // request
 
         // PASS 1: Filled Triangles (Colors) - NOW ON TOP
-        renderGridPass(shapeRenderer, startCol, endCol, true,
+        renderGridPass(batch, startCol, endCol, true,
                 camera.position.x + (camera.viewportWidth * camera.zoom) / 2);
 
-        // shapeRenderer.end(); // Handled by GameScreen
+        // batch.end(); // Handled by GameScreen
     }
 
-    private void renderGridPass(ShapeRenderer shapeRenderer, int startCol, int endCol, boolean isFilled,
+    private void renderGridPass(TriangleBatch batch, int startCol, int endCol, boolean isFilled,
             float viewportRightX) {
 
         // Update Glitches Frame
-        updateGlitches(com.badlogic.gdx.Gdx.graphics.getDeltaTime(), startCol, endCol);
+        updateGlitches(lastDelta, startCol, endCol);
+        colorPass++;
+
+        boolean waveMode = drawnWaveMode();
+        float shearK = drawnShearK();
+        float pivotY = drawnPivotY();
+        int origin = drawnOriginColumn();
+        float centerRow = (gridRows - 1) / 2f; // Row 4 of 9
+
+        // Instanced, a cell is its column, row, color and drift; the shader places
+        // the corners. The base column is even so column parity (orientation) carries over.
+        LatticeInstanceRenderer instances = isFilled ? instanceRenderer : null;
+        int baseCol = startCol & ~1;
+        if (instances != null) {
+            instances.clear();
+        }
 
+        // Per cell this is only arithmetic and table lookups: obstacle rows come as one
+        // mask per column and colors from the cache, since a 64 row grid has ~50x the
+        // cells of the 9 row one
         for (int col = startCol; col <= endCol; col++) {
             // Calculate base X of this specific triangle
-            float xBase = col * (TRIANGLE_WIDTH / 2);
+            float xBase = (col - origin) * (triangleWidth / 2);
             float finalX = xBase;
+            long obstacleRows = drawnOccupancy(col);
+            int colorIndex = cacheColumnColors(col);
 
-            for (int row = 0; row < GRID_ROWS; row++) {
+            for (int row = 0; row < gridRows; row++) {
                 boolean isUp;
                 if (row % 2 == 0) {
                     isUp = (col % 2 == 0);
@@ -465,90 +1004,105 @@ public class LegacyLevelGenerator implements LevelGenerator {
                     isUp = (col % 2 != 0);
                 }
 
+                // Collision Check (Synced with LOGIC not Visuals): the cells marked when the
+                // obstacles were generated, with the same per-cell test
+                boolean isObstacle = ((obstacleRows >>> row) & 1) != 0;
+                if (waveMode && !isObstacle) {
+                    continue; // Black on the black clear color
+                }
+
                 // Calculate Pair Center for Assembly Drift
                 float pairCenterX;
                 if (isUp) {
-                    pairCenterX = finalX + (TRIANGLE_WIDTH / 2);
+                    pairCenterX = finalX + (triangleWidth / 2);
                 } else {
                     pairCenterX = finalX;
                 }
 
                 // Apply Drift Logic
-                float baseDriftX = 0;
+                float driftX = 0;
+                float driftY = 0;
                 float distFromSolid = 0;
 
                 if (ENABLE_ASSEMBLY_FX) {
-                    float rowSkew = (row - 4) * (TRIANGLE_WIDTH / 2f);
+                    // Row offsets count 9 row grid rows, so the fan looks the same on finer grids
+                    float rowDiff = (row - centerRow) * cellScale;
+                    float rowSkew = (row - centerRow) * (triangleWidth / 2f);
                     float solidEdgeX = (viewportRightX - ASSEMBLY_WIDTH_OFFSET) + rowSkew;
                     distFromSolid = pairCenterX - solidEdgeX;
 
                     if (distFromSolid > 0) {
                         float factor = distFromSolid / ASSEMBLY_ZONE_WIDTH;
-                        if (factor < 0)
-                            factor = 0;
                         if (factor > 1)
                             factor = 1;
 
-                        float curveFactor = (float) Math.pow(factor, 1.5);
+                        float curveFactor = factor * (float) Math.sqrt(factor); // factor^1.5
                         float speedFactor = gameSpeed / 300f;
-                        baseDriftX = curveFactor * ASSEMBLY_MAX_OFFSET_X * 1.5f * speedFactor;
-                        if (baseDriftX > ASSEMBLY_MAX_OFFSET_X)
-                            baseDriftX = ASSEMBLY_MAX_OFFSET_X;
+                        driftX = curveFactor * ASSEMBLY_MAX_OFFSET_X * 1.5f * speedFactor;
+                        if (driftX > ASSEMBLY_MAX_OFFSET_X)
+                            driftX = ASSEMBLY_MAX_OFFSET_X;
+
+                        float fanStrength = 0.25f;
+                        float curvedDist = ASSEMBLY_ZONE_WIDTH * curveFactor;
+                        driftY = curvedDist * rowDiff * fanStrength * speedFactor;
+                        if (driftY > ASSEMBLY_MAX_OFFSET_Y)
+                            driftY = ASSEMBLY_MAX_OFFSET_Y;
+                        if (driftY < -ASSEMBLY_MAX_OFFSET_Y)
+                            driftY = -ASSEMBLY_MAX_OFFSET_Y;
+                        float staggerStrength = 0.2f;
+                        driftX += curvedDist * Math.abs(rowDiff) * staggerStrength * speedFactor;
                     }
                 }
 
-                float driftX = baseDriftX;
-                float driftY = 0;
+                // Colors come from the cache as packed ints; only the assembly fade needs components
+                int abgr;
+                if (isObstacle) {
+                    if (waveMode) {
+                        abgr = 0xFFFFFFFF;
+                    } else {
+                        abgr = obstacleColors[colorIndex + row];
+                    }
+                } else if (driftX > 0) { // Only do fancy assembly if NOT in Wave Mode (skipped above)
+                    // Restore Assembly Logic for Normal Mode
+                    float progress = 1f - (driftX / ASSEMBLY_ZONE_WIDTH);
+                    if (progress < 0)
+                        progress = 0;
+                    if (progress > 1)
+                        progress = 1;
+                    Color.abgr8888ToColor(tempColor, mainColors[colorIndex + row]);
+                    abgr = assemblyColor.set(Color.WHITE).lerp(tempColor, progress).toIntBits();
+                } else {
+                    // Main Grid
+                    abgr = mainColors[colorIndex + row];
+                }
 
-                if (ENABLE_ASSEMBLY_FX && baseDriftX > 0) {
-                    int centerRow = 4;
-                    int rowDiff = row - centerRow;
-                    float speedFactor = gameSpeed / 300f;
-                    float factor = distFromSolid / ASSEMBLY_ZONE_WIDTH;
-                    if (factor < 0)
-                        factor = 0;
-                    if (factor > 1)
-                        factor = 1;
-                    float curveFactor = (float) Math.pow(factor, 1.5);
-                    float fanStrength = 0.25f;
-                    float curvedDist = ASSEMBLY_ZONE_WIDTH * curveFactor;
-                    driftY = curvedDist * rowDiff * fanStrength * speedFactor;
-                    if (driftY > ASSEMBLY_MAX_OFFSET_Y)
-                        driftY = ASSEMBLY_MAX_OFFSET_Y;
-                    if (driftY < -ASSEMBLY_MAX_OFFSET_Y)
-                        driftY = -ASSEMBLY_MAX_OFFSET_Y;
-                    float staggerStrength = 0.2f;
-                    driftX += curvedDist * Math.abs(rowDiff) * staggerStrength * speedFactor;
+                // Glitching cells are squeezed on the CPU, so those few stay on the batch
+                if (instances != null && !(ENABLE_GLITCH_FX && activeGlitches.size > 0 && driftX <= 0
+                        && getGlitchScale(col, row, isUp) < 1f)) {
+                    instances.add(col - baseCol, row, abgr, driftX, driftY);
+                    continue;
                 }
 
-                float rowY = MIN_Y + (row * TRIANGLE_HEIGHT);
+                float rowY = MIN_Y + (row * triangleHeight);
                 float x1, y1, x2, y2, x3, y3;
-                float lx1, ly1, lx2, ly2, lx3, ly3;
 
                 // 1. Initial Geometry
                 if (isUp) {
                     x1 = finalX;
                     y1 = rowY;
-                    x2 = finalX + TRIANGLE_WIDTH;
+                    x2 = finalX + triangleWidth;
                     y2 = rowY;
-                    x3 = finalX + TRIANGLE_WIDTH / 2;
-                    y3 = rowY + TRIANGLE_HEIGHT;
+                    x3 = finalX + triangleWidth / 2;
+                    y3 = rowY + triangleHeight;
                 } else {
                     x1 = finalX;
-                    y1 = rowY + TRIANGLE_HEIGHT;
-                    x2 = finalX + TRIANGLE_WIDTH;
-                    y2 = rowY + TRIANGLE_HEIGHT;
-                    x3 = finalX + TRIANGLE_WIDTH / 2;
+                    y1 = rowY + triangleHeight;
+                    x2 = finalX + triangleWidth;
+                    y2 = rowY + triangleHeight;
+                    x3 = finalX + triangleWidth / 2;
                     y3 = rowY;
                 }
 
-                lx1 = x1;
-                ly1 = y1;
-                lx2 = x2;
-                ly2 = y2;
-                lx3 = x3;
-                ly3 = y3;
-
                 // 2. Add Assembly Drift FIRST
                 x1 += driftX;
                 y1 += driftY;
@@ -570,45 +1124,51 @@ public class LegacyLevelGenerator implements LevelGenerator {
                 }
 
                 // 3. Apply Global Shear
-                float shearK = 0.055f * shearAngle;
-                x1 += (y1 - lastCameraY) * shearK;
-                x2 += (y2 - lastCameraY) * shearK;
-                x3 += (y3 - lastCameraY) * shearK;
-
-                // 4. Collision Check (Synced with LOGIC not Visuals)
-                boolean isObstacle = isTriangleBlocked(col, row, lx1, ly1, lx2, ly2, lx3, ly3, isUp,
-                        Float.NEGATIVE_INFINITY) != null;
+                x1 += (y1 - pivotY) * shearK;
+                x2 += (y2 - pivotY) * shearK;
+                x3 += (y3 - pivotY) * shearK;
 
                 if (isFilled) {
-                    Color c;
-                    if (isObstacle) {
-                        c = getObstacleColorForTriangle(col, row);
-                        if (isWaveMode)
-                            c = Color.WHITE;
-                    } else if (driftX > 0 && !isWaveMode) { // Only do fancy assembly if NOT in Wave Mode (or handle it)
-                        // Restore Assembly Logic for Normal Mode
-                        float progress = 1f - (driftX / ASSEMBLY_ZONE_WIDTH);
-                        if (progress < 0)
-                            progress = 0;
-                        if (progress > 1)
-                            progress = 1;
-                        Color targetColor = getMainColorForTriangle(col, row, finalX + TRIANGLE_WIDTH / 2,
-                                rowY + TRIANGLE_HEIGHT / 2);
-                        c = new Color(Color.WHITE).lerp(targetColor, progress);
-                    } else {
-                        // Main Grid or Wave Mode Grid
-                        if (isWaveMode) {
-                            c = Color.BLACK;
-                        } else {
-                            c = getMainColorForTriangle(col, row, finalX + TRIANGLE_WIDTH / 2,
-                                    rowY + TRIANGLE_HEIGHT / 2);
-                        }
-                    }
-                    shapeRenderer.setColor(c);
-                    shapeRenderer.triangle(x1, y1, x2, y2, x3, y3);
+                    batch.triangle(x1, y1, x2, y2, x3, y3, com.badlogic.gdx.utils.NumberUtils.intToFloatColor(abgr));
                 }
             }
         }
+
+        if (instances != null) {
+            // Between the batch's flush and its next begin (which binds its shader again), so
+            // what was added before the grid stays under it
+            batch.end();
+            instances.draw(batch.getProjectionMatrix(), (baseCol - origin) * (triangleWidth / 2), MIN_Y,
+                    triangleWidth, triangleHeight, shearK, pivotY);
+            batch.begin();
+        }
+    }
+
+    /**
+     * Fills the color cache for column {@code col} unless it already holds it.
+     *
+     * Of the two columns a slot can hold, the one a grid pass read least
+     * recently makes way.
+     *
+     * @return index of the column's row 0 in {@link #mainColors} and {@link #obstacleColors}
+     */
+    private int cacheColumnColors(int col) {
+        int way = (col & colorColumnMask) * 2;
+        if (colorColumns[way] != col) {
+            if (colorColumns[way + 1] == col || colorUsed[way + 1] < colorUsed[way]) {
+                way++;
+            }
+        }
+        int index = way * gridRows;
+        if (colorColumns[way] != col) {
+            colorColumns[way] = col;
+            for (int row = 0; row < gridRows; row++) {
+                mainColors[index + row] = getMainColorForTriangle(col, row).toIntBits();
+                obstacleColors[index + row] = getObstacleColorForTriangle(col, row).toIntBits();
+            }
+        }
+        colorUsed[way] = colorPass;
+        return index;
     }
 
     private TriangleObstacle isTriangleBlocked(int col, int row, float x1, float y1, float x2, float y2, float x3,
@@ -631,12 +1191,18 @@ public class LegacyLevelGenerator implements LevelGenerator {
             lowY = y3;
         }
 
-        for (TriangleObstacle obs : obstacles) {
-            // Optimization
-            // 1. Fair Collision: If Player has passed the Tip (x3), ignore this obstacle.
-            if (playerX > obs.x3)
-                continue;
+        // 1. Fair Collision: If Player has passed the Tip (x3), ignore this obstacle.
+        // Tips only grow along the list, so those are exactly the ones before the cursor.
+        while (firstObstacleAhead > 0 && obstacles.get(firstObstacleAhead - 1).x3 >= playerX)
+            firstObstacleAhead--;
+        while (firstObstacleAhead < obstacles.size && obstacles.get(firstObstacleAhead).x3 < playerX)
+            firstObstacleAhead++;
 
+        for (int i = firstObstacleAhead; i < obstacles.size; i++) {
+            TriangleObstacle obs = obstacles.get(i);
+            // Optimization
+            if (obs.x3 - MAX_OBSTACLE_HALF_WIDTH > cx + 500)
+                break; // This one and all later ones start right of the range below
             if (obs.rx2 < cx - 500)
                 continue;
             if (obs.rx1 > cx + 500)
@@ -691,19 +1257,23 @@ public class LegacyLevelGenerator implements LevelGenerator {
         return null;
     }
 
-    private Color getMainColorForTriangle(int col, int row, float worldX, float worldY) {
+    private Color getMainColorForTriangle(int col, int row) {
         // Algorithm: Distorted Gradient
         // 1. Start with exact Row Ratio (0.0 Bottom to 1.0 Top)
-        float rowRatio = (float) row / (float) (GRID_ROWS - 1);
+        float rowRatio = (float) row / (float) (gridRows - 1);
+
+        // Noise is sampled in 9 row grid cells, so finer grids show the same color clusters
+        float noiseCol = col * cellScale;
+        float noiseRow = row * cellScale;
 
         // 2. Large Scale Distortion (The "Waves" of color)
         // Shifts the gradient up/down significantly.
-        float waveNoise = noiseGenerator.GetNoise(col * 0.12f, row * 0.1f);
+        float waveNoise = noiseGenerator.GetNoise(noiseCol * 0.12f, noiseRow * 0.1f);
         float waveDistortion = waveNoise * 0.35f; // Strong shift (approx +/- 1.5 palette indices)
 
         // 3. Medium Scale "Crystals" (The geometric texture)
         // Adds local variation to break smooth bands.
-        float crystalNoise = noiseGenerator.GetNoise(col * 0.45f, row * 0.45f);
+        float crystalNoise = noiseGenerator.GetNoise(noiseCol * 0.45f, noiseRow * 0.45f);
         float crystalDistortion = crystalNoise * 0.15f;
 
         // 4. Combine
@@ -739,8 +1309,8 @@ public class LegacyLevelGenerator implements LevelGenerator {
 
     private Color getObstacleColorForTriangle(int col, int row) {
         // Just Dark color with slight noise for texture
-        float noiseVal = noiseGenerator.GetNoise(col * 0.2f, row * 0.2f);
-        Color c = new Color(darkColor);
+        float noiseVal = noiseGenerator.GetNoise(col * cellScale * 0.2f, row * cellScale * 0.2f);
+        Color c = tempColor.set(darkColor);
         if (noiseVal > 0.5f) {
             c.lerp(Color.BLACK, 0.2f);
         }
@@ -748,21 +1318,22 @@ public class LegacyLevelGenerator implements LevelGenerator {
     }
 
     @Override
-    public void renderLevelMask(ShapeRenderer shapeRenderer, OrthographicCamera camera) {
-        // Mask Removed: The Grid loop only draws Rows 0-8.
+    public void renderLevelMask(TriangleBatch batch, OrthographicCamera camera) {
+        // Mask Removed: The Grid loop only draws Rows 0 to gridRows - 1.
         // The background is cleared to White.
         // Drawing explicit White Overlays caused z-fighting with the Sheared Grid at
         // the edges.
     }
 
     @Override
-    public void renderObstacles(ShapeRenderer shapeRenderer, OrthographicCamera camera) {
+    public void renderObstacles(TriangleBatch batch, OrthographicCamera camera) {
         // Obstacles are now rendered as part of the Grid (renderLevelBase)
         // This method remains empty to prevent double rendering, or we can use it for
         // debug lines later.
     }
 
     private TriangleObstacle lastCollidedObstacle = null;
+    private PolygonObstacle lastCollidedPolygon = null;
     private boolean lastCollisionWasOuter = false;
     private boolean lastCollisionWasCeiling = false;
 
@@ -774,72 +1345,122 @@ public class LegacyLevelGenerator implements LevelGenerator {
         return lastCollisionWasCeiling;
     }
 
-    public void renderCollidedObstacle(ShapeRenderer shapeRenderer) {
+    public void renderCollidedObstacle(TriangleBatch batch, OrthographicCamera camera) {
+        if (lastCollidedPolygon != null) {
+            renderCollidedPolygon(batch);
+        }
         if (lastCollidedObstacle != null) {
-            shapeRenderer.setColor(darkColor);
+            batch.setColor(darkColor);
 
             // Calculate Grid Bounds for this Obstacle
             TriangleObstacle obs = lastCollidedObstacle;
 
             // X Range
             // We need to cover from obs.x1 to obs.x2
-            int startCol = (int) Math.floor(obs.x1 / (TRIANGLE_WIDTH / 2)) - 2;
-            int endCol = (int) Math.ceil(obs.x2 / (TRIANGLE_WIDTH / 2)) + 2;
+            int origin = drawnOriginColumn();
+            int startCol = (int) Math.floor(obs.x1 / (triangleWidth / 2)) - 2 + origin;
+            int endCol = (int) Math.ceil(obs.x2 / (triangleWidth / 2)) + 2 + origin;
 
             // Y Range
             // Base to Tip
             float minY_Obs = Math.min(obs.y1, obs.y3);
             float maxY_Obs = Math.max(obs.y1, obs.y3);
 
-            int startRow = (int) Math.floor((minY_Obs - MIN_Y) / TRIANGLE_HEIGHT) - 1;
-            int endRow = (int) Math.ceil((maxY_Obs - MIN_Y) / TRIANGLE_HEIGHT) + 1;
+            int startRow = (int) Math.floor((minY_Obs - MIN_Y) / triangleHeight) - 1;
+            int endRow = (int) Math.ceil((maxY_Obs - MIN_Y) / triangleHeight) + 1;
+
+            // The obstacle reaches 1000 px past the band; only walk the cells on screen
+            // (plus the wobble shear), which on fine grids is a small part of them
+            float halfViewW = camera.viewportWidth * camera.zoom / 2 + triangleWidth;
+            float halfViewH = camera.viewportHeight * camera.zoom / 2 + triangleHeight;
+            float shearMargin = Math.abs(drawnShearK()) * (halfViewH + Math.abs(camera.position.y - drawnPivotY()));
+            startCol = Math.max(startCol,
+                    (int) Math.floor((camera.position.x - halfViewW - shearMargin) / (triangleWidth / 2)) + origin);
+            endCol = Math.min(endCol,
+                    (int) Math.ceil((camera.position.x + halfViewW + shearMargin) / (triangleWidth / 2)) + origin);
+            startRow = Math.max(startRow, (int) Math.floor((camera.position.y - halfViewH - MIN_Y) / triangleHeight));
+            endRow = Math.min(endRow, (int) Math.ceil((camera.position.y + halfViewH - MIN_Y) / triangleHeight));
 
             // Iterate and Render "Blocked" Triangles
             for (int col = startCol; col <= endCol; col++) {
                 for (int row = startRow; row <= endRow; row++) {
+                    if (!canReach(obs, (col - origin) * (triangleWidth / 2), row))
+                        continue;
+
                     // Geometry
-                    float xBase = col * (TRIANGLE_WIDTH / 2);
+                    float xBase = (col - origin) * (triangleWidth / 2);
                     float finalX = xBase;
                     boolean isUp = (row % 2 == 0) ? (col % 2 == 0) : (col % 2 != 0);
 
                     float x1, y1, x2, y2, x3, y3;
-                    float rowY = MIN_Y + (row * TRIANGLE_HEIGHT);
+                    float rowY = MIN_Y + (row * triangleHeight);
 
                     if (isUp) {
                         x1 = finalX;
                         y1 = rowY;
-                        x2 = finalX + TRIANGLE_WIDTH;
+                        x2 = finalX + triangleWidth;
                         y2 = rowY;
-                        x3 = finalX + TRIANGLE_WIDTH / 2;
-                        y3 = rowY + TRIANGLE_HEIGHT;
+                        x3 = finalX + triangleWidth / 2;
+                        y3 = rowY + triangleHeight;
                     } else {
                         x1 = finalX;
-                        y1 = rowY + TRIANGLE_HEIGHT;
-                        x2 = finalX + TRIANGLE_WIDTH;
-                        y2 = rowY + TRIANGLE_HEIGHT;
-                        x3 = finalX + TRIANGLE_WIDTH / 2;
+                        y1 = rowY + triangleHeight;
+                        x2 = finalX + triangleWidth;
+                        y2 = rowY + triangleHeight;
+                        x3 = finalX + triangleWidth / 2;
                         y3 = rowY;
                     }
 
                     // Apply Global Shear (Wobble) to Collision Feedback
-                    float shearK = 0.055f * shearAngle;
+                    float shearK = drawnShearK();
+                    float pivotY = drawnPivotY();
 
-                    x1 += (y1 - lastCameraY) * shearK;
-                    x2 += (y2 - lastCameraY) * shearK;
-                    x3 += (y3 - lastCameraY) * shearK;
+                    x1 += (y1 - pivotY) * shearK;
+                    x2 += (y2 - pivotY) * shearK;
+                    x3 += (y3 - pivotY) * shearK;
 
                     // Check if this specific triangle belongs to the obstacle
                     // Note: isTriangleBlocked currently iterates ALL obstacles.
                     // We want to know if it's blocked by *this* specific obstacle.
                     // Let's use a helper that checks specific obstacle logic.
                     if (isBlockedBySpecificObstacle(obs, col, row, x1, y1, x2, y2, x3, y3, isUp)) {
-                        shapeRenderer.triangle(x1, y1, x2, y2, x3, y3);
+                        batch.triangle(x1, y1, x2, y2, x3, y3);
                     }
                 }
             }
         }
     }
 
+    /** The drawn cells of the polygon the wave hit, sheared like the grid. */
+    private void renderCollidedPolygon(TriangleBatch batch) {
+        batch.setColor(darkColor);
+        PolygonObstacle polygon = lastCollidedPolygon;
+        float halfWidth = triangleWidth / 2;
+        float shearK = drawnShearK();
+        float pivotY = drawnPivotY();
+        int anchor = polygon.getAnchorColumn();
+        int startCol = anchor + (int) Math.floor(polygon.getMinX() / halfWidth) - 2;
+        int endCol = anchor + (int) Math.ceil(polygon.getMaxX() / halfWidth) + 1;
+        int startRow = (int) Math.floor((polygon.getMinY() - MIN_Y) / triangleHeight);
+        int endRow = (int) Math.floor((polygon.getMaxY() - MIN_Y) / triangleHeight);
+        float anchorX = (anchor - drawnOriginColumn()) * halfWidth;
+        for (int col = startCol; col <= endCol; col++) {
+            float finalX = (col - anchor) * halfWidth;
+            for (int row = startRow; row <= endRow; row++) {
+                boolean isUp = (row % 2 == 0) ? (col % 2 == 0) : (col % 2 != 0);
+                float rowY = MIN_Y + (row * triangleHeight);
+                float y1 = isUp ? rowY : rowY + triangleHeight;
+                float y3 = isUp ? rowY + triangleHeight : rowY;
+                if (!polygon.contains(finalX + halfWidth, (y1 + y1 + y3) / 3)) {
+                    continue; // Same cells as the grid draws for it
+                }
+                float x = anchorX + finalX;
+                batch.triangle(x + (y1 - pivotY) * shearK, y1, x + triangleWidth + (y1 - pivotY) * shearK, y1,
+                        x + halfWidth + (y3 - pivotY) * shearK, y3);
+            }
+        }
+    }
+
     private boolean isBlockedBySpecificObstacle(TriangleObstacle obs, int col, int row, float x1, float y1, float x2,
             float y2, float x3, float y3, boolean isUp) {
 
@@ -912,53 +1533,70 @@ public class LegacyLevelGenerator implements LevelGenerator {
         float py = playerPosition.y;
 
         // "Unshear" the player position to check against static grid logic
-        // Shear logic: x_vis = x + (y - lastCameraY) * shearK
-        // So x = x_vis - (y - lastCameraY) * shearK
+        // Shear logic: x_vis = x + (y - pivotY) * shearK
+        // So x = x_vis - (y - pivotY) * shearK
 
-        float shearK = 0.055f * shearAngle;
-        float effPx = px - (py - lastCameraY) * shearK;
+        float shearK = 0.055f * shear.angle;
+        float effPx = px - (py - shear.pivotY) * shearK;
 
         // Use effective Px for column lookup
         // We still use real Py because shear is horizontal only.
 
         // 1. Calculate Grid Coordinates
         // Row index:
-        int row = (int) Math.floor((py - MIN_Y) / TRIANGLE_HEIGHT); // Use Real Py (Row implies Y)
+        int row = (int) Math.floor((py - MIN_Y) / triangleHeight); // Use Real Py (Row implies Y)
 
         // Base Col index approx:
-        int baseCol = (int) Math.floor(effPx / (TRIANGLE_WIDTH / 2)); // Use Effective Px
+        int baseCol = (int) Math.floor(effPx / (triangleWidth / 2)) + originColumn; // Use Effective Px
 
         // Check 3 columns around baseCol to be safe (col-1, col, col+1)
 
         // Check 3 columns around baseCol to be safe (col-1, col, col+1)
         for (int col = baseCol - 1; col <= baseCol + 1; col++) {
             // 2. Reconstruct Triangle Geometry for this (col, row)
-            float xBase = col * (TRIANGLE_WIDTH / 2);
+            float xBase = (col - originColumn) * (triangleWidth / 2);
             float finalX = xBase;
             boolean isUp = (row % 2 == 0) ? (col % 2 == 0) : (col % 2 != 0);
 
             float x1, y1, x2, y2, x3, y3;
-            float rowY = MIN_Y + (row * TRIANGLE_HEIGHT);
+            float rowY = MIN_Y + (row * triangleHeight);
 
             if (isUp) {
                 x1 = finalX;
                 y1 = rowY;
-                x2 = finalX + TRIANGLE_WIDTH;
+                x2 = finalX + triangleWidth;
                 y2 = rowY;
-                x3 = finalX + TRIANGLE_WIDTH / 2;
-                y3 = rowY + TRIANGLE_HEIGHT;
+                x3 = finalX + triangleWidth / 2;
+                y3 = rowY + triangleHeight;
             } else {
                 x1 = finalX;
-                y1 = rowY + TRIANGLE_HEIGHT;
-                x2 = finalX + TRIANGLE_WIDTH;
-                y2 = rowY + TRIANGLE_HEIGHT;
-                x3 = finalX + TRIANGLE_WIDTH / 2;
+                y1 = rowY + triangleHeight;
+                x2 = finalX + triangleWidth;
+                y2 = rowY + triangleHeight;
+                x3 = finalX + triangleWidth / 2;
                 y3 = rowY;
             }
 
             // 3. Check if Player is in THIS triangle
             // Use EFFECTIVE Px (Unsheared) to check against Unsheared Grid Triangle
             if (com.badlogic.gdx.math.Intersector.isPointInTriangle(effPx, py, x1, y1, x2, y2, x3, y3)) {
+                // Moving obstacles first, found through the broadphase when their ring has the cell
+                if (movers.size() > 0
+                        && (row < 0 || row >= gridRows || ((movingCells.get(col) >>> row) & 1) != 0)) {
+                    TriangleObstacle movedBy = isBlockedByMover(col, row, x1, y1, x2, y2, x3, y3, isUp, effPx);
+                    if (movedBy != null) {
+                        lastCollisionWasOuter = (py > MAX_Y || py < MIN_Y);
+                        lastCollisionWasCeiling = (py > CENTER_Y);
+                        lastCollidedObstacle = movedBy;
+                        lastCollidedPolygon = null;
+                        return true;
+                    }
+                }
+
+                // Inside the band only marked cells can be blocked; skip the obstacle search for the rest
+                if (row >= 0 && row < gridRows && ((occupancy.get(col) >>> row) & 1) == 0)
+                    continue;
+
                 // 4. Check if this triangle is an Obstacle
                 // Pass effPx (Unsheared Player X) for Fair Collision
                 TriangleObstacle blockedBy = isTriangleBlocked(col, row, x1, y1, x2, y2, x3, y3, isUp, effPx);
@@ -969,6 +1607,7 @@ public class LegacyLevelGenerator implements LevelGenerator {
 
                     // Grab the FULL obstacle that we hit
                     lastCollidedObstacle = blockedBy;
+                    lastCollidedPolygon = null;
 
                     return true;
                 }
@@ -979,4 +1618,60 @@ public class LegacyLevelGenerator implements LevelGenerator {
 
         return false;
     }
+
+    /** The moving obstacle in its current pose that blocks this cell, as {@link #isTriangleBlocked} does static ones. */
+    private TriangleObstacle isBlockedByMover(int col, int row, float x1, float y1, float x2, float y2, float x3,
+            float y3, boolean isUp, float playerX) {
+        moverQuery.clear();
+        movers.query(Math.min(x1, x3), Math.max(x2, x3), moverQuery);
+        for (int i = 0; i < moverQuery.size; i++) {
+            TriangleObstacle obs = moverQuery.get(i).shape;
+            if (obs.x3 < playerX) {
+                continue; // Fair collision: passed tips don't count, as for static ones
+            }
+            if (isBlockedBySpecificObstacle(obs, col, row, x1, y1, x2, y2, x3, y3, isUp)) {
+                return obs;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Collision for a nose that moved from {@code from} to {@code to} this
+     * step: the cells at {@code to}, exactly as {@link #checkCollision(com.badlogic.gdx.math.Vector2)},
+     * then the polygon obstacles along the whole path, so one thinner than a
+     * step can't be skipped over. Only the chunks the path can reach are
+     * searched, each through its BVH.
+     */
+    public boolean checkCollision(com.badlogic.gdx.math.Vector2 from, com.badlogic.gdx.math.Vector2 to) {
+        if (checkCollision(to)) {
+            return true;
+        }
+        if (polygonChunks.size == 0) {
+            return false;
+        }
+        // Unsheared, as for the cells
+        float shearK = 0.055f * shear.angle;
+        float x0 = from.x - (from.y - shear.pivotY) * shearK;
+        float x1 = to.x - (to.y - shear.pivotY) * shearK;
+        float halfWidth = triangleWidth / 2;
+        int startCol = (int) Math.floor(Math.min(x0, x1) / halfWidth) + originColumn - polygonReachRight;
+        int endCol = (int) Math.floor(Math.max(x0, x1) / halfWidth) + originColumn + polygonReachLeft;
+        for (int chunk = startCol >> POLYGON_CHUNK_SHIFT; chunk <= endCol >> POLYGON_CHUNK_SHIFT; chunk++) {
+            PolygonBvh bvh = polygonChunks.get(chunk);
+            if (bvh == null) {
+                continue;
+            }
+            float chunkX = (bvh.getFirstColumn() - originColumn) * halfWidth;
+            PolygonObstacle hit = bvh.sweep(x0 - chunkX, from.y, x1 - chunkX, to.y);
+            if (hit != null) {
+                lastCollisionWasOuter = (to.y > MAX_Y || to.y < MIN_Y);
+                lastCollisionWasCeiling = (to.y > CENTER_Y);
+                lastCollidedObstacle = null;
+                lastCollidedPolygon = hit;
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,7 +1,6 @@
 package com.unspeakabletest.wavewavetribute;
 
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.glutils.ShapeRenderer;
 
 public interface LevelGenerator {
     /**
@@ -15,26 +14,26 @@ public interface LevelGenerator {
     /**
      * Renders the base background elements (e.g. Colored Band).
      * 
-     * @param shapeRenderer ShapeRenderer instance
-     * @param camera        Camera instance for culling
+     * @param batch  Triangle batch, between begin() and end()
+     * @param camera Camera instance for culling
      */
-    void renderLevelBase(ShapeRenderer shapeRenderer, OrthographicCamera camera);
+    void renderLevelBase(TriangleBatch batch, OrthographicCamera camera);
 
     /**
      * Renders the mask elements (e.g. White Bars) that hide infinite obstacles.
      * 
-     * @param shapeRenderer ShapeRenderer instance
-     * @param camera        Camera instance for culling
+     * @param batch  Triangle batch, between begin() and end()
+     * @param camera Camera instance for culling
      */
-    void renderLevelMask(ShapeRenderer shapeRenderer, OrthographicCamera camera);
+    void renderLevelMask(TriangleBatch batch, OrthographicCamera camera);
 
     /**
      * Renders the foreground obstacles.
      * 
-     * @param shapeRenderer ShapeRenderer instance
-     * @param camera        Camera instance for culling
+     * @param batch  Triangle batch, between begin() and end()
+     * @param camera Camera instance for culling
      */
-    void renderObstacles(ShapeRenderer shapeRenderer, OrthographicCamera camera);
+    void renderObstacles(TriangleBatch batch, OrthographicCamera camera);
 
     /**
      * Checks if the player position collides with any obstacles.
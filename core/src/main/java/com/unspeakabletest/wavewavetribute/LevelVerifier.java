@@ -0,0 +1,87 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+
+/**
+ * Proves a generated level passable, obstacle by obstacle, by carrying the set
+ * of reachable lattice nodes ({@link ObstacleLattice}) forward one half column
+ * at a time. Every step is a couple of mask operations, so it keeps up with
+ * generation easily.
+ * <p>
+ * The proof starts at the first node the wave can press at. The flat run-up
+ * before that lies left of the first obstacle, which starts past x = 200.
+ */
+public class LevelVerifier {
+    private final LegacyLevelGenerator generator;
+    private final ObstacleLattice lattice;
+
+    private long reachable; // Nodes of node column 'column' the wave can be at
+    private int column;
+    private int provenObstacles = 0;
+    private boolean deadEnd = false;
+
+    public LevelVerifier(LegacyLevelGenerator generator) {
+        this.generator = generator;
+        this.lattice = generator.getLattice();
+        this.column = lattice.firstNodeColumnAfter(
+                WaveSimulation.START_X + WaveSimulation.HORIZONTAL_SPEED * WaveSimulation.INPUT_DELAY);
+        this.reachable = 1L << lattice.getStartRow();
+    }
+
+    /**
+     * Extends the proof over every column that later obstacles can no longer
+     * change. Call after the generator has added obstacles.
+     *
+     * @return number of obstacles proven passable so far
+     */
+    public int advance() {
+        // The next obstacle starts at least a gap after the last one ends; its band cells
+        // can't reach back further than two half columns from there.
+        int finalColumn = lattice.columnAt(generator.getLastObstacleEndX()) - 2;
+        int lastFinalNode = lattice.firstNodeColumnTouching(finalColumn) - 1;
+        while (!deadEnd && column < lastFinalNode) {
+            reachable = lattice.step(column, reachable);
+            column++;
+            if (reachable == 0) {
+                deadEnd = true;
+            }
+        }
+
+        // An obstacle is behind us once no edge from here can touch its cells (all left of its tip)
+        int count = generator.getObstacleCount();
+        while (provenObstacles < count) {
+            int tipColumn = generator.getObstacleTipColumn(provenObstacles);
+            if (lattice.lastNodeColumnTouching(tipColumn - 1) >= column)
+                break;
+            provenObstacles++;
+        }
+        return provenObstacles;
+    }
+
+    /** Whether no lattice path gets past obstacle {@link #getProvenObstacles()}. */
+    public boolean isDeadEnd() {
+        return deadEnd;
+    }
+
+    public int getProvenObstacles() {
+        return provenObstacles;
+    }
+
+    /**
+     * Generates a level and checks its first {@code obstacleCount} obstacles,
+     * including the anti-AFK opening.
+     *
+     * @return index of the first obstacle no path gets past, or -1 if all are passable
+     */
+    public static int findFirstImpassable(Difficulty difficulty, long seed, int obstacleCount) {
+        LegacyLevelGenerator generator = new LegacyLevelGenerator(difficulty, seed);
+        LevelVerifier verifier = new LevelVerifier(generator);
+        while (verifier.advance() < obstacleCount) {
+            if (verifier.isDeadEnd()) {
+                return verifier.getProvenObstacles();
+            }
+            generator.generateObstacleColumn();
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,74 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+
+/**
+ * First screen of a launch: keeps frames coming while {@link MainGame}'s
+ * assets load on the asset manager's worker thread, then hands over to the
+ * game. Each frame gives the manager a few milliseconds on the render thread,
+ * which is where the finished pages are uploaded as textures.
+ * <p>
+ * Drawn on the level's white with a thin bar, so the switch to the first
+ * level frame doesn't flash.
+ */
+public class LoadingScreen extends ScreenAdapter {
+    private static final int SLICE_MILLIS = 8; // Of the frame's render-thread time, for uploads
+
+    private final MainGame game;
+    private TriangleBatch triangleBatch;
+    private OrthographicCamera camera;
+
+    public LoadingScreen(MainGame game) {
+        this.game = game;
+    }
+
+    @Override
+    public void show() {
+        triangleBatch = new TriangleBatch();
+        camera = new OrthographicCamera();
+        camera.setToOrtho(false, Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        Gdx.graphics.setContinuousRendering(true);
+    }
+
+    @Override
+    public void render(float delta) {
+        if (game.updateAssets(SLICE_MILLIS)) {
+            game.showFirstScreen(); // Hides this screen, which frees its batch
+            return;
+        }
+
+        Gdx.gl.glClearColor(1, 1, 1, 1); // The level's background in the horizontal phase
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        float w = camera.viewportWidth;
+        float h = camera.viewportHeight;
+        float barW = w * 0.4f;
+        float barH = Math.max(4, h * 0.01f);
+        float x = (w - barW) / 2;
+        float y = (h - barH) / 2;
+        float filled = barW * game.getLoadingProgress();
+
+        triangleBatch.setProjectionMatrix(camera.combined);
+        triangleBatch.begin();
+        triangleBatch.setColor(Color.LIGHT_GRAY);
+        triangleBatch.triangle(x, y, x + barW, y, x + barW, y + barH);
+        triangleBatch.triangle(x, y, x + barW, y + barH, x, y + barH);
+        triangleBatch.setColor(Color.BLACK);
+        triangleBatch.triangle(x, y, x + filled, y, x + filled, y + barH);
+        triangleBatch.triangle(x, y, x + filled, y + barH, x, y + barH);
+        triangleBatch.end();
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        camera.setToOrtho(false, width, height);
+    }
+
+    @Override
+    public void hide() {
+        triangleBatch.dispose(); // Never shown again: a restart goes from game screen to game screen
+    }
+}
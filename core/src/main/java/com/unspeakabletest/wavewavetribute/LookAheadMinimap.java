@@ -0,0 +1,114 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * A strip in the HUD showing the obstacles coming up past the right edge of
+ * the view, one texel per grid cell.
+ * <p>
+ * The cells live in a texture used as a ring: half column {@code c} is texel
+ * column {@code c & (capacity - 1)}, so as the level scrolls only the columns
+ * generated since the last frame are written (into the {@link Pixmap} mirror
+ * and uploaded one texel column each, or the whole ring when many changed at
+ * once), and the strip is drawn as one quad whose texture coordinates wrap
+ * around the ring. Drawing costs the same however far ahead it looks.
+ * <p>
+ * Obstacle cells are opaque white and free cells faint; the quad is tinted
+ * with the obstacle color, so Wave Mode's palette carries over.
+ */
+public class LookAheadMinimap {
+    /** Distance past the camera the level is generated up to while the minimap shows it. */
+    public static final float LOOK_AHEAD = 3200f;
+    /** World width the strip spans, starting at the right edge of the view. */
+    private static final float SPAN = 2400f;
+    private static final int OBSTACLE = 0xFFFFFFFF; // RGBA8888
+    private static final int FREE = 0xFFFFFF30;
+
+    private final LegacyLevelGenerator generator;
+    private final int rows;
+    private final int capacity; // Texel columns in the ring
+    private final int spanColumns; // Half columns the strip shows
+    private final Pixmap ring; // CPU copy of the texture
+    private final Pixmap column; // One texel column, for small uploads
+    private final Texture texture;
+
+    private int firstColumn; // Leftmost half column shown
+    private int writtenThrough = Integer.MIN_VALUE; // Last half column written into the ring
+
+    public LookAheadMinimap(LegacyLevelGenerator generator) {
+        this.generator = generator;
+        this.rows = generator.getGridRows();
+        float halfWidth = generator.getLattice().getHalfColumnWidth();
+        this.spanColumns = (int) Math.ceil(SPAN / halfWidth);
+        // Room for the strip plus what the view and the generator are ahead of it
+        this.capacity = MathUtils.nextPowerOfTwo(spanColumns + (int) Math.ceil(LOOK_AHEAD / halfWidth));
+
+        // Power-of-two sides: GL ES 2 only wraps those
+        int height = MathUtils.nextPowerOfTwo(rows);
+        ring = new Pixmap(capacity, height, Pixmap.Format.RGBA8888);
+        ring.setBlending(Pixmap.Blending.None);
+        ring.setColor(FREE);
+        ring.fill();
+        column = new Pixmap(1, height, Pixmap.Format.RGBA8888);
+        column.setBlending(Pixmap.Blending.None);
+        texture = new Texture(ring);
+        texture.setFilter(Texture.TextureFilter.Nearest, Texture.TextureFilter.Nearest);
+        texture.setWrap(Texture.TextureWrap.Repeat, Texture.TextureWrap.ClampToEdge);
+    }
+
+    /**
+     * Writes the half columns generated since the last call.
+     *
+     * @param viewRightX right edge of the view in drawn coordinates
+     */
+    public void update(float viewRightX) {
+        firstColumn = generator.getDrawnColumnAt(viewRightX);
+        int last = generator.getDrawnFinalColumn();
+        // Anything the ring has wrapped past since (e.g. a long pause in updates) is rewritten
+        int from = Math.max(writtenThrough + 1, last - capacity + 1);
+        if (last < from) {
+            return;
+        }
+        boolean whole = last - from + 1 >= capacity / 8; // One upload beats this many small ones
+        for (int col = from; col <= last; col++) {
+            long cells = generator.getDrawnOccupancy(col);
+            int x = col & (capacity - 1);
+            for (int row = 0; row < rows; row++) {
+                int color = ((cells >>> row) & 1) != 0 ? OBSTACLE : FREE;
+                ring.drawPixel(x, row, color);
+                column.drawPixel(0, row, color);
+            }
+            if (!whole) {
+                texture.draw(column, x, 0);
+            }
+        }
+        if (whole) {
+            texture.draw(ring, 0, 0);
+        }
+        writtenThrough = last;
+    }
+
+    /** Draws the strip into {@code batch} (begun) as one quad, tinted {@code color}. */
+    public void draw(SpriteBatch batch, Color color, float x, float y, float width, float height) {
+        int shown = Math.min(spanColumns, writtenThrough - firstColumn + 1);
+        if (shown <= 0) {
+            return;
+        }
+        float u = (float) (firstColumn & (capacity - 1)) / capacity;
+        float u2 = u + (float) shown / capacity; // Past 1 wraps around the ring
+        float v2 = (float) rows / texture.getHeight(); // Row 0 (bottom of the band) at the bottom
+        batch.setColor(color);
+        batch.draw(texture, x, y, width * shown / spanColumns, height, u, 0, u2, v2);
+        batch.setColor(Color.WHITE);
+    }
+
+    public void dispose() {
+        texture.dispose();
+        ring.dispose();
+        column.dispose();
+    }
+}
@@ -1,15 +1,230 @@
 package com.unspeakabletest.wavewavetribute;
 
 import com.badlogic.gdx.Game;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputProcessor;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.resolvers.InternalFileHandleResolver;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.unspeakabletest.wavewavetribute.history.EventLog;
+import com.unspeakabletest.wavewavetribute.history.ReplayStore;
+import com.unspeakabletest.wavewavetribute.history.RunHistory;
 
 /**
  * {@link com.badlogic.gdx.ApplicationListener} implementation shared by all
  * platforms.
  */
 public class MainGame extends Game {
+    private static final String TAG = "MainGame";
+    /** The score and HUD font, loaded by {@link BakedFontLoader}. */
+    public static final String HUD_FONT = "fonts/ginzanarrow-heavy.otf";
+
+    private PlayerInput playerInput = new TouchEventQueue();
+    private RunHistory runHistory;
+    private ReplayStore replayStore;
+    private EventLog eventLog;
+    private boolean idleThrottling = true;
+    private int maxGhosts = 100; // Recorded runs raced on the same seed; 0 turns ghosts off
+    private boolean simulationThreaded = false;
+    private float renderScale = 0; // 0: adapt to the frame budget
+    private boolean splitScreen = false;
+    private AssetManager assets; // Null until create() (or the first getHudFont()) queues the loads
+    private BitmapFont fallbackFont; // libGDX's default font, if the HUD font fails to load
+
+    public PlayerInput getPlayerInput() {
+        return playerInput;
+    }
+
+    public void setPlayerInput(PlayerInput playerInput) {
+        this.playerInput = playerInput;
+    }
+
+    /**
+     * Whether screens may drop to non-continuous rendering while nothing moves
+     * (paused, waiting on the game-over screen). Scripted input can't wake the
+     * render loop, so benchmarks turn this off.
+     */
+    public boolean isIdleThrottling() {
+        return idleThrottling;
+    }
+
+    public void setIdleThrottling(boolean idleThrottling) {
+        this.idleThrottling = idleThrottling;
+    }
+
+    /**
+     * Whether game rules and level generation run on their own thread
+     * ({@link SimulationThread}) instead of inside each rendered frame. Inputs
+     * that read the live simulation (the autoplayer) need it off.
+     */
+    public boolean isSimulationThreaded() {
+        return simulationThreaded;
+    }
+
+    public void setSimulationThreaded(boolean simulationThreaded) {
+        this.simulationThreaded = simulationThreaded;
+    }
+
+    /**
+     * Fraction of the window's resolution the world is drawn at, 0.5 to 1;
+     * 0 lets {@link DynamicResolution} pick it each frame to keep up with the
+     * display. The HUD is always drawn at full resolution.
+     */
+    public float getRenderScale() {
+        return renderScale;
+    }
+
+    public void setRenderScale(float renderScale) {
+        this.renderScale = renderScale;
+    }
+
+    /**
+     * Whether the game starts as a two-player race on one device
+     * ({@link SplitScreen}) instead of the single-player {@link GameScreen}.
+     * Replaces the player input with {@link SplitScreenInput}.
+     */
+    public boolean isSplitScreen() {
+        return splitScreen;
+    }
+
+    public void setSplitScreen(boolean splitScreen) {
+        this.splitScreen = splitScreen;
+    }
+
+    public RunHistory getRunHistory() {
+        return runHistory;
+    }
+
+    public ReplayStore getReplayStore() {
+        return replayStore;
+    }
+
+    /** Gameplay events for balancing; see {@link EventLog}. */
+    public EventLog getEventLog() {
+        return eventLog;
+    }
+
+    public int getMaxGhosts() {
+        return maxGhosts;
+    }
+
+    public void setMaxGhosts(int maxGhosts) {
+        this.maxGhosts = maxGhosts;
+    }
 
     @Override
     public void create() {
+        openHistory(Gdx.files.local("history").file());
+        loadAssets();
+        setScreen(new LoadingScreen(this)); // Shows the first screen once the assets are in
+    }
+
+    /** Starts the game proper: the split-screen race or the single-player screen. */
+    protected void showFirstScreen() {
+        if (splitScreen) {
+            SplitScreenInput splitInput = new SplitScreenInput();
+            Gdx.input.setInputProcessor(splitInput);
+            setScreen(new SplitScreen(this, splitInput));
+            return;
+        }
+        if (playerInput instanceof InputProcessor) {
+            // Touch input arrives as timestamped events rather than per-frame polling
+            Gdx.input.setInputProcessor((InputProcessor) playerInput);
+        }
         setScreen(new GameScreen(this));
     }
+
+    /**
+     * Queues the assets shared by the screens. Loading runs on the manager's
+     * worker thread; {@link #updateAssets} finishes it a slice per frame.
+     */
+    protected void loadAssets() {
+        assets = new AssetManager(new InternalFileHandleResolver());
+        assets.setLoader(BitmapFont.class, ".otf", new BakedFontLoader(assets.getFileHandleResolver(),
+                Gdx.files.local("cache/fonts")));
+        assets.load(HUD_FONT, BitmapFont.class, new BakedFontLoader.Parameter());
+    }
+
+    /**
+     * Loads for at most {@code millis} of this frame. A failed asset is left
+     * out (the screens fall back) rather than stopping the game.
+     *
+     * @return whether everything is loaded
+     */
+    public boolean updateAssets(int millis) {
+        try {
+            return assets.update(millis);
+        } catch (GdxRuntimeException e) {
+            Gdx.app.error(TAG, "Could not load an asset", e);
+            return assets.isFinished();
+        }
+    }
+
+    /** Fraction of the queued assets loaded, 0 to 1. */
+    public float getLoadingProgress() {
+        return assets != null ? assets.getProgress() : 0;
+    }
+
+    public boolean isLoading() {
+        return assets == null || !assets.isFinished();
+    }
+
+    /**
+     * The score font, shared by all screens and owned by the game: screens
+     * must not dispose it. Tools that skip the loading screen get it loaded
+     * on the spot; if it can't be loaded, libGDX's default font stands in.
+     */
+    public BitmapFont getHudFont() {
+        if (assets == null) {
+            loadAssets();
+        }
+        if (!assets.isLoaded(HUD_FONT) && assets.contains(HUD_FONT)) { // Still queued: not failed yet
+            try {
+                assets.finishLoadingAsset(HUD_FONT);
+            } catch (GdxRuntimeException e) {
+                Gdx.app.error(TAG, "Could not load " + HUD_FONT, e);
+            }
+        }
+        if (assets.isLoaded(HUD_FONT)) {
+            return assets.get(HUD_FONT, BitmapFont.class);
+        }
+        if (fallbackFont == null) {
+            fallbackFont = new BitmapFont();
+            fallbackFont.setColor(Color.WHITE);
+            fallbackFont.getData().setScale(1.5f);
+        }
+        return fallbackFont;
+    }
+
+    /**
+     * Opens the run journal, the replays ({@code replays/}) and the gameplay
+     * event log ({@code events/}) kept under {@code directory}.
+     */
+    protected void openHistory(java.io.File directory) {
+        runHistory = new RunHistory(directory);
+        replayStore = new ReplayStore(new java.io.File(directory, "replays"));
+        eventLog = new EventLog(new java.io.File(directory, "events"));
+    }
+
+    @Override
+    public void dispose() {
+        super.dispose();
+        if (assets != null) {
+            assets.dispose(); // Unloads the font and its page textures
+        }
+        if (fallbackFont != null) {
+            fallbackFont.dispose();
+        }
+        if (runHistory != null) {
+            runHistory.close(); // Flushes runs still queued for the journal
+        }
+        if (replayStore != null) {
+            replayStore.close();
+        }
+        if (eventLog != null) {
+            eventLog.close(); // Writes the events still queued
+        }
+    }
 }
@@ -0,0 +1,228 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * Sizes and places the obstacle columns: alternating ceiling / floor
+ * mountains with random heights and gaps, snapped onto the grid. Pure layout
+ * math with no allocation per column, so {@link LegacyLevelGenerator} builds
+ * its obstacles from it and bulk tools can run it millions of times.
+ * <p>
+ * Positions are kept relative to an origin column that moves forward by a
+ * whole number of triangles once they pass {@link #REBASE_X}, so levels stay
+ * exact however long they run. The origin moves at fixed points of the
+ * obstacle sequence, never depending on who drives the generator or when,
+ * so a seed always lays out the same columns.
+ */
+public class ObstacleColumnGenerator {
+    // Heights were tuned on a 9 row band; finer grids keep them in pixels
+    private static final int BASE_GRID_ROWS = 9;
+    private static final float REBASE_X = 65536f; // Float spacing is still under 1/100 px here
+
+    private final RandomXS128 random;
+    private final int gridRows;
+    private final float triangleHeight;
+    private final float slope;
+    private final float snapStep; // Half a triangle width
+
+    private boolean nextIsTop; // Start pattern with top or bottom
+    private float lastEndX; // Track end of last obstacle
+    private int originColumn = 0; // Half column at x = 0; always even, so cell parity is kept
+
+    // --- Anti-AFK Counter ---
+    private int obstaclesGenerated = 0;
+
+    // Last generated column
+    private boolean ceiling;
+    private int heightRows;
+    private float gap;
+    private float snappedGap;
+    private int tipColumn;
+    private float startX;
+    private float endX;
+
+    /**
+     * @param random         Level RNG; the first draw picks the starting side
+     * @param gridRows       Rows in the band
+     * @param triangleHeight Height of a grid row
+     * @param slope          Grid (and wave) slope
+     * @param firstStartX    Where the first obstacle may start
+     */
+    public ObstacleColumnGenerator(RandomXS128 random, int gridRows, float triangleHeight, float slope,
+            float firstStartX) {
+        this.random = random;
+        this.gridRows = gridRows;
+        this.triangleHeight = triangleHeight;
+        this.slope = slope;
+        this.snapStep = (triangleHeight / slope) * 2f / 2f;
+        this.lastEndX = firstStartX;
+        this.nextIsTop = random.nextBoolean(); // Randomize start direction
+    }
+
+    /** Lays out the next column right after the previous one. */
+    public void next() {
+        if (lastEndX > REBASE_X) {
+            int shift = 2 * (int) Math.floor(lastEndX / (2 * snapStep));
+            lastEndX -= shift * snapStep;
+            originColumn += shift;
+        }
+
+        // Strict alternating pattern
+        // Consistent slope matching Wave Movement (and now Grid)
+        // Leave the wave one 9 row grid row (33 px) of room above / below the tip
+        int maxRows = gridRows - Math.round((float) gridRows / BASE_GRID_ROWS); // 8
+
+        // Ensure visibility inside the "Colored Region" (e.g., Rows 2-6)
+        // Ceiling Obstacle: Starts at Row 8 (Top) going down. To reach visible region
+        // (Row 6), it needs height >= 3 (8,7,6).
+        // Floor Obstacle: Starts at Row 0 (Bottom) going up. To reach visible region
+        // (Row 2), it needs height >= 3 (0,1,2).
+
+        // New Constraint: Min Height 3 to ensure it pokes into the center.
+        // --- Anti-AFK Logic ---
+        // First 3 obstacles must have at least 6 rows to blocking center path deeply
+        int minRows = scaledRows(2);
+        if (obstaclesGenerated < 3) {
+            minRows = scaledRows(6);
+        }
+
+        // Safety: ensure min <= max
+        if (minRows > maxRows)
+            minRows = maxRows;
+
+        heightRows = minRows + random.nextInt(maxRows - minRows + 1);
+
+        float visualHeight = heightRows * triangleHeight;
+
+        // Calculate the "Visual Width" at the base
+        // Slope = dy/dx. dx = dy/Slope.
+        // HalfWidth = VisualHeight / Slope.
+        // Full Width = 2 * HalfWidth
+        float visualBaseWidth = (visualHeight / slope) * 2f;
+
+        // Reduced Gap for higher density: 20f to 50f
+        gap = 20f + random.nextFloat() * (50f - 20f);
+
+        float proposedStartX = lastEndX + gap;
+        float proposedCenterX = proposedStartX + visualBaseWidth / 2;
+        int colIndex = Math.round(proposedCenterX / snapStep);
+
+        // --- PARITY SNAPPING FOR PERFECT TIPS ---
+        if (nextIsTop) {
+            // Ceiling Mountain (Points Down)
+            // Tip Y = MAX_Y - visualHeight
+            // MAX_Y = Top of Row 8 (if 9 rows 0..8). = MIN_Y + 9*H.
+            // Tip Y = MIN_Y + (9 - heightRows)*H.
+            // This Y corresponds to the Bottom of Row (9 - heightRows).
+            // A Down-Triangle in Row R has its tip at Bottom of Row R.
+            // So we need a DOWN triangle in Row R = (9 - heightRows).
+            // Is this row visible? If heightRows=2, R=7. Row 7 is visible. OK.
+
+            int tipRowIndex = gridRows - heightRows;
+
+            // In Row 'tipRowIndex', which columns are DOWN?
+            // Row Even: Odd Cols are DOWN.
+            // Row Odd: Even Cols are DOWN.
+            boolean rowIsEven = (tipRowIndex % 2 == 0);
+            boolean colMustBeEven = !rowIsEven; // If Row Odd -> Even Cols. If Row Even -> Odd Cols.
+
+            // Check current colIndex parity
+            if ((colIndex % 2 == 0) != colMustBeEven) {
+                colIndex++; // Shift to matching column
+            }
+
+        } else {
+            // Floor Mountain (Points Up)
+            // Tip Y = MIN_Y + visualHeight
+            // Tip Y = MIN_Y + heightRows*H.
+            // This corresponds to Top of Row (heightRows - 1).
+            // An UP-Triangle in Row R has its tip at Top of Row R.
+            // So we need an UP triangle in Row R = (heightRows - 1).
+
+            int tipRowIndex = heightRows - 1;
+
+            // In Row 'tipRowIndex', which columns are UP?
+            // Row Even: Even Cols are UP.
+            // Row Odd: Odd Cols are UP.
+            boolean rowIsEven = (tipRowIndex % 2 == 0);
+            boolean colMustBeEven = rowIsEven; // Even->Even, Odd->Odd
+
+            // Check parity
+            if ((colIndex % 2 == 0) != colMustBeEven) {
+                colIndex++;
+            }
+        }
+
+        float centerX = colIndex * snapStep;
+        ceiling = nextIsTop;
+        tipColumn = originColumn + colIndex;
+        startX = centerX - visualBaseWidth / 2;
+        endX = centerX + visualBaseWidth / 2;
+        snappedGap = startX - lastEndX;
+
+        lastEndX = endX;
+        nextIsTop = !nextIsTop;
+        obstaclesGenerated++;
+    }
+
+    /** {@code baseRows} rows of the 9 row grid, in rows of this one. */
+    private int scaledRows(int baseRows) {
+        return Math.round((float) baseRows * gridRows / BASE_GRID_ROWS);
+    }
+
+    /** Whether the last column hangs from the ceiling (else it stands on the floor). */
+    public boolean isCeiling() {
+        return ceiling;
+    }
+
+    /** Height of the last column in grid rows. */
+    public int getHeightRows() {
+        return heightRows;
+    }
+
+    /** Random gap drawn for the last column, before snapping to the grid. */
+    public float getGap() {
+        return gap;
+    }
+
+    /** Gap from the previous column's base to this one's, after snapping. */
+    public float getSnappedGap() {
+        return snappedGap;
+    }
+
+    /** Half column index of the last column's tip. */
+    public int getTipColumn() {
+        return tipColumn;
+    }
+
+    /** Half column at x = 0 of the positions below; moves as the level grows. */
+    public int getOriginColumn() {
+        return originColumn;
+    }
+
+    public float getCenterX() {
+        return (tipColumn - originColumn) * snapStep;
+    }
+
+    /** Left end of the last column's base on the band edge, from {@link #getOriginColumn()}. */
+    public float getStartX() {
+        return startX;
+    }
+
+    /** Right end of the last column's base on the band edge, from {@link #getOriginColumn()}. */
+    public float getEndX() {
+        return endX;
+    }
+
+    public int getGridRows() {
+        return gridRows;
+    }
+
+    public float getSnapStep() {
+        return snapStep;
+    }
+
+    public int getObstaclesGenerated() {
+        return obstaclesGenerated;
+    }
+}
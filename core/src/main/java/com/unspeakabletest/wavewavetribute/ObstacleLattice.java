@@ -0,0 +1,273 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * The level as a discrete graph. The wave only ever moves along the grid
+ * slope, so if it turns only at fixed points ("nodes", one per half column,
+ * one per row) every path is a walk over a small lattice: from node (k, j)
+ * it goes up to (k + 1, j + 1) or down to (k + 1, j - 1).
+ * <p>
+ * Nodes sit midway between parallel grid diagonals, so the nose never runs
+ * along a triangle edge. Each up / down edge sweeps the nose over the same
+ * handful of grid cells (relative to its node), worked out once here.
+ * Obstacles mark their cells as one bitmask of rows per half column, which
+ * turns "which edges are clear" and "which nodes are reachable" into a few
+ * shifts and ANDs per column: no geometry at search time.
+ * <p>
+ * Column indices are absolute; x positions count from the level's origin
+ * column ({@link #setOriginColumn}), which moves on long runs.
+ * <p>
+ * Turning only at nodes is a restriction, so a path found here is a real
+ * path but a missed one may still exist. Cell sweeps are widened for the
+ * wobble shear, and only rows inside the band are searched.
+ */
+public class ObstacleLattice {
+    /**
+     * Pixels of level kept (1024 half columns of the 9 row grid); the search
+     * looks well under that far ahead / behind.
+     */
+    public static final float KEPT_WIDTH = 25600f;
+
+    private final int rows;
+    private final float rowHeight;
+    private final float halfColumnWidth;
+    private final float minY;
+    private final long allRows; // Bit j set for every row / node row in the band
+
+    // Node (k, j) is at x = (k - originColumn + nodeOffsetX) * halfColumnWidth, y = minY + (j + nodeOffsetY) * rowHeight
+    private int originColumn = 0;
+    private final float nodeOffsetX;
+    private final float nodeOffsetY;
+    private final int startRow;
+
+    // Cells swept by the nose per edge, as flat (dCol, dRow) pairs relative to
+    // the node, for nodes with (k + j) even [0] and odd [1] (triangles flip).
+    private final int[][] upCells = new int[2][];
+    private final int[][] downCells = new int[2][];
+    private int minCellColumn = Integer.MAX_VALUE; // Range of dCol over all sweeps
+    private int maxCellColumn = Integer.MIN_VALUE;
+
+    // Blocked-row masks per half column
+    private final ColumnMasks blocked;
+    private int lastBlockedColumn = Integer.MIN_VALUE / 2; // Far left, without overflowing lookups
+
+    /**
+     * @param rows             Rows in the band (at most 64)
+     * @param rowHeight        Triangle height in pixels
+     * @param halfColumnWidth  Half a triangle width in pixels (the column step)
+     * @param minY             Bottom of the band
+     * @param startY           Height at which the wave starts
+     * @param maxShearPerPixel Largest horizontal shear per pixel of height that
+     *                         collision may apply (grid wobble)
+     */
+    public ObstacleLattice(int rows, float rowHeight, float halfColumnWidth, float minY, float startY,
+            float maxShearPerPixel) {
+        if (rows > 64)
+            throw new IllegalArgumentException("The lattice holds at most 64 rows, got " + rows);
+        this.rows = rows;
+        this.rowHeight = rowHeight;
+        this.halfColumnWidth = halfColumnWidth;
+        this.minY = minY;
+        this.allRows = rows == 64 ? -1L : (1L << rows) - 1;
+        this.blocked = new ColumnMasks(Math.max(1024,
+                com.badlogic.gdx.math.MathUtils.nextPowerOfTwo((int) Math.ceil(KEPT_WIDTH / halfColumnWidth))));
+
+        // Put nodes on the start height, then shift them sideways half a step off the diagonals
+        float startRowF = (startY - minY) / rowHeight;
+        this.startRow = (int) Math.floor(startRowF + 1e-4f);
+        this.nodeOffsetY = startRowF - startRow;
+        float offsetX = nodeOffsetY + 0.5f;
+        this.nodeOffsetX = offsetX - (float) Math.floor(offsetX);
+
+        // Nose tip relative to the wave, in lattice units (columns, rows)
+        float noseLength = WaveSimulation.LINE_WIDTH * 2.5f;
+        float speed = (float) Math.sqrt(WaveSimulation.HORIZONTAL_SPEED * WaveSimulation.HORIZONTAL_SPEED
+                + WaveSimulation.VERTICAL_SPEED * WaveSimulation.VERTICAL_SPEED);
+        float noseX = noseLength * WaveSimulation.HORIZONTAL_SPEED / speed / halfColumnWidth;
+        float noseY = noseLength * WaveSimulation.VERTICAL_SPEED / speed;
+        // Collision unshears x by (nose y - wave y) * shear
+        float shearTolerance = noseY * maxShearPerPixel / halfColumnWidth;
+        noseY /= rowHeight;
+
+        for (int parity = 0; parity < 2; parity++) {
+            float x = parity + nodeOffsetX + noseX;
+            float y = nodeOffsetY;
+            upCells[parity] = traceCells(parity, x, y + noseY, x + 1, y + 1 + noseY, shearTolerance);
+            downCells[parity] = traceCells(parity, x, y - noseY, x + 1, y - 1 - noseY, shearTolerance);
+            for (int[] cells : new int[][] { upCells[parity], downCells[parity] }) {
+                for (int i = 0; i < cells.length; i += 2) {
+                    minCellColumn = Math.min(minCellColumn, cells[i]);
+                    maxCellColumn = Math.max(maxCellColumn, cells[i]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Grid cells (relative to node (parity, 0)) that a point moving from
+     * (x0, y0) to (x1, y1) touches, allowing {@code tolerance} columns of
+     * sideways error.
+     */
+    private static int[] traceCells(int parity, float x0, float y0, float x1, float y1, float tolerance) {
+        final float eps = 0.02f;
+        IntArray cells = new IntArray();
+        int steps = 64 * (int) Math.ceil(Math.max(Math.abs(x1 - x0), Math.abs(y1 - y0)));
+        for (int i = 0; i <= steps; i++) {
+            float t = (float) i / steps;
+            float y = y0 + (y1 - y0) * t;
+            for (int s = -1; s <= 1; s++) {
+                float x = x0 + (x1 - x0) * t + s * tolerance;
+                int row0 = (int) Math.floor(y - eps);
+                int row1 = (int) Math.floor(y + eps);
+                for (int row = row0; row <= row1; row++) {
+                    int col0 = (int) Math.floor(x - eps) - 1;
+                    int col1 = (int) Math.floor(x + eps);
+                    for (int col = col0; col <= col1; col++) {
+                        if (cellContains(col, row, x, y, eps)) {
+                            addCell(cells, col - parity, row);
+                        }
+                    }
+                }
+            }
+        }
+        return cells.toArray();
+    }
+
+    /** Same triangle layout as the grid: cell (col, row) spans x in [col, col + 2]. */
+    private static boolean cellContains(int col, int row, float x, float y, float eps) {
+        float f = y - row;
+        if (f < -eps || f > 1 + eps)
+            return false;
+        float dx = Math.abs(x - (col + 1));
+        boolean isUp = (row % 2 == 0) ? (col % 2 == 0) : (col % 2 != 0);
+        return isUp ? dx <= 1 - f + eps : dx <= f + eps;
+    }
+
+    private static void addCell(IntArray cells, int dCol, int dRow) {
+        for (int i = 0; i < cells.size; i += 2) {
+            if (cells.get(i) == dCol && cells.get(i + 1) == dRow)
+                return;
+        }
+        cells.add(dCol, dRow);
+    }
+
+    // --- Occupancy (written by the level generator) ---
+
+    /** Marks grid cells of half column {@code col} as solid; bit j is row j. Rows outside the band are ignored. */
+    void block(int col, long cellRows) {
+        cellRows &= allRows;
+        if (cellRows == 0)
+            return;
+        blocked.or(col, cellRows);
+        lastBlockedColumn = Math.max(lastBlockedColumn, col);
+    }
+
+    /** Blocked rows of half column {@code col}; bit j is row j. Unknown columns are clear. */
+    public long getBlocked(int col) {
+        return blocked.get(col);
+    }
+
+    // --- Graph queries ---
+
+    /**
+     * Nodes of node column {@code k} whose edge in direction {@code dir}
+     * (1 up, -1 down) is clear, as a row mask.
+     */
+    public long freeEdges(int k, int dir) {
+        long free = 0;
+        for (int parity = 0; parity < 2; parity++) {
+            int[] cells = dir > 0 ? upCells[parity] : downCells[parity];
+            long hit = 0;
+            for (int i = 0; i < cells.length; i += 2) {
+                hit |= rowsAt(getBlocked(k + cells[i]), cells[i + 1]);
+            }
+            // Nodes whose (k + j) has this parity
+            long parityRows = ((k + parity) & 1) == 0 ? 0x5555555555555555L : 0xAAAAAAAAAAAAAAAAL;
+            free |= ~hit & parityRows;
+        }
+        return free & allRows;
+    }
+
+    /**
+     * Bit j of the result says whether row j + dRow is blocked, counting rows
+     * outside the band as blocked.
+     */
+    private long rowsAt(long blockedRows, int dRow) {
+        if (dRow >= 64 || dRow <= -64)
+            return -1L;
+        if (dRow >= 0)
+            return (blockedRows >>> dRow) | ~(allRows >>> dRow);
+        return (blockedRows << -dRow) | ~(allRows << -dRow);
+    }
+
+    /** Nodes of column k + 1 reachable in one step from {@code nodes} in column k. */
+    public long step(int k, long nodes) {
+        return (((nodes & freeEdges(k, 1)) << 1) | ((nodes & freeEdges(k, -1)) >>> 1)) & allRows;
+    }
+
+    /** Nodes of column k that can step into one of {@code next} in column k + 1. */
+    public long stepBack(int k, long next) {
+        return (freeEdges(k, 1) & (next >>> 1)) | (freeEdges(k, -1) & (next << 1));
+    }
+
+    /**
+     * Last half column with a blocked cell so far. Node columns past
+     * {@code lastNodeColumnTouching} of it have every edge clear (except out
+     * of the band), so a backwards pass from further ahead reaches them with
+     * every row alive and can start there instead.
+     */
+    public int getLastBlockedColumn() {
+        return lastBlockedColumn;
+    }
+
+    /** First node column whose edges can touch cells of half column {@code col}. */
+    public int firstNodeColumnTouching(int col) {
+        return col - maxCellColumn;
+    }
+
+    /** Last node column whose edges can touch cells of half column {@code col}. */
+    public int lastNodeColumnTouching(int col) {
+        return col - minCellColumn;
+    }
+
+    /** Half column at x = 0, as in {@link LegacyLevelGenerator#getOriginColumn()}. */
+    void setOriginColumn(int originColumn) {
+        this.originColumn = originColumn;
+    }
+
+    /** Half column whose triangles start at or left of {@code x} (as in collision). */
+    public int columnAt(float x) {
+        return (int) Math.floor(x / halfColumnWidth) + originColumn;
+    }
+
+    public float getHalfColumnWidth() {
+        return halfColumnWidth;
+    }
+
+    public long getAllRows() {
+        return allRows;
+    }
+
+    public int getStartRow() {
+        return startRow;
+    }
+
+    /** The first node column the wave can start climbing from at or after {@code x}. */
+    public int firstNodeColumnAfter(float x) {
+        return (int) Math.ceil(x / halfColumnWidth - nodeOffsetX - 1e-4f) + originColumn;
+    }
+
+    /** Node column whose node lies nearest to {@code x}. */
+    public int nodeColumnAt(float x) {
+        return Math.round(x / halfColumnWidth - nodeOffsetX) + originColumn;
+    }
+
+    public float getNodeX(int k) {
+        return (k - originColumn + nodeOffsetX) * halfColumnWidth;
+    }
+
+    public float getNodeY(int j) {
+        return minY + (j + nodeOffsetY) * rowHeight;
+    }
+}
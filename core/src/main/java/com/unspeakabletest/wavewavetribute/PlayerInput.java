@@ -0,0 +1,34 @@
+package com.unspeakabletest.wavewavetribute;
+
+/**
+ * Source of the single button that drives the wave. The default
+ * ({@link TouchEventQueue}) records touch screen / mouse events as they
+ * arrive; benchmarks and demos substitute a scripted source.
+ */
+public interface PlayerInput {
+    /**
+     * Hands over the presses and releases of the frame that just elapsed,
+     * each stamped with when it happened, so the simulation can apply them at
+     * that exact moment instead of at the frame boundary.
+     *
+     * @param delta  Length of the elapsed frame in seconds
+     * @param events Receives the changes in order; times run from 0 (start of
+     *               the frame) to {@code delta} (now)
+     */
+    void collect(float delta, TouchEvents events);
+
+    /**
+     * A new run starts. Inputs that play by themselves (the autoplayer) look
+     * at the wave and the level through these; others ignore it.
+     */
+    default void begin(WaveSimulation simulation, LevelGenerator levelGenerator) {
+    }
+
+    /**
+     * @return whether the player asked to pause (or unpause) since the last
+     *         call; clears the request
+     */
+    default boolean consumePauseRequest() {
+        return false;
+    }
+}
@@ -0,0 +1,159 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * The {@link PolygonObstacle}s of one chunk of level (a fixed run of half
+ * columns) in a bounding-volume hierarchy, so a collision query opens the
+ * few boxes along the nose's path instead of testing every polygon.
+ * <p>
+ * Boxes are in the chunk's own coordinates, x from the left edge of its
+ * first column, so the floating origin never invalidates them. The tree is
+ * rebuilt from scratch, on the first query after polygons were added, by
+ * splitting at the median centre along the longer side of each box; nodes
+ * live in flat arrays, children of node i are i + 1 and {@code right[i]}.
+ */
+public class PolygonBvh {
+    private static final int LEAF_SIZE = 4;
+
+    private final int firstColumn;
+    private final float halfColumnWidth;
+    private final Array<PolygonObstacle> polygons = new Array<>();
+    private boolean dirty = false;
+
+    // Per polygon: x offset from the chunk's left edge to its anchor column
+    private float[] offsets = new float[0];
+    // Nodes: box (min x, min y, max x, max y), then either a leaf's range of
+    // order[] (count > 0) or the right child (count == 0)
+    private float[] boxes = new float[0];
+    private int[] first = new int[0];
+    private int[] count = new int[0];
+    private int[] order = new int[0];
+    private int nodes = 0;
+    private long[] keys = new long[0]; // Build scratch: sortable centre, polygon index
+    private final int[] stack = new int[64];
+
+    /** @param firstColumn absolute half column the chunk starts at */
+    public PolygonBvh(int firstColumn, float halfColumnWidth) {
+        this.firstColumn = firstColumn;
+        this.halfColumnWidth = halfColumnWidth;
+    }
+
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    public int size() {
+        return polygons.size;
+    }
+
+    public void add(PolygonObstacle polygon) {
+        polygons.add(polygon);
+        dirty = true;
+    }
+
+    private void build() {
+        int n = polygons.size;
+        offsets = new float[n];
+        order = new int[n];
+        keys = new long[n];
+        boxes = new float[4 * 2 * n];
+        first = new int[2 * n];
+        count = new int[2 * n];
+        for (int i = 0; i < n; i++) {
+            offsets[i] = (polygons.get(i).getAnchorColumn() - firstColumn) * halfColumnWidth;
+            order[i] = i;
+        }
+        nodes = 0;
+        buildNode(0, n);
+        dirty = false;
+    }
+
+    /** Builds the subtree over order[from..to) and returns its node. */
+    private int buildNode(int from, int to) {
+        int node = nodes++;
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE, x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int k = from; k < to; k++) {
+            int i = order[k];
+            PolygonObstacle p = polygons.get(i);
+            x0 = Math.min(x0, offsets[i] + p.getMinX());
+            x1 = Math.max(x1, offsets[i] + p.getMaxX());
+            y0 = Math.min(y0, p.getMinY());
+            y1 = Math.max(y1, p.getMaxY());
+        }
+        boxes[node * 4] = x0;
+        boxes[node * 4 + 1] = y0;
+        boxes[node * 4 + 2] = x1;
+        boxes[node * 4 + 3] = y1;
+        if (to - from <= LEAF_SIZE) {
+            first[node] = from;
+            count[node] = to - from;
+            return node;
+        }
+
+        // Median split on box centres along the longer side
+        boolean alongX = x1 - x0 >= y1 - y0;
+        for (int k = from; k < to; k++) {
+            int i = order[k];
+            PolygonObstacle p = polygons.get(i);
+            float centre = alongX ? offsets[i] + (p.getMinX() + p.getMaxX()) / 2 : (p.getMinY() + p.getMaxY()) / 2;
+            keys[k] = ((long) sortableBits(centre) << 32) | i;
+        }
+        java.util.Arrays.sort(keys, from, to);
+        for (int k = from; k < to; k++) {
+            order[k] = (int) keys[k];
+        }
+        int mid = (from + to) >>> 1;
+        buildNode(from, mid); // node + 1
+        first[node] = buildNode(mid, to);
+        count[node] = 0;
+        return node;
+    }
+
+    /** Float bits that sort as signed ints in the float's order. */
+    private static int sortableBits(float f) {
+        int bits = Float.floatToIntBits(f);
+        return bits >= 0 ? bits : bits ^ 0x7FFFFFFF;
+    }
+
+    /**
+     * The polygon a point moving from (x0, y0) to (x1, y1) reaches first, or
+     * null. Coordinates are relative to the chunk's first column.
+     */
+    public PolygonObstacle sweep(float x0, float y0, float x1, float y1) {
+        if (polygons.size == 0) {
+            return null;
+        }
+        if (dirty) {
+            build();
+        }
+        float segX0 = Math.min(x0, x1), segX1 = Math.max(x0, x1);
+        float segY0 = Math.min(y0, y1), segY1 = Math.max(y0, y1);
+        PolygonObstacle hit = null;
+        float hitT = 2;
+        int top = 0;
+        stack[top++] = 0;
+        while (top > 0) {
+            int node = stack[--top];
+            int b = node * 4;
+            // A step is a few pixels: its own box against the node's rejects almost as well as a ray test
+            if (boxes[b] > segX1 || boxes[b + 2] < segX0 || boxes[b + 1] > segY1 || boxes[b + 3] < segY0) {
+                continue;
+            }
+            if (count[node] == 0) {
+                stack[top++] = first[node];
+                stack[top++] = node + 1;
+                continue;
+            }
+            for (int k = first[node]; k < first[node] + count[node]; k++) {
+                int i = order[k];
+                float t = polygons.get(i).sweep(x0 - offsets[i], y0, x1 - offsets[i], y1);
+                if (t >= 0 && t < hitT) {
+                    hitT = t;
+                    hit = polygons.get(i);
+                }
+            }
+        }
+        return hit;
+    }
+}
@@ -0,0 +1,192 @@
+package com.unspeakabletest.wavewavetribute;
+
+/**
+ * A free-form obstacle for authored levels: any convex polygon (a floating
+ * block, one tooth of a sawtooth corridor, a slab of a sloped tunnel), added
+ * with {@link LegacyLevelGenerator#addPolygonObstacle}.
+ * <p>
+ * Like the generated mountains it is anchored to an absolute half column, so
+ * the floating origin never moves it: vertex x counts from the left edge of
+ * the anchor column, y is world height. Collision tests the exact outline,
+ * swept along the nose's path over a step ({@link #sweep}); the grid draws
+ * the cells whose centres lie inside it, so on screen it snaps to the
+ * lattice like everything else.
+ */
+public class PolygonObstacle {
+    private final int anchorColumn;
+    private final float[] vertices; // x, y pairs, counter-clockwise
+    private final float minX, minY, maxX, maxY;
+
+    /**
+     * @param anchorColumn absolute half column the x coordinates count from
+     * @param vertices     x, y pairs of a convex polygon, either winding; at least three
+     * @throws IllegalArgumentException if the polygon is degenerate or not convex
+     */
+    public PolygonObstacle(int anchorColumn, float... vertices) {
+        if (vertices.length < 6 || vertices.length % 2 != 0) {
+            throw new IllegalArgumentException("A polygon needs at least three x, y pairs, got "
+                    + vertices.length + " values");
+        }
+        this.anchorColumn = anchorColumn;
+        this.vertices = vertices.clone();
+        int n = vertices.length / 2;
+
+        // Winding from the signed area; edge normals below assume counter-clockwise
+        float area = 0;
+        for (int i = 0; i < n; i++) {
+            int j = (i + 1) % n;
+            area += vertices[i * 2] * vertices[j * 2 + 1] - vertices[j * 2] * vertices[i * 2 + 1];
+        }
+        if (Math.abs(area) < 1e-3f) {
+            throw new IllegalArgumentException("Polygon has no area");
+        }
+        if (area < 0) {
+            for (int i = 0; i < n; i++) {
+                this.vertices[i * 2] = vertices[(n - 1 - i) * 2];
+                this.vertices[i * 2 + 1] = vertices[(n - 1 - i) * 2 + 1];
+            }
+        }
+        for (int i = 0; i < n; i++) {
+            if (cross(i, (i + 1) % n, (i + 2) % n) < 0) {
+                throw new IllegalArgumentException("Polygon is not convex at vertex " + ((i + 1) % n));
+            }
+        }
+
+        float x0 = Float.MAX_VALUE, y0 = Float.MAX_VALUE, x1 = -Float.MAX_VALUE, y1 = -Float.MAX_VALUE;
+        for (int i = 0; i < this.vertices.length; i += 2) {
+            x0 = Math.min(x0, this.vertices[i]);
+            x1 = Math.max(x1, this.vertices[i]);
+            y0 = Math.min(y0, this.vertices[i + 1]);
+            y1 = Math.max(y1, this.vertices[i + 1]);
+        }
+        minX = x0;
+        minY = y0;
+        maxX = x1;
+        maxY = y1;
+    }
+
+    /** Turn at vertex b of a, b, c; negative for a right (clockwise) turn. */
+    private float cross(int a, int b, int c) {
+        float[] v = vertices;
+        return (v[b * 2] - v[a * 2]) * (v[c * 2 + 1] - v[b * 2 + 1])
+                - (v[b * 2 + 1] - v[a * 2 + 1]) * (v[c * 2] - v[b * 2]);
+    }
+
+    public int getAnchorColumn() {
+        return anchorColumn;
+    }
+
+    public int getVertexCount() {
+        return vertices.length / 2;
+    }
+
+    /** X of vertex {@code i}, from the anchor column's left edge. */
+    public float getX(int i) {
+        return vertices[i * 2];
+    }
+
+    public float getY(int i) {
+        return vertices[i * 2 + 1];
+    }
+
+    // Bounds, in the same coordinates as the vertices
+    public float getMinX() {
+        return minX;
+    }
+
+    public float getMinY() {
+        return minY;
+    }
+
+    public float getMaxX() {
+        return maxX;
+    }
+
+    public float getMaxY() {
+        return maxY;
+    }
+
+    /** Whether (x, y) lies inside or on the outline; x from the anchor column's left edge. */
+    public boolean contains(float x, float y) {
+        float[] v = vertices;
+        int n = v.length / 2;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            // Left of every counter-clockwise edge
+            if ((v[i * 2] - v[j * 2]) * (y - v[j * 2 + 1]) - (v[i * 2 + 1] - v[j * 2 + 1]) * (x - v[j * 2]) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Where a point moving from (x0, y0) to (x1, y1) first touches the
+     * polygon, as a fraction of the way (0 if it starts inside), or -1 if it
+     * never does. Clips the segment against each edge's half plane in turn.
+     */
+    public float sweep(float x0, float y0, float x1, float y1) {
+        float[] v = vertices;
+        int n = v.length / 2;
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float enter = 0;
+        float exit = 1;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            float ex = v[i * 2] - v[j * 2];
+            float ey = v[i * 2 + 1] - v[j * 2 + 1];
+            // Inside where ex * (y - yj) - ey * (x - xj) >= 0: distance along the segment is start + rate * t
+            float start = ex * (y0 - v[j * 2 + 1]) - ey * (x0 - v[j * 2]);
+            float rate = ex * dy - ey * dx;
+            if (rate == 0) {
+                if (start < 0) {
+                    return -1; // Parallel to this edge and outside it
+                }
+                continue;
+            }
+            float t = -start / rate;
+            if (rate > 0) {
+                enter = Math.max(enter, t); // Coming in across this edge
+            } else {
+                exit = Math.min(exit, t);
+            }
+            if (enter > exit) {
+                return -1;
+            }
+        }
+        return enter;
+    }
+
+    /**
+     * Whether the polygon and the triangle share any area (touching edges
+     * count): no edge of either separates them.
+     */
+    public boolean overlapsTriangle(float x1, float y1, float x2, float y2, float x3, float y3) {
+        float[] v = vertices;
+        int n = v.length / 2;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            if (separates(v[j * 2 + 1] - v[i * 2 + 1], v[i * 2] - v[j * 2], x1, y1, x2, y2, x3, y3)) {
+                return false;
+            }
+        }
+        return !separates(y1 - y2, x2 - x1, x1, y1, x2, y2, x3, y3)
+                && !separates(y2 - y3, x3 - x2, x1, y1, x2, y2, x3, y3)
+                && !separates(y3 - y1, x1 - x3, x1, y1, x2, y2, x3, y3);
+    }
+
+    /** Whether the polygon and the triangle project onto axis (ax, ay) without overlapping. */
+    private boolean separates(float ax, float ay, float x1, float y1, float x2, float y2, float x3, float y3) {
+        float[] v = vertices;
+        float polyMin = Float.MAX_VALUE, polyMax = -Float.MAX_VALUE;
+        for (int i = 0; i < v.length; i += 2) {
+            float p = v[i] * ax + v[i + 1] * ay;
+            polyMin = Math.min(polyMin, p);
+            polyMax = Math.max(polyMax, p);
+        }
+        float p1 = x1 * ax + y1 * ay;
+        float p2 = x2 * ax + y2 * ay;
+        float p3 = x3 * ax + y3 * ay;
+        float triMin = Math.min(p1, Math.min(p2, p3));
+        float triMax = Math.max(p1, Math.max(p2, p3));
+        return triMax < polyMin || triMin > polyMax;
+    }
+}
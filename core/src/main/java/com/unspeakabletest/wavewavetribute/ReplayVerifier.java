@@ -0,0 +1,171 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.FloatArray;
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+import com.unspeakabletest.wavewavetribute.enums.GameMode;
+import com.unspeakabletest.wavewavetribute.history.Replay;
+
+import java.util.Locale;
+
+/**
+ * Checks a submitted {@link Replay} by playing it again: the level is rebuilt
+ * from its seed and difficulty, a {@link WaveSimulation} is fed the recorded
+ * turns at their recorded times, and the run it plays must end the way the
+ * replay claims (crash time, score and, in replays that have it, crash point).
+ * A forged score needs a turn sequence that actually survives that long.
+ * <p>
+ * The simulation steps at a fixed rate with each turn applied at its own time
+ * inside the step, as the game does, so only collision (checked at the end of
+ * each step) depends on the step length. Claims are held to within
+ * {@code tolerance} seconds, which has to cover the longest frame a genuine
+ * player might have had. A crash that only grazed an obstacle can fall
+ * between the verifier's collision checks; such a replay is still accepted
+ * if the wave was at the claimed crash point, with the claimed score, at
+ * the claimed time, since it provably got that far.
+ * <p>
+ * Holds no state between replays and shares none, so one instance per
+ * thread verifies in parallel.
+ */
+public class ReplayVerifier {
+    /** Step the simulation is run at by default: what a frame feeds it on a common display. */
+    public static final float DEFAULT_STEP = 1f / 60f;
+    /** Default slack on claimed times, in seconds: a 10 Hz hitch. */
+    public static final float DEFAULT_TOLERANCE = 0.1f;
+
+    /** Outcome of one replay. */
+    public static final class Verdict {
+        public final boolean valid;
+        /** Why the replay was rejected; null if it was valid. */
+        public final String reason;
+        /** Run time the re-simulation reached (its crash, or where it gave up). */
+        public final float simulatedTime;
+        public final float simulatedScore;
+
+        Verdict(boolean valid, String reason, float simulatedTime, float simulatedScore) {
+            this.valid = valid;
+            this.reason = reason;
+            this.simulatedTime = simulatedTime;
+            this.simulatedScore = simulatedScore;
+        }
+    }
+
+    private static final WaveSimulation.Listener NO_EFFECTS = new WaveSimulation.Listener() {
+        @Override
+        public void onCorner(Vector2 corner, boolean bonus) {
+        }
+
+        @Override
+        public void onWaveModeStart() {
+        }
+
+        @Override
+        public void onWaveModeEnd() {
+        }
+
+        @Override
+        public void onCrash(Vector2 crashPoint) {
+        }
+    };
+
+    private final float step;
+    private final float tolerance;
+    private final TouchEvents events = new TouchEvents();
+    private final Vector2 nose = new Vector2();
+
+    public ReplayVerifier(float step, float tolerance) {
+        this.step = step;
+        this.tolerance = tolerance;
+    }
+
+    public Verdict verify(Replay replay) {
+        String malformed = checkFormat(replay);
+        if (malformed != null) {
+            return reject(malformed, 0, 0);
+        }
+
+        LegacyLevelGenerator generator = new LegacyLevelGenerator(Difficulty.values()[replay.difficulty], replay.seed);
+        generator.setMovingObstacles(replay.movingObstacles);
+        WaveSimulation simulation = new WaveSimulation(generator, WaveSimulation.START_X, WaveSimulation.START_Y,
+                NO_EFFECTS);
+        float[] turns = replay.turnTimes;
+        int next = 0;
+        // Past the claimed crash plus the slack, the claim is already wrong
+        float limit = replay.endTime + tolerance;
+        boolean reachedEnd = false;
+        float endScore = 0, endX = 0, endY = 0; // At the claimed crash time, in case the crash grazed
+        while (!simulation.isCrashed() && simulation.getSurvivalTime() <= limit) {
+            float frameStart = simulation.getSurvivalTime();
+            events.clear();
+            while (next < turns.length && turns[next] < frameStart + step) {
+                // Start press, then alternately release (fall) and press (climb)
+                events.add(Math.max(0f, turns[next] - frameStart), next % 2 == 0);
+                next++;
+            }
+            simulation.advance(step, events);
+            if (!reachedEnd && simulation.getSurvivalTime() >= replay.endTime) {
+                reachedEnd = true;
+                endScore = simulation.getScoreTime();
+                simulation.getNose(nose);
+                endX = simulation.worldX(nose.x);
+                endY = nose.y;
+            }
+        }
+
+        float time = simulation.getSurvivalTime();
+        float score = simulation.getScoreTime();
+        boolean crashed = simulation.isCrashed();
+        if (crashed && Math.abs(time - replay.endTime) > tolerance) {
+            return reject(String.format(Locale.US, "crashed at %.3f s, claimed %.3f s", time, replay.endTime),
+                    time, score);
+        }
+        FloatArray applied = simulation.getTurnTimes();
+        if (applied.size != turns.length) {
+            return reject(turns.length - applied.size + " recorded turns after the crash or ignored", time, score);
+        }
+        // Not crashed: the claimed crash grazed between two of our collision checks; hold the claim to where
+        // the wave was at that time instead
+        float comparedScore = crashed ? score : endScore;
+        float x = crashed ? simulation.worldX(simulation.getCrashPoint().x) : endX;
+        float y = crashed ? simulation.getCrashPoint().y : endY;
+        // The score is survival time plus corner bonuses; only the survival part may drift
+        if (Math.abs(comparedScore - replay.score) > tolerance) {
+            return reject(String.format(Locale.US, "score %.3f, claimed %.3f", comparedScore, replay.score), time,
+                    score);
+        }
+        if (!Float.isNaN(replay.crashX) && (Math.abs(x - replay.crashX) > WaveSimulation.HORIZONTAL_SPEED * tolerance
+                || Math.abs(y - replay.crashY) > WaveSimulation.VERTICAL_SPEED * tolerance)) {
+            return reject(String.format(Locale.US, "%s at (%.1f, %.1f), claimed crash at (%.1f, %.1f)",
+                    crashed ? "crashed" : "was", x, y, replay.crashX, replay.crashY), time, score);
+        }
+        return new Verdict(true, null, time, score);
+    }
+
+    /** Why the replay can't be a recording of a run at all, or null. */
+    private static String checkFormat(Replay replay) {
+        if (replay.difficulty < 0 || replay.difficulty >= Difficulty.values().length) {
+            return "unknown difficulty " + replay.difficulty;
+        }
+        if (replay.mode < 0 || replay.mode >= GameMode.values().length) {
+            return "unknown mode " + replay.mode;
+        }
+        if (!Float.isFinite(replay.endTime) || replay.endTime < 0 || !Float.isFinite(replay.score)) {
+            return "no valid crash time or score";
+        }
+        if (replay.turnTimes.length == Replay.MAX_TURNS) {
+            return "turns cut off at " + Replay.MAX_TURNS + "; the run can't be replayed to its end";
+        }
+        float previous = 0;
+        for (float t : replay.turnTimes) {
+            if (!(t >= previous) || t > replay.endTime) { // Also rejects NaN
+                return "turn times out of order or past the crash";
+            }
+            previous = t;
+        }
+        return null;
+    }
+
+    private static Verdict reject(String reason, float time, float score) {
+        return new Verdict(false, reason, time, score);
+    }
+}
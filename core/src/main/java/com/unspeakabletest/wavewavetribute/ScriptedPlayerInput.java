@@ -0,0 +1,53 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * {@link PlayerInput} that presses and releases the button on a script instead
+ * of reading the device, so benchmark runs feed every build the same input.
+ * <p>
+ * The script is a cyclic list of hold / release durations in seconds. Without
+ * one, durations are drawn from a seeded generator, which zigzags through the
+ * level, crashes now and then and also clicks through the game-over screen.
+ * Events are stamped at their exact scripted time, not at frame boundaries.
+ */
+public class ScriptedPlayerInput implements PlayerInput {
+    private final RandomXS128 random;
+    private final float[] pattern;
+    private int patternIndex = 0;
+
+    private boolean touched = false;
+    private float phaseTimer;
+
+    /**
+     * @param seed    Seed for the random durations (ignored if a pattern is given)
+     * @param pattern Alternating hold / release durations in seconds, or null
+     */
+    public ScriptedPlayerInput(long seed, float[] pattern) {
+        this.random = new RandomXS128(seed);
+        this.pattern = (pattern != null && pattern.length > 0) ? pattern : null;
+        this.phaseTimer = nextDuration();
+    }
+
+    private float nextDuration() {
+        if (pattern != null) {
+            float d = pattern[patternIndex];
+            patternIndex = (patternIndex + 1) % pattern.length;
+            return Math.max(d, 0.001f); // A zero entry would never advance the script
+        }
+        // Short taps and holds, roughly what a player does between obstacle columns.
+        return 0.05f + random.nextFloat() * 0.3f;
+    }
+
+    @Override
+    public void collect(float delta, TouchEvents events) {
+        float time = 0;
+        while (time + phaseTimer <= delta) {
+            time += phaseTimer;
+            touched = !touched;
+            events.add(time, touched);
+            phaseTimer = nextDuration();
+        }
+        phaseTimer -= delta - time;
+    }
+}
@@ -0,0 +1,127 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Everything {@link GameScreen} draws from one simulation step: the wave,
+ * its trail, the level's shear and the obstacle cells around the wave.
+ * Preallocated and overwritten in place by {@link #capture}; once handed to
+ * the renderer (see {@link SimulationThread}) it is only read.
+ * <p>
+ * Gameplay events are running counts, so a renderer that skips snapshots
+ * still sees every wave-mode start or bonus corner.
+ */
+public class SimulationSnapshot {
+    /** Most half columns of obstacle cells a snapshot holds: the window below on a 64 row grid. */
+    public static final int OCCUPANCY_COLUMNS = 2048;
+    private static final float OCCUPANCY_WIDTH = 6400f; // Copied per snapshot; covers a 4K-wide view
+    private static final float OCCUPANCY_BEHIND = 2400f; // Of which left of the wave
+
+    // Wave
+    public float playerX, playerY;
+    public float noseX, noseY;
+    public final float[] trailX = new float[WaveSimulation.MAX_TRAIL_POINTS];
+    public final float[] trailY = new float[WaveSimulation.MAX_TRAIL_POINTS];
+    public int trailSize;
+    public float wobbleAngle;
+    public boolean waveModeActive;
+    public boolean crashed;
+    public float crashX, crashY;
+    public float survivalTime;
+    public float scoreTime;
+
+    // Events so far this run
+    public int bonusCorners;
+    public int waveModeStarts;
+    public int waveModeEnds;
+
+    // Level
+    /** Half column at x = 0 and its world x ({@link LegacyLevelGenerator#rebase}). */
+    public int originColumn;
+    public double originX;
+    public float shearAngle;
+    /** Height the level's shear leaves in place. */
+    public float shearPivotY;
+    /** Half column of {@code occupancy[0]}. */
+    public int occupancyStart;
+    /** Half columns copied into {@code occupancy} (256 on the 9 row grid). */
+    public int occupancyColumns;
+    /** End of the last generated obstacle, relative to the origin. */
+    public float generatedEndX;
+    /** Obstacle rows per half column, as {@link LegacyLevelGenerator#getCells(int)}: moving ones in their pose of this step. */
+    public final long[] occupancy = new long[OCCUPANCY_COLUMNS];
+
+    private final Vector2 nose = new Vector2();
+
+    /** Copies the current state of {@code simulation} and its level. Event counts are left alone. */
+    public void capture(WaveSimulation simulation, LevelGenerator levelGenerator) {
+        Vector2 position = simulation.getPlayerPosition();
+        playerX = position.x;
+        playerY = position.y;
+        simulation.getNose(nose);
+        noseX = nose.x;
+        noseY = nose.y;
+
+        Array<Vector2> trail = simulation.getTrail();
+        int first = Math.max(0, trail.size - trailX.length);
+        trailSize = trail.size - first;
+        for (int i = 0; i < trailSize; i++) {
+            Vector2 point = trail.get(first + i);
+            trailX[i] = point.x;
+            trailY[i] = point.y;
+        }
+
+        wobbleAngle = simulation.getWobbleAngle();
+        waveModeActive = simulation.isWaveModeActive();
+        crashed = simulation.isCrashed();
+        crashX = simulation.getCrashPoint().x;
+        crashY = simulation.getCrashPoint().y;
+        survivalTime = simulation.getSurvivalTime();
+        scoreTime = simulation.getScoreTime();
+
+        captureLevel(levelGenerator);
+    }
+
+    /** Copies only the level part (shear, obstacle cells), around the wave's last captured position. */
+    public void captureLevel(LevelGenerator levelGenerator) {
+        if (!(levelGenerator instanceof LegacyLevelGenerator)) {
+            originColumn = 0;
+            originX = 0;
+            shearAngle = 0;
+            shearPivotY = playerY;
+            occupancyStart = 0;
+            occupancyColumns = 0;
+            generatedEndX = 0;
+            return;
+        }
+        LegacyLevelGenerator legacyGen = (LegacyLevelGenerator) levelGenerator;
+        originColumn = legacyGen.getOriginColumn();
+        originX = legacyGen.getOriginX();
+        shearAngle = legacyGen.getShearAngle();
+        shearPivotY = legacyGen.getShearPivotY();
+        generatedEndX = legacyGen.getLastObstacleEndX();
+
+        ObstacleLattice lattice = legacyGen.getLattice();
+        occupancyStart = lattice.columnAt(playerX) - (int) (OCCUPANCY_BEHIND / lattice.getHalfColumnWidth());
+        occupancyColumns = Math.min(OCCUPANCY_COLUMNS,
+                (int) Math.ceil(OCCUPANCY_WIDTH / lattice.getHalfColumnWidth()));
+        for (int i = 0; i < occupancyColumns; i++) {
+            occupancy[i] = legacyGen.getCells(occupancyStart + i);
+        }
+    }
+
+    /** Whether grid cell (col, row) is drawn as obstacle; columns outside the window are clear. */
+    public boolean isOccupied(int col, int row) {
+        return ((getOccupancy(col) >>> row) & 1) != 0;
+    }
+
+    /** Obstacle rows of half column {@code col}; bit j is row j. Columns outside the window are clear. */
+    public long getOccupancy(int col) {
+        int i = col - occupancyStart;
+        if (i < 0 || i >= occupancyColumns) {
+            return 0;
+        }
+        return occupancy[i];
+    }
+}
@@ -0,0 +1,187 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.math.Vector2;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Runs a {@link WaveSimulation} (and through it level generation and
+ * collision) on its own thread at a fixed {@link #TICK_RATE}, so the render
+ * thread only reads and draws.
+ * <p>
+ * The two threads share nothing but two lock-free hand-overs: input events
+ * go in through a single-producer ring, stamped with when they happened, and
+ * every tick publishes a {@link SimulationSnapshot} through a
+ * {@link TripleBuffer}. The thread stops by itself after a crash; once
+ * {@link #stop} returns, the caller owns the simulation and level again (the
+ * game-over effects run on the render thread).
+ * <p>
+ * Input still arrives on the render thread, so an event reaches the
+ * simulation up to one frame after it happened. It is applied at its own time
+ * if that tick hasn't run yet, else at the start of the next tick.
+ */
+public class SimulationThread implements WaveSimulation.Listener {
+    public static final int TICK_RATE = 240;
+    private static final long TICK_NANOS = 1_000_000_000L / TICK_RATE;
+    private static final long MAX_BEHIND_NANOS = 100_000_000L; // After a stall, skip ahead instead of racing
+    private static final long PAUSED_POLL_NANOS = 10_000_000L;
+    private static final int INPUT_CAPACITY = 256;
+
+    private final WaveSimulation simulation;
+    private final LevelGenerator levelGenerator;
+    private final TripleBuffer<SimulationSnapshot> snapshots = new TripleBuffer<>(new SimulationSnapshot(),
+            new SimulationSnapshot(), new SimulationSnapshot());
+    private final Thread thread;
+    private volatile boolean running = true;
+    private volatile boolean paused = false;
+
+    // Input from the render thread: single-producer, single-consumer ring
+    private final long[] inputTimes = new long[INPUT_CAPACITY];
+    private final boolean[] inputDowns = new boolean[INPUT_CAPACITY];
+    private final AtomicInteger inputHead = new AtomicInteger(); // Next to read (simulation thread)
+    private final AtomicInteger inputTail = new AtomicInteger(); // Next to write (render thread)
+    private final TouchEvents tickEvents = new TouchEvents();
+
+    // Event counts for the snapshots (simulation thread)
+    private int bonusCorners = 0;
+    private int waveModeStarts = 0;
+    private int waveModeEnds = 0;
+
+    public SimulationThread(LevelGenerator levelGenerator) {
+        this.levelGenerator = levelGenerator;
+        this.simulation = new WaveSimulation(levelGenerator, WaveSimulation.START_X, WaveSimulation.START_Y, this);
+        publish(); // The renderer has a state to draw before the first tick
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+    }
+
+    /** Only to be touched before {@link #start} and after {@link #stop}. */
+    public WaveSimulation getSimulation() {
+        return simulation;
+    }
+
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * Render thread: hands over the input of the frame that just ended.
+     * Times in {@code events} run from the frame's start to now.
+     */
+    public void submit(float delta, TouchEvents events) {
+        long frameEnd = System.nanoTime();
+        for (int i = 0; i < events.size(); i++) {
+            int tail = inputTail.get();
+            if (tail - inputHead.get() == INPUT_CAPACITY) {
+                return; // Simulation stalled; drop rather than overwrite unread events
+            }
+            int index = tail & (INPUT_CAPACITY - 1);
+            inputTimes[index] = frameEnd - (long) ((delta - events.getTime(i)) * 1e9);
+            inputDowns[index] = events.isDown(i);
+            inputTail.set(tail + 1); // Publishes the slot
+        }
+    }
+
+    /** Render thread: the most recently published state. */
+    public SimulationSnapshot latest() {
+        snapshots.update();
+        return snapshots.getFront();
+    }
+
+    /** Stops or resumes ticking; time spent paused is not simulated. */
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+        LockSupport.unpark(thread);
+    }
+
+    /** Stops the thread and waits for it to finish. */
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        if (thread.isAlive()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        long tickEnd = System.nanoTime() + TICK_NANOS;
+        while (running && !simulation.isCrashed()) {
+            if (paused) {
+                LockSupport.parkNanos(PAUSED_POLL_NANOS);
+                tickEnd = System.nanoTime() + TICK_NANOS;
+                continue;
+            }
+            long now = System.nanoTime();
+            if (now < tickEnd) {
+                LockSupport.parkNanos(tickEnd - now);
+                continue;
+            }
+            if (now - tickEnd > MAX_BEHIND_NANOS) {
+                tickEnd = now;
+            }
+            tick(tickEnd);
+            tickEnd += TICK_NANOS;
+        }
+    }
+
+    /** Simulates the tick that ends at {@code tickEnd} (System.nanoTime()). */
+    private void tick(long tickEnd) {
+        long tickStart = tickEnd - TICK_NANOS;
+        float delta = TICK_NANOS / 1e9f;
+
+        tickEvents.clear();
+        int head = inputHead.get();
+        int tail = inputTail.get();
+        while (head != tail) {
+            int index = head & (INPUT_CAPACITY - 1);
+            if (inputTimes[index] > tickEnd) {
+                break; // Belongs to a later tick
+            }
+            float t = Math.max(0, (inputTimes[index] - tickStart) / 1e9f);
+            tickEvents.add(t, inputDowns[index]);
+            head++;
+        }
+        inputHead.set(head);
+
+        simulation.advance(delta, tickEvents);
+        publish();
+    }
+
+    private void publish() {
+        SimulationSnapshot snapshot = snapshots.getBack();
+        snapshot.capture(simulation, levelGenerator);
+        snapshot.bonusCorners = bonusCorners;
+        snapshot.waveModeStarts = waveModeStarts;
+        snapshot.waveModeEnds = waveModeEnds;
+        snapshots.publish();
+    }
+
+    // --- SIMULATION EVENTS (simulation thread; the renderer picks them up from the counts) ---
+
+    @Override
+    public void onCorner(Vector2 corner, boolean bonus) {
+        if (bonus) {
+            bonusCorners++;
+        }
+    }
+
+    @Override
+    public void onWaveModeStart() {
+        waveModeStarts++;
+    }
+
+    @Override
+    public void onWaveModeEnd() {
+        waveModeEnds++;
+    }
+
+    @Override
+    public void onCrash(Vector2 crashPoint) {
+        // Published with the snapshot; the thread ends after this tick
+    }
+}
@@ -0,0 +1,376 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.ScreenAdapter;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.OrthographicCamera;
+import com.badlogic.gdx.math.Vector2;
+import com.unspeakabletest.wavewavetribute.history.Replay;
+import com.unspeakabletest.wavewavetribute.history.RunRecord;
+
+/**
+ * Two players racing the same seed on one device, player 1 in the top half
+ * of the window and player 2 in the bottom half.
+ * <p>
+ * There is one level: both waves' {@link WaveSimulation}s step the same
+ * {@link LegacyLevelGenerator}, so every obstacle is generated, and every
+ * cell's colors worked out, once. Each wave keeps its own camera, trail,
+ * combo and Wave Mode, and its own shear of the level
+ * ({@link LegacyLevelGenerator.Shear}), which collision depends on. The
+ * grid is drawn once per half, from that player's {@link SimulationSnapshot}.
+ * <p>
+ * A crashed player's half stays frozen on the crash (the snapshot keeps its
+ * own copy of the cells around it) while the other plays on. Once both have
+ * crashed the higher score wins, and a press from either player starts a new
+ * race. Both runs are saved to the run history and replays, as in
+ * {@link GameScreen}. Game rules run on the render thread here, whatever
+ * {@link MainGame#isSimulationThreaded()} says.
+ */
+public class SplitScreen extends ScreenAdapter {
+    private static final float LOOK_AHEAD = 1600f; // Each half is wider than the single-player view
+    private static final float ZOOM = 0.7f;
+    private static final float PLAYER_INSET = 150f; // From the wave to the left edge of its half
+    private static final float RESTART_DELAY = 0.5f; // So the crash tap itself doesn't restart
+
+    private final MainGame game;
+    private final SplitScreenInput input;
+    private final long runSeed;
+    private final LegacyLevelGenerator levelGenerator;
+    private final Player[] players = new Player[2];
+
+    private TriangleBatch triangleBatch;
+    private LatticeInstanceRenderer latticeRenderer; // Null without GL30
+    private com.badlogic.gdx.graphics.g2d.SpriteBatch batch;
+    private com.badlogic.gdx.graphics.g2d.BitmapFont font;
+    private OrthographicCamera uiCamera;
+
+    private boolean paused = false;
+    private float gameOverTimer = 0;
+    private boolean restartRequested = false;
+
+    // Trail ribbon vertices, two triangles per trail point; filled for one player at a time
+    private final float[] trailVertices = new float[WaveSimulation.MAX_TRAIL_POINTS * 2 * TriangleBatch.TRIANGLE_SIZE];
+
+    /** One wave, its half of the window and what it draws from. */
+    private final class Player implements WaveSimulation.Listener {
+        final int index;
+        final PlayerInput input;
+        final WaveSimulation simulation;
+        final SimulationSnapshot snapshot = new SimulationSnapshot();
+        final TouchEvents events = new TouchEvents();
+        final OrthographicCamera camera = new OrthographicCamera();
+        final com.badlogic.gdx.utils.viewport.ExtendViewport viewport;
+        float exitShakeTimer = 0;
+        float scoreScale = 1f;
+
+        Player(int index, PlayerInput input) {
+            this.index = index;
+            this.input = input;
+            this.simulation = new WaveSimulation(levelGenerator, WaveSimulation.START_X, WaveSimulation.START_Y,
+                    this);
+            // Half the window's height at the single-player scale, so the band still fits
+            this.viewport = new com.badlogic.gdx.utils.viewport.ExtendViewport(960, 480, 1920, 640, camera);
+            camera.zoom = ZOOM;
+        }
+
+        @Override
+        public void onCorner(Vector2 corner, boolean bonus) {
+            if (bonus) {
+                scoreScale = 1.5f; // Pop effect
+            }
+        }
+
+        @Override
+        public void onWaveModeStart() {
+            camera.rotate(5f); // Twist; the grid gets its wobble kick from the simulation
+        }
+
+        @Override
+        public void onWaveModeEnd() {
+            exitShakeTimer = 1.0f;
+        }
+
+        @Override
+        public void onCrash(Vector2 crashPoint) {
+            recordRun(this);
+        }
+    }
+
+    public SplitScreen(MainGame game, SplitScreenInput input) {
+        this.game = game;
+        this.input = input;
+        this.runSeed = GameManager.getInstance().nextRunSeed();
+        this.levelGenerator = new LegacyLevelGenerator(GameManager.getInstance().getDifficulty(), runSeed);
+        levelGenerator.setLookAhead(LOOK_AHEAD);
+        for (int i = 0; i < players.length; i++) {
+            players[i] = new Player(i, input.getPlayer(i));
+        }
+    }
+
+    @Override
+    public void show() {
+        triangleBatch = new TriangleBatch();
+        if (LatticeInstanceRenderer.isSupported()) {
+            latticeRenderer = new LatticeInstanceRenderer();
+            levelGenerator.setInstanceRenderer(latticeRenderer);
+        }
+        batch = new com.badlogic.gdx.graphics.g2d.SpriteBatch();
+        font = game.getHudFont();
+        uiCamera = new OrthographicCamera();
+        Gdx.graphics.setContinuousRendering(true);
+        resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        for (Player player : players) {
+            player.input.begin(player.simulation, levelGenerator);
+            player.snapshot.capture(player.simulation, levelGenerator);
+        }
+    }
+
+    @Override
+    public void render(float delta) {
+        if (input.consumePauseRequest()) {
+            paused = !paused;
+        }
+
+        // Each wave steps the shared level in turn and is captured right after, with its own shear bound
+        boolean anyPress = false;
+        for (Player player : players) {
+            player.events.clear();
+            player.input.collect(delta, player.events);
+            anyPress |= player.events.hasPress();
+            if (!paused && !player.simulation.isCrashed()) {
+                player.simulation.advance(delta, player.events);
+                player.snapshot.capture(player.simulation, levelGenerator);
+            }
+        }
+        if (paused) {
+            paused = !anyPress; // A tap resumes
+        } else if (players[0].simulation.isCrashed() && players[1].simulation.isCrashed()) {
+            gameOverTimer += delta;
+            restartRequested = gameOverTimer >= RESTART_DELAY && anyPress;
+        }
+
+        Gdx.gl.glClearColor(0, 0, 0, 1); // Bars, outside either half's aspect range
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        // The level clears its background; keep each half's clear to its own pixels
+        Gdx.gl.glEnable(GL20.GL_SCISSOR_TEST);
+        for (Player player : players) {
+            renderPlayer(player, paused ? 0 : delta);
+        }
+        Gdx.gl.glDisable(GL20.GL_SCISSOR_TEST);
+        levelGenerator.setView(null);
+
+        com.badlogic.gdx.graphics.glutils.HdpiUtils.glViewport(0, 0, Gdx.graphics.getWidth(),
+                Gdx.graphics.getHeight());
+        renderHud();
+
+        if (restartRequested) {
+            game.setScreen(new SplitScreen(game, input));
+            dispose(); // Game.setScreen only hides the old screen
+        }
+    }
+
+    /** Draws one player's half: the level as that wave sees it, then its trail and head. */
+    private void renderPlayer(Player player, float delta) {
+        SimulationSnapshot view = player.snapshot;
+        OrthographicCamera camera = player.camera;
+        com.badlogic.gdx.utils.viewport.ExtendViewport viewport = player.viewport;
+        viewport.apply();
+        com.badlogic.gdx.graphics.glutils.HdpiUtils.glScissor(viewport.getScreenX(), viewport.getScreenY(),
+                viewport.getScreenWidth(), viewport.getScreenHeight());
+
+        // Camera follow, unless frozen on the crash
+        if (!view.crashed) {
+            float visibleWidth = viewport.getWorldWidth() * camera.zoom;
+            camera.position.x = view.playerX + visibleWidth / 2 - PLAYER_INSET;
+            camera.position.y = view.playerY;
+
+            camera.up.set(0, 1, 0);
+            camera.direction.set(0, 0, -1);
+            camera.rotate(view.wobbleAngle);
+            camera.zoom = ZOOM - Math.abs(view.wobbleAngle) * 0.005f; // Zoom compensation, as in GameScreen
+            if (player.exitShakeTimer > 0) {
+                player.exitShakeTimer -= delta;
+                float intensity = 15f * player.exitShakeTimer;
+                camera.translate(com.badlogic.gdx.math.MathUtils.random(-intensity, intensity),
+                        com.badlogic.gdx.math.MathUtils.random(-intensity, intensity));
+            }
+            if (player.scoreScale > 1f) {
+                player.scoreScale = Math.max(1f, player.scoreScale - 5f * delta);
+            }
+        }
+        camera.update();
+
+        // The level draws from this player's snapshot: its shear, Wave Mode, origin and cells
+        levelGenerator.setView(view);
+        triangleBatch.setProjectionMatrix(camera.combined);
+        triangleBatch.begin();
+        levelGenerator.renderLevelMask(triangleBatch, camera);
+        levelGenerator.renderLevelBase(triangleBatch, camera);
+        levelGenerator.renderObstacles(triangleBatch, camera);
+        renderWave(view, camera.position.y);
+        triangleBatch.end();
+    }
+
+    /** Trail ribbon and head of the wave in {@code view}, sheared like the grid around {@code pivotY}. */
+    private void renderWave(SimulationSnapshot view, float pivotY) {
+        triangleBatch.setColor(levelGenerator.getObstacleColor()); // White in Wave Mode
+        float color = triangleBatch.getPackedColor();
+        float shearK = 0.055f * view.shearAngle;
+
+        // Same ribbon thickness as GameScreen's: the head's base, held vertical
+        float speed = new Vector2(WaveSimulation.HORIZONTAL_SPEED, WaveSimulation.VERTICAL_SPEED).len();
+        float verticalHalfWidth = WaveSimulation.LINE_WIDTH / (WaveSimulation.HORIZONTAL_SPEED / speed);
+
+        int v = 0;
+        for (int i = 0; i < view.trailSize; i++) {
+            float x1 = view.trailX[i] + (view.trailY[i] - pivotY) * shearK;
+            float y1 = view.trailY[i];
+            float x2, y2;
+            if (i + 1 < view.trailSize) {
+                x2 = view.trailX[i + 1] + (view.trailY[i + 1] - pivotY) * shearK;
+                y2 = view.trailY[i + 1];
+            } else {
+                // Last point to the wave
+                x2 = view.playerX + (view.playerY - pivotY) * shearK;
+                y2 = view.playerY;
+            }
+            v = putTrailVertex(v, x1, y1 + verticalHalfWidth, color);
+            v = putTrailVertex(v, x1, y1 - verticalHalfWidth, color);
+            v = putTrailVertex(v, x2, y2 + verticalHalfWidth, color);
+            v = putTrailVertex(v, x2, y2 + verticalHalfWidth, color);
+            v = putTrailVertex(v, x1, y1 - verticalHalfWidth, color);
+            v = putTrailVertex(v, x2, y2 - verticalHalfWidth, color);
+        }
+        triangleBatch.triangles(trailVertices, 0, v / TriangleBatch.TRIANGLE_SIZE);
+
+        triangleBatch.triangle(view.noseX, view.noseY, view.playerX, view.playerY + verticalHalfWidth,
+                view.playerX, view.playerY - verticalHalfWidth);
+    }
+
+    private int putTrailVertex(int v, float x, float y, float color) {
+        trailVertices[v] = x;
+        trailVertices[v + 1] = y;
+        trailVertices[v + 2] = color;
+        return v + TriangleBatch.VERTEX_SIZE;
+    }
+
+    /** Scores in each half's top right corner, crash and result banners, in window pixels. */
+    private void renderHud() {
+        float screenW = uiCamera.viewportWidth;
+        float halfH = uiCamera.viewportHeight / 2;
+        float margin = 16f;
+        boolean over = players[0].simulation.isCrashed() && players[1].simulation.isCrashed();
+        int winner = players[0].snapshot.scoreTime >= players[1].snapshot.scoreTime ? 0 : 1;
+
+        // Crashed halves are dimmed; the divider keeps the halves apart
+        triangleBatch.setProjectionMatrix(uiCamera.combined);
+        Gdx.gl.glEnable(GL20.GL_BLEND);
+        Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        triangleBatch.begin();
+        triangleBatch.setColor(0, 0, 0, 0.5f);
+        for (Player player : players) {
+            if (player.snapshot.crashed) {
+                float bottom = player.index == 0 ? halfH : 0;
+                triangleBatch.triangle(0, bottom, screenW, bottom, screenW, bottom + halfH);
+                triangleBatch.triangle(0, bottom, screenW, bottom + halfH, 0, bottom + halfH);
+            }
+        }
+        triangleBatch.flush();
+        Gdx.gl.glDisable(GL20.GL_BLEND);
+        triangleBatch.setColor(Color.BLACK);
+        triangleBatch.triangle(0, halfH - 2, screenW, halfH - 2, screenW, halfH + 2);
+        triangleBatch.triangle(0, halfH - 2, screenW, halfH + 2, 0, halfH + 2);
+        triangleBatch.end();
+
+        batch.setProjectionMatrix(uiCamera.combined);
+        batch.begin();
+        for (Player player : players) {
+            SimulationSnapshot view = player.snapshot;
+            float top = player.index == 0 ? halfH * 2 : halfH;
+            font.setColor(view.waveModeActive ? Color.BLACK : Color.WHITE);
+            font.getData().setScale(player.scoreScale);
+            String score = String.format(java.util.Locale.US, "%.3f", view.scoreTime);
+            com.badlogic.gdx.graphics.g2d.GlyphLayout layout = new com.badlogic.gdx.graphics.g2d.GlyphLayout(font,
+                    score);
+            font.draw(batch, layout, screenW - layout.width - margin, top - margin);
+            font.getData().setScale(1f);
+            font.draw(batch, "P" + (player.index + 1), margin, top - margin);
+
+            if (view.crashed) {
+                font.setColor(Color.WHITE);
+                font.getData().setScale(1.5f);
+                String banner = !over ? "CRASHED" : player.index == winner ? "WINS" : "";
+                if (paused) {
+                    banner = "PAUSED";
+                }
+                layout.setText(font, banner);
+                font.draw(batch, layout, (screenW - layout.width) / 2, top - (halfH - layout.height) / 2);
+            } else if (paused) {
+                font.getData().setScale(1.5f);
+                layout.setText(font, "PAUSED");
+                font.draw(batch, layout, (screenW - layout.width) / 2, top - (halfH - layout.height) / 2);
+            }
+        }
+        font.getData().setScale(1f);
+        font.setColor(Color.WHITE);
+        batch.end();
+    }
+
+    /** Queues a finished run for the run-history journal and the replays, as {@link GameScreen} does. */
+    private void recordRun(Player player) {
+        WaveSimulation simulation = player.simulation;
+        RunRecord record = new RunRecord();
+        record.timestampMillis = System.currentTimeMillis();
+        record.seed = runSeed;
+        record.difficulty = GameManager.getInstance().getDifficulty().ordinal();
+        record.mode = GameManager.getInstance().getGameMode().ordinal();
+        record.score = simulation.getScoreTime();
+        record.survivalTime = simulation.getSurvivalTime();
+        record.crashX = simulation.worldX(simulation.getCrashPoint().x);
+        record.crashY = simulation.getCrashPoint().y;
+        // Still this wave's collision: the crash is reported from inside its step
+        record.outerCollision = levelGenerator.wasLastCollisionOuter();
+        record.ceilingCollision = levelGenerator.wasLastCollisionCeiling();
+        game.getRunHistory().submit(record);
+
+        Replay replay = new Replay();
+        replay.seed = runSeed;
+        replay.difficulty = record.difficulty;
+        replay.mode = record.mode;
+        replay.score = record.score;
+        replay.endTime = record.survivalTime;
+        replay.crashX = record.crashX;
+        replay.crashY = record.crashY;
+        replay.movingObstacles = levelGenerator.hasMovingObstacles();
+        replay.turnTimes = simulation.getTurnTimes().toArray();
+        game.getReplayStore().submit(replay);
+    }
+
+    @Override
+    public void pause() {
+        paused = true; // App went to the background
+    }
+
+    @Override
+    public void resize(int width, int height) {
+        // Player 1 on top: each half fits its viewport in its own rectangle
+        int half = height / 2;
+        for (Player player : players) {
+            player.viewport.update(width, half);
+            if (player.index == 0) {
+                player.viewport.setScreenY(player.viewport.getScreenY() + (height - half));
+            }
+        }
+        uiCamera.setToOrtho(false, width, height);
+    }
+
+    @Override
+    public void dispose() {
+        triangleBatch.dispose();
+        if (latticeRenderer != null) {
+            latticeRenderer.dispose();
+        }
+        batch.dispose(); // The font is the game's
+    }
+}
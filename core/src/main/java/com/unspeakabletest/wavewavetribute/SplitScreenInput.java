@@ -0,0 +1,93 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+
+/**
+ * Input for {@link SplitScreen}: routes the platform's events to one
+ * {@link TouchEventQueue} per player, so each wave gets its own timestamped
+ * presses and releases.
+ * <p>
+ * Touches and clicks go to the player whose half of the window they start
+ * in (player 1 on top), and stay with that player until released even if
+ * the pointer wanders. On a keyboard player 1 holds W or Space and player 2
+ * the up arrow or Enter. Escape or P toggles pause.
+ */
+public class SplitScreenInput extends InputAdapter {
+    private static final int MAX_POINTERS = 20;
+
+    private final TouchEventQueue[] players = { new TouchEventQueue(), new TouchEventQueue() };
+    private final int[] pointerPlayer = new int[MAX_POINTERS]; // Player each pointer went down for
+    private boolean pauseRequested = false;
+
+    /** Presses and releases of player {@code index} (0 or 1). */
+    public PlayerInput getPlayer(int index) {
+        return players[index];
+    }
+
+    /** @return whether a player asked to pause (or unpause) since the last call; clears the request */
+    public boolean consumePauseRequest() {
+        boolean requested = pauseRequested;
+        pauseRequested = false;
+        return requested;
+    }
+
+    @Override
+    public boolean keyDown(int keycode) {
+        if (keycode == Input.Keys.ESCAPE || keycode == Input.Keys.P) {
+            pauseRequested = true;
+            return true;
+        }
+        int player = keyPlayer(keycode);
+        if (player < 0) {
+            return false;
+        }
+        // A held key counts like a finger on that player's half
+        players[player].touchDown(0, 0, -1, Input.Buttons.LEFT);
+        return true;
+    }
+
+    @Override
+    public boolean keyUp(int keycode) {
+        int player = keyPlayer(keycode);
+        if (player < 0) {
+            return false;
+        }
+        players[player].touchUp(0, 0, -1, Input.Buttons.LEFT);
+        return true;
+    }
+
+    private static int keyPlayer(int keycode) {
+        switch (keycode) {
+            case Input.Keys.W:
+            case Input.Keys.SPACE:
+                return 0;
+            case Input.Keys.UP:
+            case Input.Keys.ENTER:
+                return 1;
+            default:
+                return -1;
+        }
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        int player = screenY < Gdx.graphics.getHeight() / 2 ? 0 : 1; // Screen y runs down from the top
+        if (pointer >= 0 && pointer < MAX_POINTERS) {
+            pointerPlayer[pointer] = player;
+        }
+        return players[player].touchDown(screenX, screenY, pointer, button);
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        int player = pointer >= 0 && pointer < MAX_POINTERS ? pointerPlayer[pointer] : 0;
+        return players[player].touchUp(screenX, screenY, pointer, button);
+    }
+
+    @Override
+    public boolean touchCancelled(int screenX, int screenY, int pointer, int button) {
+        return touchUp(screenX, screenY, pointer, button);
+    }
+}
@@ -0,0 +1,141 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Broadphase for things that move along x: their extents kept sorted by
+ * left edge, so everything overlapping a range is found by a binary search
+ * and a short walk back (no further than the widest extent) instead of a
+ * pass over the whole list.
+ * <p>
+ * Movers update their extents in place every step ({@link #setBounds}) and
+ * {@link #sort} restores the order by insertion sort. Between two steps
+ * things move a few pixels, so the list is almost sorted already and that
+ * is one pass with a handful of swaps.
+ */
+public class SweepAndPrune<T> {
+    private final Array<T> items = new Array<>();
+    private float[] minX = new float[16];
+    private float[] maxX = new float[16];
+    private float widest = 0;
+
+    public int size() {
+        return items.size;
+    }
+
+    /** Item {@code i} in order of left edge (as of the last {@link #sort}). */
+    public T get(int i) {
+        return items.get(i);
+    }
+
+    public float getMinX(int i) {
+        return minX[i];
+    }
+
+    public float getMaxX(int i) {
+        return maxX[i];
+    }
+
+    /** Adds {@code item} at its place in the order. */
+    public void add(T item, float min, float max) {
+        int n = items.size;
+        if (n == minX.length) {
+            minX = java.util.Arrays.copyOf(minX, n * 2);
+            maxX = java.util.Arrays.copyOf(maxX, n * 2);
+        }
+        items.add(item);
+        minX[n] = min;
+        maxX[n] = max;
+        widest = Math.max(widest, max - min);
+        sortDown(n);
+    }
+
+    /** Moves item {@code i}; the order holds again after the next {@link #sort}. */
+    public void setBounds(int i, float min, float max) {
+        minX[i] = min;
+        maxX[i] = max;
+    }
+
+    /** Restores the order after {@link #setBounds}. */
+    public void sort() {
+        float wide = 0;
+        for (int i = 0; i < items.size; i++) {
+            wide = Math.max(wide, maxX[i] - minX[i]);
+            sortDown(i);
+        }
+        widest = wide;
+    }
+
+    /** Moves item {@code i} left past every item with a larger left edge. */
+    private void sortDown(int i) {
+        T item = items.get(i);
+        float min = minX[i];
+        float max = maxX[i];
+        int j = i;
+        while (j > 0 && minX[j - 1] > min) {
+            items.set(j, items.get(j - 1));
+            minX[j] = minX[j - 1];
+            maxX[j] = maxX[j - 1];
+            j--;
+        }
+        if (j != i) {
+            items.set(j, item);
+            minX[j] = min;
+            maxX[j] = max;
+        }
+    }
+
+    /** Adds every item whose extent overlaps [from, to] to {@code out}, left to right; returns how many. */
+    public int query(float from, float to, Array<T> out) {
+        int end = rangeEnd(to);
+        int found = 0;
+        for (int i = rangeStart(from, end); i < end; i++) {
+            if (maxX[i] >= from) {
+                out.add(items.get(i));
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /** Index of the first item whose left edge is right of {@code to}: items from here on start after it. */
+    public int rangeEnd(float to) {
+        int low = 0;
+        int high = items.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (minX[mid] <= to) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * First index before {@code end} whose item may still reach {@code from}:
+     * items before it start further left than the widest extent.
+     */
+    public int rangeStart(float from, int end) {
+        int start = end;
+        while (start > 0 && minX[start - 1] >= from - widest) {
+            start--;
+        }
+        return start;
+    }
+
+    /** Drops the items that end left of {@code x}. */
+    public void removeBefore(float x) {
+        int kept = 0;
+        for (int i = 0; i < items.size; i++) {
+            if (maxX[i] >= x) {
+                items.set(kept, items.get(i));
+                minX[kept] = minX[i];
+                maxX[kept] = maxX[i];
+                kept++;
+            }
+        }
+        items.truncate(kept);
+    }
+}
@@ -0,0 +1,101 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
+import com.badlogic.gdx.InputAdapter;
+
+/**
+ * {@link PlayerInput} fed by the platform's input events. Every press and
+ * release is stored with the backend's event timestamp as it is delivered, so
+ * a tap early in a frame is applied early in the simulation step, and two taps
+ * within one frame are both kept instead of being lost to per-frame polling.
+ * <p>
+ * How early depends on the backend's timestamps. Android stamps each touch
+ * when the system delivers it, so taps land at their place in the step. The
+ * LWJGL3 desktop backend stamps events when {@code glfwPollEvents} hands them
+ * over, once per frame before rendering, so on desktop every event of a frame
+ * lands at the end of the step, as with per-frame polling. Only keeping two
+ * taps in one frame applies there. The window system's own event times are
+ * not exposed through GLFW.
+ * <p>
+ * Any number of fingers counts as one button: it goes down with the first
+ * pointer and up with the last. Escape or P toggles pause.
+ */
+public class TouchEventQueue extends InputAdapter implements PlayerInput {
+    private static final int CAPACITY = 256;
+
+    // Ring buffer of pending events
+    private final long[] times = new long[CAPACITY];
+    private final boolean[] downs = new boolean[CAPACITY];
+    private int head = 0;
+    private int count = 0;
+
+    private int pointersDown = 0;
+    private boolean pauseRequested = false;
+
+    @Override
+    public boolean keyDown(int keycode) {
+        if (keycode == Input.Keys.ESCAPE || keycode == Input.Keys.P) {
+            pauseRequested = true;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public boolean consumePauseRequest() {
+        boolean requested = pauseRequested;
+        pauseRequested = false;
+        return requested;
+    }
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button) {
+        if (pointersDown++ == 0) {
+            push(true);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button) {
+        if (pointersDown > 0 && --pointersDown == 0) {
+            push(false);
+        }
+        return true;
+    }
+
+    @Override
+    public boolean touchCancelled(int screenX, int screenY, int pointer, int button) {
+        return touchUp(screenX, screenY, pointer, button);
+    }
+
+    private void push(boolean down) {
+        if (count == CAPACITY) {
+            return; // Nobody taps 256 times in a frame; drop rather than overwrite pending events
+        }
+        long time = Gdx.input.getCurrentEventTime();
+        if (time == 0) {
+            time = System.nanoTime();
+        }
+        int index = (head + count) % CAPACITY;
+        times[index] = time;
+        downs[index] = down;
+        count++;
+    }
+
+    @Override
+    public void collect(float delta, TouchEvents events) {
+        // Backends stamp events with System.nanoTime(); the frame being simulated ends now.
+        long frameEnd = System.nanoTime();
+        long frameStart = frameEnd - (long) (delta * 1e9);
+        while (count > 0) {
+            float t = (times[head] - frameStart) / 1e9f;
+            if (t < 0) t = 0; // Arrived during a hitch longer than the clamped delta
+            if (t > delta) t = delta;
+            events.add(t, downs[head]);
+            head = (head + 1) % CAPACITY;
+            count--;
+        }
+    }
+}
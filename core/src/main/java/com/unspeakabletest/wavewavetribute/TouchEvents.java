@@ -0,0 +1,47 @@
+package com.unspeakabletest.wavewavetribute;
+
+/**
+ * Button presses and releases of one frame, in order, each with its time
+ * offset into the frame. Preallocated and reused every frame.
+ */
+public class TouchEvents {
+    private float[] times = new float[16];
+    private boolean[] downs = new boolean[16];
+    private int size = 0;
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(float time, boolean down) {
+        if (size == times.length) {
+            times = java.util.Arrays.copyOf(times, size * 2);
+            downs = java.util.Arrays.copyOf(downs, size * 2);
+        }
+        times[size] = time;
+        downs[size] = down;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** @return seconds from the start of the frame */
+    public float getTime(int index) {
+        return times[index];
+    }
+
+    /** @return true for a press, false for a release */
+    public boolean isDown(int index) {
+        return downs[index];
+    }
+
+    /** @return true if the button went down at least once this frame */
+    public boolean hasPress() {
+        for (int i = 0; i < size; i++) {
+            if (downs[i]) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,220 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Matrix4;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Filled, flat colored triangles: what {@link com.badlogic.gdx.graphics.glutils.ShapeRenderer}
+ * in filled mode was used for (same calls, same shader, same color packing),
+ * without its 5000 vertex limit and per-vertex color handling.
+ * <p>
+ * Vertices are x, y and a packed color ({@link Color#toFloatBits()}), written
+ * straight into one array that grows to the largest span between
+ * {@link #begin} and {@link #end} seen so far, so a frame's grid goes out in
+ * one draw call even on a 64 row grid. Each flush re-specifies one of two
+ * vertex buffers in turn ({@code glBufferData} with no data, then the
+ * vertices), so the driver never has to wait for the GPU to finish reading
+ * the previous contents.
+ */
+public class TriangleBatch {
+    /** Floats per vertex: x, y, packed color. */
+    public static final int VERTEX_SIZE = 3;
+    /** Floats per triangle. */
+    public static final int TRIANGLE_SIZE = 3 * VERTEX_SIZE;
+    private static final int INITIAL_TRIANGLES = 4096;
+    private static final int MAX_TRIANGLES = 1 << 20; // Past this, flush instead of growing (36 MB of vertices)
+
+    // ShapeRenderer's default shader for colored vertices
+    private static final String VERTEX_SHADER = "attribute vec4 a_position;\n"
+            + "attribute vec4 a_color;\n"
+            + "uniform mat4 u_projModelView;\n"
+            + "varying vec4 v_col;\n"
+            + "void main() {\n"
+            + "    gl_Position = u_projModelView * a_position;\n"
+            + "    v_col = a_color;\n"
+            + "    v_col.a *= 255.0 / 254.0;\n" // Packed colors lose the alpha's lowest bit
+            + "}\n";
+    private static final String FRAGMENT_SHADER = "#ifdef GL_ES\n"
+            + "precision mediump float;\n"
+            + "#endif\n"
+            + "varying vec4 v_col;\n"
+            + "void main() {\n"
+            + "    gl_FragColor = v_col;\n"
+            + "}\n";
+
+    private final ShaderProgram shader;
+    private final int positionLocation;
+    private final int colorLocation;
+    private final int[] buffers = new int[2];
+    private int nextBuffer = 0;
+
+    private float[] vertices;
+    private FloatBuffer upload; // Direct copy of the vertices for glBufferSubData
+    private int used = 0; // Floats written since the last flush
+
+    private final Matrix4 projection = new Matrix4();
+    private float color = Color.WHITE_FLOAT_BITS;
+    private boolean drawing = false;
+
+    public TriangleBatch() {
+        shader = new ShaderProgram(VERTEX_SHADER, FRAGMENT_SHADER);
+        if (!shader.isCompiled()) {
+            throw new IllegalStateException("Triangle shader: " + shader.getLog());
+        }
+        positionLocation = shader.getAttributeLocation(ShaderProgram.POSITION_ATTRIBUTE);
+        colorLocation = shader.getAttributeLocation(ShaderProgram.COLOR_ATTRIBUTE);
+        buffers[0] = Gdx.gl.glGenBuffer();
+        buffers[1] = Gdx.gl.glGenBuffer();
+        allocate(INITIAL_TRIANGLES * TRIANGLE_SIZE);
+    }
+
+    private void allocate(int floats) {
+        float[] grown = new float[floats];
+        if (vertices != null) {
+            System.arraycopy(vertices, 0, grown, 0, used);
+        }
+        vertices = grown;
+        upload = BufferUtils.newFloatBuffer(floats);
+    }
+
+    public void setProjectionMatrix(Matrix4 matrix) {
+        projection.set(matrix);
+        if (drawing) {
+            flush();
+            shader.setUniformMatrix("u_projModelView", projection);
+        }
+    }
+
+    public Matrix4 getProjectionMatrix() {
+        return projection;
+    }
+
+    public void begin() {
+        if (drawing) {
+            throw new IllegalStateException("TriangleBatch.end must be called before begin.");
+        }
+        drawing = true;
+        shader.bind();
+        shader.setUniformMatrix("u_projModelView", projection);
+    }
+
+    public void end() {
+        if (!drawing) {
+            throw new IllegalStateException("TriangleBatch.begin must be called before end.");
+        }
+        flush();
+        drawing = false;
+    }
+
+    public boolean isDrawing() {
+        return drawing;
+    }
+
+    /** Color of the triangles added from now on by the calls without one. */
+    public void setColor(Color color) {
+        this.color = color.toFloatBits();
+    }
+
+    public void setColor(float r, float g, float b, float a) {
+        this.color = Color.toFloatBits(r, g, b, a);
+    }
+
+    /** @param packedColor a {@link Color#toFloatBits()} value */
+    public void setPackedColor(float packedColor) {
+        this.color = packedColor;
+    }
+
+    public float getPackedColor() {
+        return color;
+    }
+
+    public void triangle(float x1, float y1, float x2, float y2, float x3, float y3) {
+        triangle(x1, y1, x2, y2, x3, y3, color);
+    }
+
+    /** One triangle in {@code packedColor} ({@link Color#toFloatBits()}), leaving the current color alone. */
+    public void triangle(float x1, float y1, float x2, float y2, float x3, float y3, float packedColor) {
+        if (used + TRIANGLE_SIZE > vertices.length) {
+            makeRoom(TRIANGLE_SIZE);
+        }
+        float[] v = vertices;
+        int i = used;
+        v[i] = x1;
+        v[i + 1] = y1;
+        v[i + 2] = packedColor;
+        v[i + 3] = x2;
+        v[i + 4] = y2;
+        v[i + 5] = packedColor;
+        v[i + 6] = x3;
+        v[i + 7] = y3;
+        v[i + 8] = packedColor;
+        used = i + TRIANGLE_SIZE;
+    }
+
+    /**
+     * Adds {@code count} whole triangles laid out as this batch's vertices
+     * (x, y, packed color per vertex), starting at {@code offset}.
+     */
+    public void triangles(float[] span, int offset, int count) {
+        int floats = count * TRIANGLE_SIZE;
+        while (floats > 0) {
+            if (used + floats > vertices.length) {
+                makeRoom(floats);
+            }
+            int part = Math.min(floats, vertices.length - used);
+            System.arraycopy(span, offset, vertices, used, part);
+            used += part;
+            offset += part;
+            floats -= part;
+        }
+    }
+
+    /** Grows the array to fit {@code floats} more, or flushes once it is as big as it gets. */
+    private void makeRoom(int floats) {
+        int needed = used + floats;
+        if (needed <= MAX_TRIANGLES * TRIANGLE_SIZE) {
+            allocate(MathUtils.nextPowerOfTwo(needed / TRIANGLE_SIZE) * TRIANGLE_SIZE);
+        } else {
+            flush();
+        }
+    }
+
+    /** Draws the triangles added so far. */
+    public void flush() {
+        if (used == 0) {
+            return;
+        }
+        GL20 gl = Gdx.gl;
+        upload.clear();
+        BufferUtils.copy(vertices, upload, used, 0);
+
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, buffers[nextBuffer]);
+        nextBuffer ^= 1;
+        gl.glBufferData(GL20.GL_ARRAY_BUFFER, used * 4, null, GL20.GL_STREAM_DRAW); // Orphan the old contents
+        gl.glBufferSubData(GL20.GL_ARRAY_BUFFER, 0, used * 4, upload);
+
+        int stride = VERTEX_SIZE * 4;
+        gl.glEnableVertexAttribArray(positionLocation);
+        gl.glVertexAttribPointer(positionLocation, 2, GL20.GL_FLOAT, false, stride, 0);
+        gl.glEnableVertexAttribArray(colorLocation);
+        gl.glVertexAttribPointer(colorLocation, 4, GL20.GL_UNSIGNED_BYTE, true, stride, 8);
+        gl.glDrawArrays(GL20.GL_TRIANGLES, 0, used / VERTEX_SIZE);
+        gl.glDisableVertexAttribArray(positionLocation);
+        gl.glDisableVertexAttribArray(colorLocation);
+        gl.glBindBuffer(GL20.GL_ARRAY_BUFFER, 0);
+        used = 0;
+    }
+
+    public void dispose() {
+        shader.dispose();
+        Gdx.gl.glDeleteBuffer(buffers[0]);
+        Gdx.gl.glDeleteBuffer(buffers[1]);
+    }
+}
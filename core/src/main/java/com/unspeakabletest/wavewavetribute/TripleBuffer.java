@@ -0,0 +1,55 @@
+package com.unspeakabletest.wavewavetribute;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Lock-free hand-over of the latest state from one producer thread to one
+ * consumer thread. Three preallocated buffers: the producer fills its back
+ * buffer and swaps it with the middle one; the consumer swaps its front buffer
+ * with the middle one whenever a newer state has arrived. Neither side ever
+ * waits, and each only touches the buffer it currently owns.
+ */
+public class TripleBuffer<T> {
+    private static final int FRESH = 4; // Middle holds a state the consumer hasn't taken
+    private static final int INDEX = 3;
+
+    private final Object[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0; // Producer's
+    private int front = 2; // Consumer's
+
+    public TripleBuffer(T first, T second, T third) {
+        buffers = new Object[] { first, second, third };
+    }
+
+    /** Producer: the buffer to write the next state into. */
+    @SuppressWarnings("unchecked")
+    public T getBack() {
+        return (T) buffers[back];
+    }
+
+    /** Producer: makes the back buffer the latest state and takes over an older one. */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * Consumer: switches to the latest published state, if there is a newer
+     * one than the current front buffer.
+     *
+     * @return whether the front buffer changed
+     */
+    public boolean update() {
+        if ((middle.get() & FRESH) == 0) {
+            return false;
+        }
+        front = middle.getAndSet(front) & INDEX;
+        return true;
+    }
+
+    /** Consumer: the state being read. */
+    @SuppressWarnings("unchecked")
+    public T getFront() {
+        return (T) buffers[front];
+    }
+}
@@ -0,0 +1,373 @@
+package com.unspeakabletest.wavewavetribute;
+
+import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.FloatArray;
+import com.unspeakabletest.wavewavetribute.history.EventLog;
+
+/**
+ * Game rules of one wave: movement, trail corners, click combo / Wave Mode,
+ * timers, wobble shear and collision. Holds no rendering state, so
+ * {@link GameScreen} draws from it and other drivers (benchmarks, replays) can
+ * step it on their own.
+ * <p>
+ * Input is applied at the time it happened: {@link #advance} splits the frame
+ * at each press / release, moves the wave up to that instant, places the trail
+ * corner there and only then changes direction. Corner accuracy and combo
+ * timing therefore don't depend on the frame rate.
+ * <p>
+ * Positions are relative to the level's floating origin
+ * ({@link LegacyLevelGenerator#rebase}): once the wave passes
+ * {@link LegacyLevelGenerator#REBASE_DISTANCE} the origin jumps to it and the
+ * wave and trail move back by the same amount. {@link #getOriginX()} gives
+ * the world position of x = 0. Several waves can share one level
+ * ({@link SplitScreen}): each keeps its own shear in the level
+ * ({@link LegacyLevelGenerator.Shear}) and follows the origin whichever of
+ * them moved it.
+ * <p>
+ * Clocks and the wave's position add up in double: in float, each step's
+ * rounding (a few ulps of a number that keeps growing) adds up to a
+ * different path for a different step length within a few minutes, and a
+ * replay of the run ({@link ReplayVerifier}) would no longer follow it.
+ */
+public class WaveSimulation {
+
+    /** Gameplay events, for effects and logging. Called on the simulating thread. */
+    public interface Listener {
+        /**
+         * The wave changed direction at {@code corner}.
+         *
+         * @param bonus whether Wave Mode was on, so the corner scored a bonus
+         */
+        void onCorner(Vector2 corner, boolean bonus);
+
+        void onWaveModeStart();
+
+        void onWaveModeEnd();
+
+        /** The nose hit an obstacle at {@code crashPoint}. */
+        void onCrash(Vector2 crashPoint);
+    }
+
+    // Movement
+    public static final float VERTICAL_SPEED = 400f; // Pixels per second
+    public static final float HORIZONTAL_SPEED = 300f; // Pixels per second
+    public static final float LINE_WIDTH = 5f; // Half thickness of the trail ribbon
+    public static final float START_X = 100f; // Where a run starts, at mid height
+    public static final float START_Y = 240f;
+    public static final float INPUT_DELAY = 0.01f; // Ignore input briefly so the restart click doesn't start the run
+    private static final float CAMERA_LEAD_X = 200f; // Camera sits this far ahead of the wave
+
+    private final LevelGenerator levelGenerator;
+    private final Listener listener;
+    private EventLog eventLog; // Null: events aren't logged
+
+    // Player
+    private final Vector2 playerPosition; // (playerX, playerY) rounded, for everything that reads it
+    private double playerX, playerY;
+    private double originX = 0; // World x of x = 0, moved by rebasing
+    private int levelOriginColumn; // The level's origin this wave's positions are relative to
+    private final LegacyLevelGenerator.Shear shear = new LegacyLevelGenerator.Shear();
+    private int currentDirection = 1; // 1 for up, -1 for down
+    private boolean hasStarted = false;
+    private float inputDelayTimer = INPUT_DELAY;
+    private boolean crashed = false;
+    private final Vector2 crashPoint = new Vector2();
+    private final Vector2 nose = new Vector2();
+    private final Vector2 noseFrom = new Vector2(); // Where the nose was a step ago
+
+    // Trail
+    private final Array<Vector2> trail = new Array<>();
+    private float timeSinceLastTrailPoint = 0;
+    private final float trailInterval = 0.05f; // Add a point every 0.05 seconds
+    public static final int MAX_TRAIL_POINTS = 50;
+
+    // Replay: run time of the start press and of every later change of direction.
+    // Movement is fixed otherwise, so these alone retrace the whole path (ghosts).
+    private final FloatArray turnTimes = new FloatArray();
+
+    // Wobble (drives the geometric shear, which collision also uses)
+    private double wobbleTimer = 0;
+    private static final float MAX_WOBBLE_ANGLE = 3f;
+
+    // Timers
+    private double survivalTime = 0;
+    private double scoreTime = 0;
+
+    // Wave Mode
+    private boolean waveModeActive = false;
+    private float waveModeTimer = 0;
+    private int clickComboCount = 0;
+    private double lastClickTime = 0;
+    private final float waveModeDuration = 7.0f;
+    private final float comboTimeWindow = 0.2f; // Reset combo if > 0.2s between clicks
+    private final float scoreBonus = 0.25f; // Bonus per zigzag in Wave Mode
+    private static final int COMBO_CLICKS = 16;
+
+    public WaveSimulation(LevelGenerator levelGenerator, float startX, float startY, Listener listener) {
+        this.levelGenerator = levelGenerator;
+        this.listener = listener;
+        this.playerPosition = new Vector2(startX, startY);
+        this.playerX = startX;
+        this.playerY = startY;
+        trail.add(new Vector2(playerPosition));
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            levelOriginColumn = ((LegacyLevelGenerator) levelGenerator).getOriginColumn();
+        }
+    }
+
+    /** Logs corners, combo steps, Wave Mode and the crash to {@code eventLog} from now on; null stops it. */
+    public void setEventLog(EventLog eventLog) {
+        this.eventLog = eventLog;
+    }
+
+    /**
+     * Runs one frame of game rules, applying each input event at its own time.
+     *
+     * @param delta  Frame length in seconds
+     * @param events Presses / releases of this frame, times within [0, delta]
+     */
+    public void advance(float delta, TouchEvents events) {
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            ((LegacyLevelGenerator) levelGenerator).setShear(shear);
+        }
+        float time = 0;
+        for (int i = 0; i < events.size() && !crashed; i++) {
+            float eventTime = Math.min(Math.max(events.getTime(i), time), delta);
+            step(eventTime - time);
+            time = eventTime;
+            if (!crashed) {
+                applyButton(events.isDown(i));
+            }
+        }
+        step(delta - time);
+    }
+
+    private void applyButton(boolean down) {
+        if (!hasStarted) {
+            // First press starts the run, going up
+            if (down && inputDelayTimer <= 0) {
+                hasStarted = true;
+                currentDirection = 1;
+                addTrailPoint(new Vector2(playerPosition)); // Corner where we started going up
+                turnTimes.add((float) survivalTime);
+            }
+            return;
+        }
+
+        int targetDirection = down ? 1 : -1; // Held = up, released = falling
+        if (targetDirection == currentDirection) {
+            return;
+        }
+        Vector2 corner = new Vector2(playerPosition);
+        addTrailPoint(corner);
+        currentDirection = targetDirection;
+        turnTimes.add((float) survivalTime);
+
+        boolean bonus = waveModeActive;
+        if (bonus) {
+            scoreTime += scoreBonus;
+        } else {
+            // Combo Check: every zigzag within the window counts
+            double timeSinceClick = survivalTime - lastClickTime;
+            if (timeSinceClick <= comboTimeWindow) {
+                clickComboCount++;
+            } else {
+                clickComboCount = 1; // Reset or Start new
+            }
+            lastClickTime = survivalTime;
+            if (eventLog != null) {
+                eventLog.log(EventLog.COMBO, 0, (float) survivalTime, worldX(corner.x), corner.y, clickComboCount, 0);
+            }
+
+            if (clickComboCount >= COMBO_CLICKS) {
+                waveModeActive = true;
+                waveModeTimer = waveModeDuration;
+                clickComboCount = 0;
+                if (levelGenerator instanceof LegacyLevelGenerator) {
+                    ((LegacyLevelGenerator) levelGenerator).setWobbleAngle(10f); // Massive wobble kick
+                }
+                if (eventLog != null) {
+                    eventLog.log(EventLog.WAVE_MODE_START, (float) survivalTime);
+                }
+                listener.onWaveModeStart();
+            }
+        }
+        if (eventLog != null) {
+            eventLog.log(EventLog.CORNER, bonus ? 1 : 0, (float) survivalTime, worldX(corner.x), corner.y, 0, 0);
+        }
+        listener.onCorner(corner, bonus);
+    }
+
+    private void step(float dt) {
+        if (crashed) {
+            return;
+        }
+        if (inputDelayTimer > 0) {
+            inputDelayTimer -= dt;
+        }
+
+        if (hasStarted) {
+            playerY += (double) VERTICAL_SPEED * currentDirection * dt;
+        }
+        playerX += (double) HORIZONTAL_SPEED * dt; // Wave always moves forward
+        playerPosition.set((float) playerX, (float) playerY);
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            LegacyLevelGenerator legacyGen = (LegacyLevelGenerator) levelGenerator;
+            followOrigin(legacyGen); // Another wave on the same level may have moved it since our last step
+            if (playerPosition.x > LegacyLevelGenerator.REBASE_DISTANCE) {
+                legacyGen.rebase(playerPosition.x);
+                followOrigin(legacyGen);
+            }
+        }
+
+        timeSinceLastTrailPoint += dt;
+        if (timeSinceLastTrailPoint >= trailInterval) {
+            addTrailPoint(new Vector2(playerPosition));
+            timeSinceLastTrailPoint = 0;
+        }
+
+        wobbleTimer += dt;
+
+        // Level: generation ahead of the camera and the shear that collision uses
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            LegacyLevelGenerator legacyGen = (LegacyLevelGenerator) levelGenerator;
+            legacyGen.setWaveMode(waveModeActive);
+            legacyGen.update(dt, playerPosition.x + CAMERA_LEAD_X, playerPosition.y);
+            legacyGen.setWobbleAngle(getWobbleAngle());
+        } else {
+            levelGenerator.update(dt, playerPosition.x + CAMERA_LEAD_X);
+        }
+
+        survivalTime += dt;
+        scoreTime += dt;
+        if (waveModeActive) {
+            waveModeTimer -= dt;
+            if (waveModeTimer <= 0) {
+                waveModeActive = false;
+                if (eventLog != null) {
+                    eventLog.log(EventLog.WAVE_MODE_END, (float) survivalTime);
+                }
+                listener.onWaveModeEnd();
+            }
+        }
+
+        // Collision using the NOSE (tip) position for instant impact feel
+        getNose(nose);
+        boolean hit;
+        if (levelGenerator instanceof LegacyLevelGenerator) {
+            // Also swept along the nose's path this step, for polygon obstacles thinner than a step
+            noseFrom.set(nose).sub(HORIZONTAL_SPEED * dt, hasStarted ? VERTICAL_SPEED * currentDirection * dt : 0);
+            hit = ((LegacyLevelGenerator) levelGenerator).checkCollision(noseFrom, nose);
+        } else {
+            hit = levelGenerator.checkCollision(nose);
+        }
+        if (hit) {
+            crashed = true;
+            crashPoint.set(nose);
+            if (eventLog != null) {
+                eventLog.log(EventLog.CRASH, 0, (float) survivalTime, worldX(nose.x), nose.y, 0,
+                        Float.floatToIntBits((float) scoreTime));
+            }
+            listener.onCrash(crashPoint);
+        }
+    }
+
+    /** Catches up with wherever the level's origin has moved since this wave last looked. */
+    private void followOrigin(LegacyLevelGenerator legacyGen) {
+        int originColumn = legacyGen.getOriginColumn();
+        if (originColumn != levelOriginColumn) {
+            rebase((originColumn - levelOriginColumn) * legacyGen.getLattice().getHalfColumnWidth());
+            levelOriginColumn = originColumn;
+        }
+    }
+
+    /** Moves everything kept in level coordinates {@code shift} to the left, with the level's origin. */
+    private void rebase(float shift) {
+        originX += shift;
+        playerX -= shift;
+        playerPosition.x = (float) playerX;
+        for (Vector2 point : trail) {
+            point.x -= shift;
+        }
+    }
+
+    private void addTrailPoint(Vector2 point) {
+        trail.add(point);
+        // Corners count too, or every turn would make the trail one point longer for good
+        while (trail.size > MAX_TRAIL_POINTS) {
+            trail.removeIndex(0);
+        }
+    }
+
+    /** Writes the tip of the head triangle, projected along the velocity, into {@code out}. */
+    public Vector2 getNose(Vector2 out) {
+        if (!hasStarted) {
+            out.set(HORIZONTAL_SPEED, 0); // Flat velocity
+        } else {
+            out.set(HORIZONTAL_SPEED, VERTICAL_SPEED * currentDirection);
+        }
+        // Head length 2.5x line width, so it is less pointy
+        return out.nor().scl(LINE_WIDTH * 2.5f).add(playerPosition);
+    }
+
+    public float getWobbleAngle() {
+        if (crashed)
+            return 0;
+        return (float) Math.sin(wobbleTimer * (Math.PI * 2 / 3.0f)) * MAX_WOBBLE_ANGLE;
+    }
+
+    /** World x of x = 0: add it to any position here for one that doesn't depend on rebasing. */
+    public double getOriginX() {
+        return originX;
+    }
+
+    /** {@code x} in world coordinates, as logged. */
+    public float worldX(float x) {
+        return (float) (originX + x);
+    }
+
+    public Vector2 getPlayerPosition() {
+        return playerPosition;
+    }
+
+    public Array<Vector2> getTrail() {
+        return trail;
+    }
+
+    public int getDirection() {
+        return currentDirection;
+    }
+
+    public boolean hasStarted() {
+        return hasStarted;
+    }
+
+    public boolean isCrashed() {
+        return crashed;
+    }
+
+    public Vector2 getCrashPoint() {
+        return crashPoint;
+    }
+
+    /**
+     * Run times ({@link #getSurvivalTime()} clock) at which the wave started
+     * climbing and then alternately fell and climbed again.
+     */
+    public FloatArray getTurnTimes() {
+        return turnTimes;
+    }
+
+    public boolean isWaveModeActive() {
+        return waveModeActive;
+    }
+
+    public float getSurvivalTime() {
+        return (float) survivalTime;
+    }
+
+    public float getScoreTime() {
+        return (float) scoreTime;
+    }
+}
@@ -0,0 +1,136 @@
+package com.unspeakabletest.wavewavetribute.capture;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Records every frame the game shows, without making the render loop wait
+ * for the GPU. Reading the back buffer straight into memory
+ * ({@code glReadPixels} on the frame just drawn) stalls until the GPU has
+ * finished that frame, every frame.
+ * <p>
+ * Instead, the end of each frame copies the back buffer into the next of
+ * {@link #SLOTS} textures, which the GPU queues like any other drawing. The
+ * copy is read into memory {@link #SLOTS} frames later, at the start of a
+ * frame, when it has long been done and nothing new has been queued yet.
+ * The pixels then go to a {@link FrameEncoder} which writes them on its own
+ * threads.
+ * <p>
+ * The libGDX GL interface has no way to read into a pixel pack buffer (its
+ * {@code glReadPixels} always takes client memory), so this texture ring is
+ * the asynchronous readback both GLES 2.0 and GL 3 contexts get.
+ */
+public class FrameCapture {
+    /** How frames are written out. */
+    public enum Format {
+        /** One numbered PNG per frame. */
+        PNG,
+        /** Raw RGBA frames appended to one file, for ffmpeg. */
+        RAW
+    }
+
+    private static final String TAG = "FrameCapture";
+    /** Frames between a copy and its readback. */
+    public static final int SLOTS = 3;
+
+    private final FrameEncoder encoder;
+    private final FrameBuffer[] ring = new FrameBuffer[SLOTS];
+    private final long[] ringFrame = new long[SLOTS]; // Frame number each slot holds, -1 once read
+    private int next = 0; // Slot the next copy goes to, which also holds the oldest frame
+    private int width, height;
+    private long frames = 0;
+
+    /**
+     * @param directory where frames are written; created if needed
+     * @param threads   PNG encoder threads ({@link Format#RAW} always uses one writer)
+     */
+    public FrameCapture(File directory, Format format, int threads) {
+        encoder = new FrameEncoder(directory, format, threads);
+        Arrays.fill(ringFrame, -1);
+        Gdx.app.log(TAG, "Capturing frames to " + directory.getAbsolutePath() + " as " + format);
+    }
+
+    /** Call at the start of the frame, before anything is drawn: reads back the oldest copied frame. */
+    public void beginFrame() {
+        if (ringFrame[next] >= 0) {
+            read(next);
+        }
+    }
+
+    /** Call after the frame is drawn to the back buffer, before it is swapped: queues its copy. */
+    public void endFrame() {
+        int w = Gdx.graphics.getBackBufferWidth();
+        int h = Gdx.graphics.getBackBufferHeight();
+        if (w <= 0 || h <= 0) {
+            return; // Minimized
+        }
+        if (w != width || h != height) {
+            flushRing();
+            resize(w, h);
+        }
+
+        FrameBuffer.unbind();
+        ring[next].getColorBufferTexture().bind();
+        Gdx.gl.glCopyTexSubImage2D(GL20.GL_TEXTURE_2D, 0, 0, 0, 0, 0, w, h);
+        Gdx.gl.glBindTexture(GL20.GL_TEXTURE_2D, 0);
+        ringFrame[next] = frames++;
+        next = (next + 1) % SLOTS;
+    }
+
+    private void resize(int w, int h) {
+        disposeRing();
+        width = w;
+        height = h;
+        for (int i = 0; i < SLOTS; i++) {
+            ring[i] = new FrameBuffer(Pixmap.Format.RGBA8888, w, h, false);
+        }
+        encoder.resize(w * h * 4);
+    }
+
+    /** Reads slot {@code i} into a pooled buffer and hands it to the encoder. */
+    private void read(int i) {
+        long frame = ringFrame[i];
+        ringFrame[i] = -1;
+        ByteBuffer pixels = encoder.obtain();
+        if (pixels == null) {
+            return; // Encoders behind; counted as dropped
+        }
+        ring[i].bind();
+        Gdx.gl.glPixelStorei(GL20.GL_PACK_ALIGNMENT, 1);
+        Gdx.gl.glReadPixels(0, 0, width, height, GL20.GL_RGBA, GL20.GL_UNSIGNED_BYTE, pixels);
+        FrameBuffer.unbind();
+        encoder.submit(pixels, frame, width, height);
+    }
+
+    /** Reads back every frame still in the ring, oldest first. */
+    private void flushRing() {
+        for (int k = 0; k < SLOTS; k++) {
+            int i = (next + k) % SLOTS;
+            if (ringFrame[i] >= 0) {
+                read(i);
+            }
+        }
+    }
+
+    private void disposeRing() {
+        for (int i = 0; i < SLOTS; i++) {
+            if (ring[i] != null) {
+                ring[i].dispose();
+                ring[i] = null;
+            }
+        }
+    }
+
+    /** Writes out the frames still in flight and stops the encoders. */
+    public void dispose() {
+        flushRing();
+        disposeRing();
+        encoder.finish();
+    }
+}
@@ -0,0 +1,195 @@
+package com.unspeakabletest.wavewavetribute.capture;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.PixmapIO;
+import com.badlogic.gdx.utils.BufferUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.Deflater;
+
+/**
+ * Writes captured frames on worker threads, so the render thread only copies
+ * pixels into a pooled buffer and hands it over. Frames come in as read back
+ * by GL: RGBA, bottom row first, alpha whatever blending left there.
+ * <p>
+ * {@link FrameCapture.Format#PNG} encodes one numbered PNG per frame, several
+ * at a time. {@link FrameCapture.Format#RAW} appends frames in order to one
+ * raw RGBA file per window size, for {@code ffmpeg -f rawvideo}. Frames that
+ * arrive while every buffer is still queued for encoding are dropped and
+ * counted; nothing ever waits for the encoders.
+ */
+class FrameEncoder {
+    private static final String TAG = "FrameCapture";
+    private static final int POOL = 6; // Frames in flight between readback and disk
+
+    private final File directory;
+    private final FrameCapture.Format format;
+    private final ExecutorService workers;
+
+    private final ArrayBlockingQueue<ByteBuffer> pool = new ArrayBlockingQueue<>(POOL);
+    private volatile int frameBytes = 0;
+
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    // PNG: one encoder and one pixmap per worker
+    private final ThreadLocal<PixmapIO.PNG> pngs = ThreadLocal.withInitial(() -> {
+        PixmapIO.PNG png = new PixmapIO.PNG();
+        png.setFlipY(true); // GL rows are bottom-up
+        png.setCompression(Deflater.BEST_SPEED); // Keeping up matters more than file size
+        return png;
+    });
+    private final ThreadLocal<Pixmap> pixmaps = new ThreadLocal<>();
+
+    // RAW: only touched by the single worker
+    private OutputStream raw;
+    private String rawName;
+    private int rawWidth, rawHeight;
+    private int rawFiles = 0;
+    private byte[] row = new byte[0];
+
+    FrameEncoder(File directory, FrameCapture.Format format, int threads) {
+        this.directory = directory;
+        this.format = format;
+        directory.mkdirs();
+        // Raw video is one stream, so one writer keeps the frames in order
+        int count = format == FrameCapture.Format.RAW ? 1 : Math.max(1, threads);
+        AtomicInteger index = new AtomicInteger();
+        workers = Executors.newFixedThreadPool(count, runnable -> {
+            Thread thread = new Thread(runnable, "capture-encoder-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    /** Sizes the pool for frames of {@code bytes}; buffers of the old size are let go as they come back. */
+    void resize(int bytes) {
+        frameBytes = bytes;
+        pool.clear();
+        for (int i = 0; i < POOL; i++) {
+            pool.offer(BufferUtils.newByteBuffer(bytes));
+        }
+    }
+
+    /** A free buffer for the next frame, or null (and the frame counted as dropped) if none is. */
+    ByteBuffer obtain() {
+        ByteBuffer buffer = pool.poll();
+        if (buffer == null) {
+            dropped.incrementAndGet();
+            return null;
+        }
+        buffer.clear();
+        return buffer;
+    }
+
+    /** Queues a frame filled from {@link #obtain()}; the buffer goes back to the pool once written. */
+    void submit(ByteBuffer pixels, long frame, int width, int height) {
+        workers.execute(() -> {
+            try {
+                if (format == FrameCapture.Format.PNG) {
+                    writePng(pixels, frame, width, height);
+                } else {
+                    writeRaw(pixels, width, height);
+                }
+                written.incrementAndGet();
+            } catch (IOException e) {
+                if (failed.getAndIncrement() == 0) {
+                    Gdx.app.error(TAG, "Could not write captured frame " + frame, e);
+                }
+            } finally {
+                if (pixels.capacity() == frameBytes) {
+                    pool.offer(pixels);
+                }
+            }
+        });
+    }
+
+    private void writePng(ByteBuffer pixels, long frame, int width, int height) throws IOException {
+        Pixmap pixmap = pixmaps.get();
+        if (pixmap == null || pixmap.getWidth() != width || pixmap.getHeight() != height) {
+            if (pixmap != null) {
+                pixmap.dispose();
+            }
+            pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+            pixmaps.set(pixmap);
+        }
+        ByteBuffer target = pixmap.getPixels();
+        target.clear();
+        pixels.position(0).limit(width * height * 4);
+        target.put(pixels);
+        for (int i = 3; i < target.limit(); i += 4) {
+            target.put(i, (byte) 0xFF); // Opaque, as it was on screen
+        }
+        target.clear();
+
+        File file = new File(directory, String.format(Locale.ROOT, "frame-%06d.png", frame));
+        try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            pngs.get().write(out, pixmap);
+        }
+    }
+
+    private void writeRaw(ByteBuffer pixels, int width, int height) throws IOException {
+        if (raw == null || width != rawWidth || height != rawHeight) {
+            closeRaw();
+            rawWidth = width;
+            rawHeight = height;
+            rawName = String.format(Locale.ROOT, "capture-%d-%dx%d.rgba", ++rawFiles, width, height);
+            raw = new BufferedOutputStream(new FileOutputStream(new File(directory, rawName)), 1 << 20);
+            row = new byte[width * 4];
+        }
+        // Top row first, as video expects
+        for (int y = height - 1; y >= 0; y--) {
+            pixels.position(y * row.length);
+            pixels.get(row);
+            for (int i = 3; i < row.length; i += 4) {
+                row[i] = (byte) 0xFF;
+            }
+            raw.write(row);
+        }
+    }
+
+    private void closeRaw() throws IOException {
+        if (raw != null) {
+            raw.close();
+            raw = null;
+            Gdx.app.log(TAG, "Wrote " + rawName + "; encode with: ffmpeg -f rawvideo -pixel_format rgba -video_size "
+                    + rawWidth + "x" + rawHeight + " -framerate <display Hz> -i " + rawName + " capture.mp4");
+        }
+    }
+
+    /** Writes everything queued, then stops the workers. */
+    void finish() {
+        if (format == FrameCapture.Format.RAW) {
+            workers.execute(() -> {
+                try {
+                    closeRaw();
+                } catch (IOException e) {
+                    Gdx.app.error(TAG, "Could not finish " + rawName, e);
+                }
+            });
+        }
+        workers.shutdown();
+        try {
+            workers.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        Gdx.app.log(TAG, written.get() + " frames written to " + directory + ", " + dropped.get()
+                + " dropped while the encoders caught up" + (failed.get() > 0 ? ", " + failed.get() + " failed" : ""));
+    }
+}
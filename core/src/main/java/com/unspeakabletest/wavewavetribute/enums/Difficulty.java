@@ -1,10 +1,17 @@
 package com.unspeakabletest.wavewavetribute.enums;
 
 public enum Difficulty {
-    WAVE,
-    WAVES,
-    WAVER,
-    WAVEST,
-    WAVE_WAVE,
-    WAVEX
+    WAVE(9),
+    WAVES(9),
+    WAVER(9),
+    WAVEST(18), // Finer lattices: same band and obstacle sizes, smaller teeth
+    WAVE_WAVE(36),
+    WAVEX(64); // Densest grid the row masks hold
+
+    /** Rows of triangles across the colored band. */
+    public final int gridRows;
+
+    Difficulty(int gridRows) {
+        this.gridRows = gridRows;
+    }
 }
@@ -0,0 +1,211 @@
+package com.unspeakabletest.wavewavetribute.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Top scores per difficulty and game mode, stored in a small fixed-layout file
+ * that is memory-mapped at startup, so looking up a best score never parses
+ * the journal no matter how many runs it holds.
+ * <p>
+ * Layout: a header {@code [magic][version][long journalOffset][slots][topK]}
+ * followed by one slot per (difficulty, mode) pair, each
+ * {@code [int runCount]} and {@code topK} entries of
+ * {@code [float score][float survival][long seed][long timestamp]}, best
+ * first. {@code journalOffset} is how far into the journal the index is up to
+ * date; only records after it need replaying.
+ * <p>
+ * The mapped file is read-only; the first change copies it to the heap.
+ * {@link #writeCompacted} replaces a file atomically (write temp, rename) so a
+ * crash leaves either the old or the new index, never a torn one. Java can't
+ * release a mapping before it is garbage collected, and Windows can't replace
+ * a mapped file, so the index alternates between two files: it maps the newer
+ * one (the further its journal offset, the newer) and compacts into the other.
+ */
+public class BestScoreIndex {
+    private static final int MAGIC = 0x57574249; // "WWBI"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4;
+    private static final int ENTRY_SIZE = 4 + 4 + 8 + 8;
+    public static final int TOP_K = 10;
+
+    private final int difficulties;
+    private final int modes;
+    private final int slotSize = 4 + TOP_K * ENTRY_SIZE;
+
+    private final File[] files = new File[2];
+    private int target = 0; // Of files: the one compactions write, never the one mapped
+
+    private ByteBuffer data;
+    private boolean mapped;
+
+    private BestScoreIndex(int difficulties, int modes) {
+        this.difficulties = difficulties;
+        this.modes = modes;
+    }
+
+    private int totalSize() {
+        return HEADER_SIZE + difficulties * modes * slotSize;
+    }
+
+    /**
+     * Maps the newer of {@code file} and its alternate ({@code <file>.b}) that
+     * matches this build's layout; without one, starts empty (and the journal
+     * gets replayed from the start).
+     */
+    public static BestScoreIndex open(File file, int difficulties, int modes) {
+        BestScoreIndex index = new BestScoreIndex(difficulties, modes);
+        index.files[0] = file;
+        index.files[1] = new File(file.getPath() + ".b");
+        for (int i = 0; i < 2; i++) {
+            ByteBuffer map = index.map(index.files[i]);
+            if (map != null && (index.data == null || map.getLong(8) > index.data.getLong(8))) {
+                index.data = map;
+                index.mapped = true;
+                index.target = 1 - i;
+            }
+        }
+        if (index.data != null) {
+            return index;
+        }
+        index.data = ByteBuffer.allocate(index.totalSize());
+        index.data.putInt(0, MAGIC).putInt(4, VERSION).putLong(8, RunJournal.HEADER_SIZE)
+                .putInt(16, difficulties * modes).putInt(20, TOP_K);
+        for (int s = 0; s < difficulties * modes; s++) {
+            for (int k = 0; k < TOP_K; k++) {
+                index.data.putFloat(index.entryOffset(s, k), -1f);
+            }
+        }
+        return index;
+    }
+
+    /** The file mapped read-only, or null if it is missing or not an index of this layout. */
+    private ByteBuffer map(File file) {
+        if (file.length() != totalSize()) {
+            return null;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+            // The mapping stays valid after the channel is closed.
+            ByteBuffer map = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, totalSize());
+            if (map.getInt(0) == MAGIC && map.getInt(4) == VERSION && map.getInt(16) == difficulties * modes
+                    && map.getInt(20) == TOP_K) {
+                return map;
+            }
+        } catch (IOException e) {
+            // Not usable; the other file or the journal stands in.
+        }
+        return null;
+    }
+
+    private int slotOffset(int slot) {
+        return HEADER_SIZE + slot * slotSize;
+    }
+
+    private int entryOffset(int slot, int rank) {
+        return slotOffset(slot) + 4 + rank * ENTRY_SIZE;
+    }
+
+    private int slot(int difficulty, int mode) {
+        return difficulty * modes + mode;
+    }
+
+    private void ensureWritable() {
+        if (mapped) {
+            ByteBuffer copy = ByteBuffer.allocate(data.capacity());
+            copy.put(whole(data));
+            data = copy; // The mapping goes whenever it is collected; compactions never write its file
+            mapped = false;
+        }
+    }
+
+    /** A view of all of {@code buffer}, whatever its position. */
+    private static ByteBuffer whole(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        view.clear();
+        return view;
+    }
+
+    /** Journal offset up to which this index includes every record. */
+    public synchronized long getJournalOffset() {
+        return data.getLong(8);
+    }
+
+    public synchronized void setJournalOffset(long offset) {
+        ensureWritable();
+        data.putLong(8, offset);
+    }
+
+    /** @return the score at {@code rank} (0 = best), or -1 if there is none. */
+    public synchronized float getScore(int difficulty, int mode, int rank) {
+        return data.getFloat(entryOffset(slot(difficulty, mode), rank));
+    }
+
+    public synchronized int getRunCount(int difficulty, int mode) {
+        return data.getInt(slotOffset(slot(difficulty, mode)));
+    }
+
+    /** Counts the run and inserts it into the top list if it makes the cut. */
+    public synchronized void merge(RunRecord record) {
+        if (record.difficulty < 0 || record.difficulty >= difficulties || record.mode < 0 || record.mode >= modes) {
+            return;
+        }
+        int slot = slot(record.difficulty, record.mode);
+        ensureWritable();
+        data.putInt(slotOffset(slot), data.getInt(slotOffset(slot)) + 1);
+
+        int rank = TOP_K;
+        while (rank > 0 && record.score > data.getFloat(entryOffset(slot, rank - 1))) {
+            rank--;
+        }
+        if (rank == TOP_K) {
+            return;
+        }
+        for (int k = TOP_K - 1; k > rank; k--) {
+            int from = entryOffset(slot, k - 1);
+            int to = entryOffset(slot, k);
+            data.putFloat(to, data.getFloat(from));
+            data.putFloat(to + 4, data.getFloat(from + 4));
+            data.putLong(to + 8, data.getLong(from + 8));
+            data.putLong(to + 16, data.getLong(from + 16));
+        }
+        int e = entryOffset(slot, rank);
+        data.putFloat(e, record.score);
+        data.putFloat(e + 4, record.survivalTime);
+        data.putLong(e + 8, record.seed);
+        data.putLong(e + 16, record.timestampMillis);
+    }
+
+    /**
+     * Writes the current contents, via a temp file and an atomic rename, to
+     * whichever index file this process has not mapped.
+     */
+    public void writeCompacted() throws IOException {
+        ByteBuffer snapshot;
+        synchronized (this) {
+            snapshot = ByteBuffer.allocate(data.capacity());
+            snapshot.put(whole(data));
+            snapshot.flip();
+        }
+        if (snapshot.remaining() != totalSize()) {
+            // Never swap a good index for a short one: every launch would replay the whole journal
+            throw new IOException("Index snapshot is " + snapshot.remaining() + " bytes, expected " + totalSize());
+        }
+        File file = files[target];
+        File temp = new File(file.getPath() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (snapshot.hasRemaining()) {
+                out.write(snapshot);
+            }
+            out.force(true);
+        }
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+}
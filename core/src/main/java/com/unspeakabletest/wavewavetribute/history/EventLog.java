@@ -0,0 +1,342 @@
+package com.unspeakabletest.wavewavetribute.history;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.BufferedInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Log of gameplay events for balancing: run starts, corners, combo steps,
+ * Wave Mode starts and ends, crashes and restarts.
+ * <p>
+ * Logging an event never blocks and never allocates: it claims a slot in a
+ * preallocated ring (a compare-and-set), fills in the slot's fields and
+ * publishes it. A background thread drains the ring every
+ * {@link #DRAIN_INTERVAL_NANOS} into gzip files under the log directory,
+ * starting a new file every {@link #RECORDS_PER_FILE} records and keeping the
+ * newest {@link #KEEP_FILES}. If the ring is full the event is dropped and
+ * counted rather than waited for.
+ * <p>
+ * File layout (inside the gzip stream): an 8 byte header (magic, version)
+ * followed by fixed {@link #RECORD_SIZE} byte records, big-endian:
+ * {@code [byte type][byte flags][short 0][int run][float time][float x][float y][int value][long data]}.
+ * Each drain ends with a sync flush, so a file cut short by a crash still
+ * reads up to the last drain.
+ */
+public class EventLog {
+    private static final String TAG = "EventLog";
+    private static final int MAGIC = 0x57574556; // "WWEV"
+    private static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+    public static final int RECORD_SIZE = 32;
+    private static final int CAPACITY = 4096; // Power of two; ~17 s of frantic play at 240 events/s
+    private static final long DRAIN_INTERVAL_NANOS = 100_000_000L;
+    private static final int RECORDS_PER_FILE = 1 << 17; // 4 MB uncompressed
+    private static final int KEEP_FILES = 32;
+    public static final String SUFFIX = ".events.gz";
+
+    // Event types
+    /** value: difficulty ordinal, flags: game mode ordinal, data: level seed */
+    public static final byte RUN_START = 1;
+    /** x, y: corner; flags: 1 if scored as a Wave Mode bonus */
+    public static final byte CORNER = 2;
+    /** value: clicks in the combo so far (1 when a slow click restarts it) */
+    public static final byte COMBO = 3;
+    public static final byte WAVE_MODE_START = 4;
+    public static final byte WAVE_MODE_END = 5;
+    /** x, y: crash point; data: score (float bits) */
+    public static final byte CRASH = 6;
+    /** time: seconds spent on the game-over screen */
+    public static final byte RESTART = 7;
+    private static final String[] TYPE_NAMES = { "?", "run_start", "corner", "combo", "wave_mode_start",
+            "wave_mode_end", "crash", "restart" };
+
+    /** Receives records while a log file is read. */
+    public interface Visitor {
+        void visit(byte type, int flags, int run, float time, float x, float y, int value, long data);
+    }
+
+    // Ring: slot i holds the record claimed with ticket t (i = t & MASK) once sequence[i] == t + 1
+    private static final int MASK = CAPACITY - 1;
+    private final AtomicLong nextTicket = new AtomicLong();
+    private final AtomicLongArray sequence = new AtomicLongArray(CAPACITY);
+    private final byte[] types = new byte[CAPACITY];
+    private final byte[] flags = new byte[CAPACITY];
+    private final int[] runs = new int[CAPACITY];
+    private final float[] times = new float[CAPACITY];
+    private final float[] xs = new float[CAPACITY];
+    private final float[] ys = new float[CAPACITY];
+    private final int[] values = new int[CAPACITY];
+    private final long[] data = new long[CAPACITY];
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile int run = 0;
+
+    // Writer thread
+    private final File directory;
+    private final Thread writer;
+    private volatile boolean running = true;
+    private long drained = 0; // Next ticket to write
+    private final ByteBuffer batch = ByteBuffer.allocate(RECORD_SIZE * 256);
+    private OutputStream out;
+    private FileOutputStream fileOut; // Under out; closed on its own if out fails to close
+    private int recordsInFile = 0;
+    private int fileIndex = 0;
+    private final String sessionName = String.valueOf(System.currentTimeMillis());
+
+    public EventLog(File directory) {
+        this.directory = directory;
+        for (int i = 0; i < CAPACITY; i++) {
+            sequence.set(i, i); // Free for ticket i
+        }
+        writer = new Thread(this::writerLoop, "event-log-writer");
+        writer.setDaemon(true);
+        writer.setPriority(Thread.MIN_PRIORITY);
+        writer.start();
+    }
+
+    /** Starts a new run; later events carry its number. */
+    public void startRun(long seed, int difficulty, int mode) {
+        run++;
+        log(RUN_START, mode, 0, 0, 0, difficulty, seed);
+    }
+
+    /**
+     * Queues an event for the log; safe from any thread, never blocks.
+     *
+     * @return false if the ring was full and the event was dropped
+     */
+    public boolean log(byte type, int flags, float time, float x, float y, int value, long data) {
+        long ticket;
+        int index;
+        while (true) {
+            ticket = nextTicket.get();
+            index = (int) ticket & MASK;
+            long free = sequence.get(index) - ticket;
+            if (free < 0) {
+                dropped.incrementAndGet(); // The writer hasn't freed this slot yet
+                return false;
+            }
+            if (free == 0 && nextTicket.compareAndSet(ticket, ticket + 1)) {
+                break;
+            }
+            // Another thread took this ticket first; try the next one
+        }
+
+        types[index] = type;
+        this.flags[index] = (byte) flags;
+        runs[index] = run;
+        times[index] = time;
+        xs[index] = x;
+        ys[index] = y;
+        values[index] = value;
+        this.data[index] = data;
+        sequence.lazySet(index, ticket + 1); // Publishes the fields above
+        return true;
+    }
+
+    public boolean log(byte type, float time) {
+        return log(type, 0, time, 0, 0, 0, 0);
+    }
+
+    /** Events lost to a full ring so far. */
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /** Writes what is queued, stops the writer and closes the file. */
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writerLoop() {
+        while (running) {
+            LockSupport.parkNanos(DRAIN_INTERVAL_NANOS);
+            drain();
+        }
+        drain();
+        closeFile();
+    }
+
+    /** Writes every published record in order, in batches. */
+    private void drain() {
+        boolean wrote = false;
+        while (true) {
+            int index = (int) drained & MASK;
+            if (sequence.get(index) != drained + 1) {
+                break; // Not published yet (or nothing left)
+            }
+            batch.put(types[index]).put(flags[index]).putShort((short) 0).putInt(runs[index])
+                    .putFloat(times[index]).putFloat(xs[index]).putFloat(ys[index]).putInt(values[index])
+                    .putLong(data[index]);
+            sequence.lazySet(index, drained + CAPACITY); // Free for the ticket one lap later
+            drained++;
+            if (!batch.hasRemaining()) {
+                wrote |= writeBatch();
+            }
+        }
+        if (batch.position() > 0) {
+            wrote |= writeBatch();
+        }
+        if (wrote && out != null) {
+            try {
+                out.flush(); // Sync flush: readable up to here even if the game dies
+            } catch (IOException e) {
+                failed(e);
+            }
+        }
+    }
+
+    private boolean writeBatch() {
+        int records = batch.position() / RECORD_SIZE;
+        try {
+            if (out == null || recordsInFile + records > RECORDS_PER_FILE) {
+                openNextFile();
+            }
+            if (out != null) {
+                out.write(batch.array(), 0, batch.position());
+                recordsInFile += records;
+            }
+        } catch (IOException e) {
+            failed(e);
+        }
+        batch.clear();
+        return out != null;
+    }
+
+    private void openNextFile() throws IOException {
+        closeFile();
+        directory.mkdirs();
+        File file = new File(directory, String.format(Locale.ROOT, "%s-%03d%s", sessionName, fileIndex++, SUFFIX));
+        fileOut = new FileOutputStream(file);
+        out = new GZIPOutputStream(fileOut, 64 * 1024, true);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+        header.putInt(MAGIC).putInt(VERSION);
+        out.write(header.array());
+        recordsInFile = 0;
+        deleteOldFiles();
+    }
+
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            failed(e); // Closes what is still open
+        }
+        out = null;
+        fileOut = null;
+    }
+
+    /** Keeps the newest {@link #KEEP_FILES}; names start with the session's start time, so they sort by age. */
+    private void deleteOldFiles() {
+        File[] files = listFiles(directory);
+        for (int i = 0; i < files.length - KEEP_FILES; i++) {
+            files[i].delete();
+        }
+    }
+
+    private void failed(IOException e) {
+        // Balancing data is not worth stopping the game for; drop this file and try a new one later
+        if (Gdx.app != null) {
+            Gdx.app.error(TAG, "Could not write event log", e);
+        }
+        // Close now rather than at GC: the file handle and the native deflater would leak on every failure.
+        // A gzip stream whose close fails to finish it leaves the file open, so close that too.
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+            out = null;
+        }
+        if (fileOut != null) {
+            try {
+                fileOut.close();
+            } catch (IOException ignored) {
+                // Already failing
+            }
+            fileOut = null;
+        }
+    }
+
+    /** Log files in {@code directory}, oldest first. */
+    public static File[] listFiles(File directory) {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null) {
+            return new File[0];
+        }
+        Arrays.sort(files);
+        return files;
+    }
+
+    public static String typeName(byte type) {
+        return type > 0 && type < TYPE_NAMES.length ? TYPE_NAMES[type] : TYPE_NAMES[0];
+    }
+
+    /**
+     * Reads one log file. A file cut short (the game was killed mid-write)
+     * reads up to its last complete record.
+     *
+     * @return number of records read
+     */
+    public static long read(File file, Visitor visitor) throws IOException {
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            byte[] bytes = new byte[RECORD_SIZE];
+            ByteBuffer record = ByteBuffer.wrap(bytes);
+            if (!readFully(in, bytes, HEADER_SIZE) || record.getInt(0) != MAGIC || record.getInt(4) != VERSION) {
+                throw new IOException("Not an event log: " + file);
+            }
+            long count = 0;
+            while (readFully(in, bytes, RECORD_SIZE)) {
+                record.clear();
+                byte type = record.get();
+                int flags = record.get() & 0xFF;
+                record.getShort();
+                visitor.visit(type, flags, record.getInt(), record.getFloat(), record.getFloat(), record.getFloat(),
+                        record.getInt(), record.getLong());
+                count++;
+            }
+            return count;
+        }
+    }
+
+    /** @return false at the end of the stream (or of what was flushed before it was cut) */
+    private static boolean readFully(InputStream in, byte[] bytes, int length) throws IOException {
+        int read = 0;
+        try {
+            while (read < length) {
+                int n = in.read(bytes, read, length - read);
+                if (n < 0) {
+                    return false;
+                }
+                read += n;
+            }
+        } catch (EOFException e) {
+            return false; // Gzip stream without its trailer
+        }
+        return true;
+    }
+}
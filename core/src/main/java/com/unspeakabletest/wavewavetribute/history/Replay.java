@@ -0,0 +1,99 @@
+package com.unspeakabletest.wavewavetribute.history;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Input of one finished run, enough to race it again as a ghost: the level
+ * (seed and difficulty) plus the run times at which the wave turned. The wave
+ * always moves at the same speeds, so the turn times retrace the whole path.
+ * <p>
+ * Serialized as one small self-checking blob, so files copied from other
+ * players are validated before use. Replays written before the crash point
+ * was recorded ("WWR1") still load, with a NaN crash point.
+ */
+public class Replay {
+    private static final int MAGIC_V1 = 0x57575231; // "WWR1"
+    private static final int MAGIC = 0x57575232; // "WWR2": adds the crash point
+    private static final int FLAG_MOVING_OBSTACLES = 1;
+    private static final int HEADER_SIZE = 4 + 4 + 8 + 4 + 4 + 4 + 4;
+    /** Longer runs are cut off; at a few turns per second this is over an hour. */
+    public static final int MAX_TURNS = 1 << 16;
+
+    public long seed;
+    public int difficulty; // Difficulty ordinal
+    public int mode; // GameMode ordinal
+    public float score;
+    /** Run time of the crash; the ghost stops here. */
+    public float endTime;
+    /** World position of the crash, as in the run history; NaN if the replay predates it. */
+    public float crashX = Float.NaN, crashY = Float.NaN;
+    /** Whether the level had moving obstacles; replays from before they existed read as without. */
+    public boolean movingObstacles;
+    /** Start press, then alternately fall / climb, in run time. */
+    public float[] turnTimes;
+
+    public byte[] toBytes() {
+        int turns = Math.min(turnTimes.length, MAX_TURNS);
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + 4 + turns * 4 + 4);
+        out.putInt(MAGIC);
+        out.put((byte) difficulty);
+        out.put((byte) mode);
+        out.putShort((short) (movingObstacles ? FLAG_MOVING_OBSTACLES : 0)); // Level flags
+        out.putLong(seed);
+        out.putFloat(score);
+        out.putFloat(endTime);
+        out.putFloat(crashX);
+        out.putFloat(crashY);
+        out.putInt(turns);
+        for (int i = 0; i < turns; i++) {
+            out.putFloat(turnTimes[i]);
+        }
+        out.putInt(crc(out.array(), out.position()));
+        return out.array();
+    }
+
+    /** @return the replay, or null if the bytes are not a valid replay */
+    public static Replay fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer in = ByteBuffer.wrap(bytes);
+            int magic = in.getInt();
+            if (magic != MAGIC && magic != MAGIC_V1) {
+                return null;
+            }
+            Replay r = new Replay();
+            r.difficulty = in.get();
+            r.mode = in.get();
+            r.movingObstacles = (in.getShort() & FLAG_MOVING_OBSTACLES) != 0; // Level flags (0 before there were any)
+            r.seed = in.getLong();
+            r.score = in.getFloat();
+            r.endTime = in.getFloat();
+            if (magic == MAGIC) {
+                r.crashX = in.getFloat();
+                r.crashY = in.getFloat();
+            }
+            int turns = in.getInt();
+            if (turns < 0 || turns > MAX_TURNS) {
+                return null;
+            }
+            r.turnTimes = new float[turns];
+            for (int i = 0; i < turns; i++) {
+                r.turnTimes[i] = in.getFloat();
+            }
+            int end = in.position();
+            if (in.getInt() != crc(bytes, end)) {
+                return null;
+            }
+            return r;
+        } catch (BufferUnderflowException e) {
+            return null;
+        }
+    }
+
+    private static int crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+}
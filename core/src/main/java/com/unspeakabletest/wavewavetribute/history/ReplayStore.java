@@ -0,0 +1,148 @@
+package com.unspeakabletest.wavewavetribute.history;
+
+import com.badlogic.gdx.Gdx;
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Replays of finished runs, one small file each, in a folder per seed:
+ * {@code <directory>/<seed>/<DIFFICULTY>-<timestamp>.replay}. Replays from
+ * friends are shared by copying their files into the same folder.
+ * <p>
+ * Only the {@link #KEEP_PER_LEVEL} best replays per seed and difficulty are
+ * kept. Like {@link RunHistory}, writing and pruning happen on a background
+ * thread; loading is done when a run starts and only reads that seed's folder.
+ */
+public class ReplayStore {
+    private static final String TAG = "ReplayStore";
+    private static final String SUFFIX = ".replay";
+    private static final int KEEP_PER_LEVEL = 10;
+    private static final int QUEUE_CAPACITY = 64;
+
+    private static final Replay STOP = new Replay();
+
+    private final File directory;
+    private final BlockingQueue<Replay> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+
+    public ReplayStore(File directory) {
+        this.directory = directory;
+        writer = new Thread(this::writerLoop, "replay-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Stores a finished run. Never blocks; called from the render thread. */
+    public void submit(Replay replay) {
+        if (!queue.offer(replay)) {
+            Gdx.app.error(TAG, "Writer is behind; dropped a replay");
+        }
+    }
+
+    /**
+     * @return up to {@code max} replays of this level, best score first;
+     *         unreadable files are skipped
+     */
+    public List<Replay> load(long seed, Difficulty difficulty, int max) {
+        List<Replay> replays = new ArrayList<>();
+        if (max <= 0) {
+            return replays;
+        }
+        File[] files = new File(directory, Long.toString(seed)).listFiles();
+        if (files == null) {
+            return replays;
+        }
+        for (File file : files) {
+            if (!file.getName().endsWith(SUFFIX)) {
+                continue;
+            }
+            Replay replay = read(file);
+            // The folder name is only a hint; trust the checked contents
+            if (replay != null && replay.seed == seed && replay.difficulty == difficulty.ordinal()) {
+                replays.add(replay);
+            }
+        }
+        replays.sort((a, b) -> Float.compare(b.score, a.score));
+        return replays.size() > max ? new ArrayList<>(replays.subList(0, max)) : replays;
+    }
+
+    /** Writes queued replays and stops the writer. */
+    public void close() {
+        try {
+            queue.put(STOP);
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Replay read(File file) {
+        try {
+            return Replay.fromBytes(Files.readAllBytes(file.toPath()));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void writerLoop() {
+        while (true) {
+            Replay replay;
+            try {
+                replay = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (replay == STOP) {
+                break;
+            }
+            try {
+                write(replay);
+            } catch (IOException e) {
+                Gdx.app.error(TAG, "Could not write replay", e);
+            }
+        }
+    }
+
+    private void write(Replay replay) throws IOException {
+        File folder = new File(directory, Long.toString(replay.seed));
+        folder.mkdirs();
+        String prefix = Difficulty.values()[replay.difficulty] + "-";
+
+        // Written under a temporary name and renamed, so a crash never leaves half a replay behind
+        File file = new File(folder, prefix + System.currentTimeMillis() + SUFFIX);
+        File temp = new File(folder, file.getName() + ".tmp");
+        Files.write(temp.toPath(), replay.toBytes());
+        if (!temp.renameTo(file)) {
+            temp.delete();
+            throw new IOException("Could not rename " + temp + " to " + file);
+        }
+
+        // Prune this level back to the best few
+        File[] files = folder.listFiles((dir, name) -> name.startsWith(prefix) && name.endsWith(SUFFIX));
+        if (files == null || files.length <= KEEP_PER_LEVEL) {
+            return;
+        }
+        List<File> ranked = new ArrayList<>();
+        List<Float> scores = new ArrayList<>();
+        for (File f : files) {
+            Replay r = read(f);
+            float score = r != null ? r.score : Float.NEGATIVE_INFINITY; // Broken files go first
+            int at = 0;
+            while (at < scores.size() && scores.get(at) >= score) {
+                at++;
+            }
+            ranked.add(at, f);
+            scores.add(at, score);
+        }
+        for (int i = KEEP_PER_LEVEL; i < ranked.size(); i++) {
+            ranked.get(i).delete();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.unspeakabletest.wavewavetribute.history;
+
+import com.badlogic.gdx.Gdx;
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+import com.unspeakabletest.wavewavetribute.enums.GameMode;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Persistent history of finished runs: a crash-safe {@link RunJournal} plus a
+ * memory-mapped {@link BestScoreIndex}.
+ * <p>
+ * All file I/O happens on one background thread. {@link #submit} only queues
+ * the record, so the game-over frame never waits on the disk. The writer
+ * appends each record, then merges it into the index and advances the index's
+ * journal offset, so a compacted index never counts a run the journal lacks
+ * or replays one twice. The index is rewritten every {@link #COMPACT_EVERY}
+ * records, which bounds how much journal a startup has to replay.
+ */
+public class RunHistory {
+    private static final String TAG = "RunHistory";
+    private static final int COMPACT_EVERY = 32;
+    private static final int QUEUE_CAPACITY = 256;
+
+    private static final RunRecord STOP = new RunRecord();
+
+    private final File journalFile;
+    private final BestScoreIndex index;
+    private final BlockingQueue<RunRecord> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread writer;
+
+    private RunJournal journal;
+    private int recordsSinceCompaction = 0;
+
+    public RunHistory(File directory) {
+        directory.mkdirs();
+        journalFile = new File(directory, "runs.journal");
+        index = BestScoreIndex.open(new File(directory, "best.index"), Difficulty.values().length, GameMode.values().length);
+
+        writer = new Thread(this::writerLoop, "run-history-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Records a finished run. Never blocks; called from the render thread. */
+    public void submit(RunRecord record) {
+        if (!queue.offer(record)) {
+            Gdx.app.error(TAG, "Writer is behind; dropped a run from the journal");
+        }
+    }
+
+    /** @return the best score for this difficulty and mode, or -1 if none yet. */
+    public float getBestScore(Difficulty difficulty, GameMode mode) {
+        return index.getScore(difficulty.ordinal(), mode.ordinal(), 0);
+    }
+
+    /** Flushes queued runs and stops the writer. */
+    public void close() {
+        try {
+            queue.put(STOP);
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writerLoop() {
+        try {
+            journal = RunJournal.open(journalFile);
+            // Catch the index up with runs it has not seen (written after the last compaction).
+            int[] replayed = new int[1];
+            // If a torn tail was just truncated the index may point past the end; resume from there.
+            long from = Math.min(index.getJournalOffset(), journal.size());
+            long end = journal.scan(from, (record, offset) -> {
+                index.merge(record);
+                replayed[0]++;
+            });
+            if (replayed[0] > 0) {
+                index.setJournalOffset(end); // Only then: a change moves the index off its mapping
+            }
+            recordsSinceCompaction = replayed[0];
+            compactIfDue();
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not open run journal " + journalFile, e);
+            journal = null;
+        }
+
+        while (true) {
+            RunRecord record;
+            try {
+                record = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (record == STOP) {
+                break;
+            }
+            if (journal == null) {
+                continue;
+            }
+            try {
+                long end = journal.append(record);
+                index.merge(record);
+                index.setJournalOffset(end);
+                recordsSinceCompaction++;
+                compactIfDue();
+            } catch (IOException e) {
+                Gdx.app.error(TAG, "Could not append to run journal", e);
+            }
+        }
+
+        try {
+            if (journal != null) {
+                if (recordsSinceCompaction > 0) {
+                    index.writeCompacted();
+                }
+                journal.close();
+            }
+        } catch (IOException e) {
+            Gdx.app.error(TAG, "Could not close run history", e);
+        }
+    }
+
+    private void compactIfDue() throws IOException {
+        if (recordsSinceCompaction >= COMPACT_EVERY) {
+            index.writeCompacted();
+            recordsSinceCompaction = 0;
+        }
+    }
+}
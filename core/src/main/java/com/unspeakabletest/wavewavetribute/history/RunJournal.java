@@ -0,0 +1,131 @@
+package com.unspeakabletest.wavewavetribute.history;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only binary log of finished runs.
+ * <p>
+ * Layout: an 8 byte header (magic, version) followed by records framed as
+ * {@code [int length][payload][int crc32(payload)]}. A crash mid-write can only
+ * leave a torn record at the very end; {@link #open} finds the last record
+ * whose length and checksum are valid and truncates anything after it.
+ * <p>
+ * Not thread-safe: {@link RunHistory} confines it to its writer thread.
+ */
+public class RunJournal {
+    private static final int MAGIC = 0x57575244; // "WWRD"
+    private static final int VERSION = 1;
+    public static final int HEADER_SIZE = 8;
+    private static final int FRAME_SIZE = 4 + RunRecord.SIZE + 4;
+
+    /** Receives records while the journal is scanned. */
+    public interface Visitor {
+        void visit(RunRecord record, long endOffset);
+    }
+
+    private final FileChannel channel;
+    private final ByteBuffer frame = ByteBuffer.allocate(FRAME_SIZE);
+    private final CRC32 crc = new CRC32();
+    private long size;
+
+    private RunJournal(FileChannel channel, long size) {
+        this.channel = channel;
+        this.size = size;
+    }
+
+    /** Opens (or creates) the journal and drops a torn trailing record, if any. */
+    public static RunJournal open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        RunJournal journal = new RunJournal(channel, 0);
+        if (channel.size() < HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.truncate(0);
+            channel.write(header, 0);
+            channel.force(true);
+            journal.size = HEADER_SIZE;
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            channel.read(header, 0);
+            header.flip();
+            if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+                channel.close();
+                throw new IOException("Not a run journal: " + file);
+            }
+            long validEnd = journal.scan(HEADER_SIZE, null);
+            if (validEnd < channel.size()) {
+                channel.truncate(validEnd); // Torn write from a crash
+                channel.force(true);
+            }
+            journal.size = validEnd;
+        }
+        return journal;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Reads records from {@code offset} to the last valid one.
+     *
+     * @return offset just past the last valid record
+     */
+    public long scan(long offset, Visitor visitor) throws IOException {
+        long fileSize = channel.size();
+        while (offset + FRAME_SIZE <= fileSize) {
+            frame.clear();
+            while (frame.hasRemaining()) {
+                if (channel.read(frame, offset + frame.position()) < 0) {
+                    return offset;
+                }
+            }
+            frame.flip();
+            if (frame.getInt() != RunRecord.SIZE) {
+                return offset;
+            }
+            crc.reset();
+            crc.update(frame.array(), 4, RunRecord.SIZE);
+            if (frame.getInt(4 + RunRecord.SIZE) != (int) crc.getValue()) {
+                return offset;
+            }
+            RunRecord record = RunRecord.read(frame);
+            offset += FRAME_SIZE;
+            if (visitor != null) {
+                visitor.visit(record, offset);
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Appends one record and forces it to disk.
+     *
+     * @return offset just past the new record
+     */
+    public long append(RunRecord record) throws IOException {
+        frame.clear();
+        frame.putInt(RunRecord.SIZE);
+        record.write(frame);
+        crc.reset();
+        crc.update(frame.array(), 4, RunRecord.SIZE);
+        frame.putInt((int) crc.getValue());
+        frame.flip();
+        while (frame.hasRemaining()) {
+            channel.write(frame, size + frame.position());
+        }
+        channel.force(false);
+        size += FRAME_SIZE;
+        return size;
+    }
+
+    public void close() throws IOException {
+        channel.close();
+    }
+}
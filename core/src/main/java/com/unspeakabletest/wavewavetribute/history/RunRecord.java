@@ -0,0 +1,57 @@
+package com.unspeakabletest.wavewavetribute.history;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One finished run as stored in the {@link RunJournal}. Fixed size so the
+ * journal can be scanned and validated without any framing beyond a length
+ * and checksum.
+ */
+public class RunRecord {
+    /** Payload bytes of one record (excluding the journal's length and CRC). */
+    public static final int SIZE = 8 + 8 + 4 + 4 * 4;
+
+    private static final int FLAG_OUTER = 1;
+    private static final int FLAG_CEILING = 2;
+
+    public long timestampMillis;
+    public long seed;
+    public int difficulty; // Difficulty ordinal
+    public int mode; // GameMode ordinal
+    public float score;
+    public float survivalTime;
+    public float crashX, crashY;
+    /** Crash happened outside the colored band (top/bottom white bars). */
+    public boolean outerCollision;
+    public boolean ceilingCollision;
+
+    public void write(ByteBuffer out) {
+        out.putLong(timestampMillis);
+        out.putLong(seed);
+        out.put((byte) difficulty);
+        out.put((byte) mode);
+        out.put((byte) ((outerCollision ? FLAG_OUTER : 0) | (ceilingCollision ? FLAG_CEILING : 0)));
+        out.put((byte) 0); // Reserved
+        out.putFloat(score);
+        out.putFloat(survivalTime);
+        out.putFloat(crashX);
+        out.putFloat(crashY);
+    }
+
+    public static RunRecord read(ByteBuffer in) {
+        RunRecord r = new RunRecord();
+        r.timestampMillis = in.getLong();
+        r.seed = in.getLong();
+        r.difficulty = in.get();
+        r.mode = in.get();
+        int flags = in.get();
+        in.get(); // Reserved
+        r.outerCollision = (flags & FLAG_OUTER) != 0;
+        r.ceilingCollision = (flags & FLAG_CEILING) != 0;
+        r.score = in.getFloat();
+        r.survivalTime = in.getFloat();
+        r.crashX = in.getFloat();
+        r.crashY = in.getFloat();
+        return r;
+    }
+}
@@ -0,0 +1,96 @@
+package com.unspeakabletest.wavewavetribute.headless;
+
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+import com.unspeakabletest.wavewavetribute.enums.GameMode;
+import com.unspeakabletest.wavewavetribute.history.EventLog;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * Turns gameplay event logs ({@link EventLog}) into one CSV, a row per event
+ * with the type-specific fields spelled out. Runs are numbered per session
+ * (log file name prefix), so rows carry both.
+ */
+public class EventLogTool {
+    public static int run(String[] args) throws Exception {
+        String in = "assets/history/events"; // Where lwjgl3:run keeps them
+        String out = "events.csv";
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--in=")) {
+                in = value;
+            } else if (arg.startsWith("--out=")) {
+                out = value;
+            } else {
+                System.err.println("Unknown option: " + arg);
+                return 2;
+            }
+        }
+
+        File input = new File(in);
+        File[] files = input.isDirectory() ? EventLog.listFiles(input) : new File[] { input };
+        if (files.length == 0 || !files[0].exists()) {
+            System.err.println("No event logs in " + in);
+            return 1;
+        }
+
+        long total = 0;
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))) {
+            csv.println("session,run,type,time,x,y,bonus,combo,difficulty,mode,seed,score,game_over_s");
+            for (File file : files) {
+                String session = sessionName(file);
+                total += EventLog.read(file, (type, flags, run, time, x, y, value, data) -> {
+                    String bonus = "", combo = "", difficulty = "", mode = "", seed = "", score = "", gameOver = "";
+                    float eventTime = time;
+                    switch (type) {
+                        case EventLog.RUN_START:
+                            difficulty = value < Difficulty.values().length ? Difficulty.values()[value].name() : "";
+                            mode = flags < GameMode.values().length ? GameMode.values()[flags].name() : "";
+                            seed = Long.toString(data);
+                            break;
+                        case EventLog.CORNER:
+                            bonus = flags != 0 ? "1" : "0";
+                            break;
+                        case EventLog.COMBO:
+                            combo = Integer.toString(value);
+                            break;
+                        case EventLog.CRASH:
+                            score = String.format(Locale.US, "%.3f", Float.intBitsToFloat((int) data));
+                            break;
+                        case EventLog.RESTART:
+                            gameOver = String.format(Locale.US, "%.3f", time);
+                            eventTime = Float.NaN; // Not a run time
+                            break;
+                        default:
+                            break;
+                    }
+                    csv.printf(Locale.US, "%s,%d,%s,%s,%.1f,%.1f,%s,%s,%s,%s,%s,%s,%s%n", session, run,
+                            EventLog.typeName(type), Float.isNaN(eventTime) ? "" : String.format(Locale.US, "%.4f",
+                                    eventTime), x, y, bonus, combo, difficulty, mode, seed, score, gameOver);
+                });
+            }
+        }
+        System.out.println("Wrote " + total + " events from " + files.length + " files to " + out);
+        return 0;
+    }
+
+    /**
+     * The session a log belongs to: its name up to the file counter
+     * ({@code <session>-<n>.events.gz}), or the whole base name for a log
+     * that was renamed.
+     */
+    private static String sessionName(File file) {
+        String name = file.getName();
+        int dash = name.indexOf('-');
+        if (dash >= 0) {
+            return name.substring(0, dash);
+        }
+        return name.endsWith(EventLog.SUFFIX) ? name.substring(0, name.length() - EventLog.SUFFIX.length()) : name;
+    }
+}
@@ -0,0 +1,367 @@
+package com.unspeakabletest.wavewavetribute.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.FloatArray;
+import com.unspeakabletest.wavewavetribute.AutoPlayerInput;
+import com.unspeakabletest.wavewavetribute.GameManager;
+import com.unspeakabletest.wavewavetribute.GameScreen;
+import com.unspeakabletest.wavewavetribute.LevelGenerator;
+import com.unspeakabletest.wavewavetribute.MainGame;
+import com.unspeakabletest.wavewavetribute.PlayerInput;
+import com.unspeakabletest.wavewavetribute.ScriptedPlayerInput;
+import com.unspeakabletest.wavewavetribute.TouchEvents;
+import com.unspeakabletest.wavewavetribute.WaveSimulation;
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Stream;
+
+/**
+ * Plays the same scripted input through {@link GameScreen} at several frame
+ * rates, steady and jittered, on the headless backend with a {@link MockGL},
+ * and checks that every rate plays the same game: the crash (time and
+ * frame), the score and each Wave Mode activation must match the fastest
+ * steady rate to within one frame of either run. It also reports what each
+ * rate costs in CPU time per simulated second, rendering included (minus the
+ * GPU).
+ * <p>
+ * Three inputs per seed: seeded random taps, which crash somewhere in the
+ * first obstacles; a tight zigzag that builds the click combo into Wave Mode;
+ * and the autoplayer, for long runs through many obstacles.
+ * The exit code is 1 if any run diverges, so a build can run it as a guard
+ * against timestep regressions.
+ */
+public class FrameRateSweepTool {
+    private static final int WIDTH = 1280;
+    private static final int HEIGHT = 720;
+    private static final float COMBO_HOLD = 0.02f; // Zigzags this tight reach Wave Mode before the first obstacle
+    private static final int WARM_UP_RUNS = 3; // Untimed, so the JIT doesn't bill the first schedule
+
+    enum Input {
+        TAPS, COMBO, AUTOPLAY
+    }
+
+    /** A frame-delta schedule: a steady rate, or that rate with each frame jittered by up to ±jitter. */
+    static final class Schedule {
+        final int rate;
+        final float jitter;
+
+        Schedule(int rate, float jitter) {
+            this.rate = rate;
+            this.jitter = jitter;
+        }
+
+        /** Longest frame the schedule produces. */
+        float maxDelta() {
+            return (1f + jitter) / rate;
+        }
+
+        @Override
+        public String toString() {
+            return jitter == 0 ? rate + " Hz" : String.format(Locale.US, "%d Hz +-%.0f%%", rate, jitter * 100);
+        }
+    }
+
+    /** What one run did and what it cost. */
+    static final class Result {
+        float maxDelta;
+        boolean crashed;
+        float crashTime;
+        long crashFrame;
+        float score;
+        final FloatArray comboTimes = new FloatArray();
+        long frames;
+        double simulatedSeconds;
+        long cpuNanos;
+    }
+
+    /** Passes a script through and keeps the simulation the screen hands it. */
+    static final class RecordingInput implements PlayerInput {
+        private final PlayerInput script;
+        WaveSimulation simulation;
+
+        RecordingInput(PlayerInput script) {
+            this.script = script;
+        }
+
+        @Override
+        public void collect(float delta, TouchEvents events) {
+            script.collect(delta, events);
+        }
+
+        @Override
+        public void begin(WaveSimulation simulation, LevelGenerator levelGenerator) {
+            this.simulation = simulation;
+            script.begin(simulation, levelGenerator);
+        }
+    }
+
+    /** The game without its own screen or the player's history; runs and replays go to a scratch folder. */
+    static final class SweepGame extends MainGame {
+        private final File historyDirectory;
+
+        SweepGame(File historyDirectory) {
+            this.historyDirectory = historyDirectory;
+        }
+
+        @Override
+        public void create() {
+            openHistory(historyDirectory);
+        }
+    }
+
+    public static int run(String[] args) throws Exception {
+        int seeds = 10;
+        long firstSeed = 1;
+        List<Difficulty> difficulties = new ArrayList<>();
+        difficulties.add(Difficulty.WAVE);
+        int[] rates = { 30, 60, 144, 360 };
+        float jitter = 0.5f;
+        float maxSeconds = 60f;
+        String out = "frame-sweep.csv";
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--seeds=")) {
+                seeds = Integer.parseInt(value);
+            } else if (arg.startsWith("--seed=")) {
+                firstSeed = Long.parseLong(value);
+            } else if (arg.startsWith("--difficulty=")) {
+                difficulties.clear();
+                if (value.equalsIgnoreCase("ALL")) {
+                    difficulties.addAll(List.of(Difficulty.values()));
+                } else {
+                    difficulties.add(Difficulty.valueOf(value.toUpperCase(Locale.ROOT)));
+                }
+            } else if (arg.startsWith("--rates=")) {
+                String[] parts = value.split(",");
+                rates = new int[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    rates[i] = Integer.parseInt(parts[i].trim());
+                }
+            } else if (arg.startsWith("--jitter=")) {
+                jitter = Float.parseFloat(value);
+            } else if (arg.startsWith("--max-seconds=")) {
+                maxSeconds = Float.parseFloat(value);
+            } else if (arg.startsWith("--out=")) {
+                out = value;
+            } else {
+                System.err.println("Unknown option: " + arg);
+                return 2;
+            }
+        }
+
+        // Fastest steady rate first: it is the reference the others are held to
+        List<Schedule> schedules = new ArrayList<>();
+        int[] sorted = rates.clone();
+        java.util.Arrays.sort(sorted);
+        for (int i = sorted.length - 1; i >= 0; i--) {
+            schedules.add(new Schedule(sorted[i], 0));
+        }
+        if (jitter > 0) {
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                schedules.add(new Schedule(sorted[i], jitter));
+            }
+        }
+
+        // GameScreen needs the GL thread a libGDX application provides; the whole sweep runs on it
+        Path history = Files.createTempDirectory("frame-sweep");
+        int[] exitCode = { 1 };
+        Throwable[] failure = { null };
+        CountDownLatch done = new CountDownLatch(1);
+        int seedCount = seeds;
+        long seed0 = firstSeed;
+        float seconds = maxSeconds;
+        String csvFile = out;
+        HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+        config.updatesPerSecond = -1; // No render loop; create() does all the work
+        new HeadlessApplication(new ApplicationAdapter() {
+            @Override
+            public void create() {
+                Gdx.gl = Gdx.gl20 = MockGL.create();
+                SweepGame game = new SweepGame(history.toFile());
+                try {
+                    game.create();
+                    exitCode[0] = sweep(game, difficulties, seed0, seedCount, schedules, seconds, csvFile);
+                } catch (Throwable t) {
+                    failure[0] = t;
+                } finally {
+                    game.dispose();
+                    done.countDown();
+                    Gdx.app.exit();
+                }
+            }
+        }, config);
+        done.await();
+        deleteRecursively(history);
+        if (failure[0] != null) {
+            throw new RuntimeException("Frame-rate sweep failed", failure[0]);
+        }
+        return exitCode[0];
+    }
+
+    private static int sweep(SweepGame game, List<Difficulty> difficulties, long firstSeed, int seeds,
+            List<Schedule> schedules, float maxSeconds, String out) throws IOException {
+        int runs = 0;
+        int mismatches = 0;
+        long[] frames = new long[schedules.size()];
+        double[] simulated = new double[schedules.size()];
+        long[] cpu = new long[schedules.size()];
+        int[] failed = new int[schedules.size()];
+
+        for (int i = 0; i < WARM_UP_RUNS; i++) {
+            play(game, difficulties.get(0), firstSeed, Input.AUTOPLAY, schedules.get(0), maxSeconds / 4);
+        }
+
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))) {
+            csv.println("difficulty,seed,input,rate_hz,jitter,frames,simulated_s,crashed,crash_time,crash_frame,"
+                    + "score,combos,first_combo_time,cpu_ms_per_simulated_s,conforms");
+            for (Difficulty difficulty : difficulties) {
+                for (long seed = firstSeed; seed < firstSeed + seeds; seed++) {
+                    for (Input input : Input.values()) {
+                        Result reference = null;
+                        for (int s = 0; s < schedules.size(); s++) {
+                            Schedule schedule = schedules.get(s);
+                            Result result = play(game, difficulty, seed, input, schedule, maxSeconds);
+                            if (reference == null) {
+                                reference = result;
+                            }
+                            String mismatch = compare(result, reference);
+                            runs++;
+                            frames[s] += result.frames;
+                            simulated[s] += result.simulatedSeconds;
+                            cpu[s] += result.cpuNanos;
+                            if (mismatch != null) {
+                                mismatches++;
+                                failed[s]++;
+                                System.out.printf(Locale.US, "MISMATCH %s seed %d %s at %s: %s%n", difficulty, seed,
+                                        input, schedule, mismatch);
+                            }
+                            csv.printf(Locale.US, "%s,%d,%s,%d,%.3f,%d,%.4f,%b,%.5f,%d,%.5f,%d,%.5f,%.3f,%b%n",
+                                    difficulty, seed, input, schedule.rate, schedule.jitter, result.frames,
+                                    result.simulatedSeconds, result.crashed, result.crashTime, result.crashFrame,
+                                    result.score, result.comboTimes.size,
+                                    result.comboTimes.size > 0 ? result.comboTimes.first() : -1f,
+                                    result.cpuNanos / 1e6 / result.simulatedSeconds, mismatch == null);
+                        }
+                    }
+                }
+            }
+        }
+
+        System.out.printf(Locale.US, "%-14s %10s %12s %14s %12s%n", "schedule", "frames", "simulated s",
+                "CPU ms / sim s", "us / frame");
+        for (int s = 0; s < schedules.size(); s++) {
+            System.out.printf(Locale.US, "%-14s %,10d %12.1f %14.2f %12.1f%s%n", schedules.get(s), frames[s],
+                    simulated[s], cpu[s] / 1e6 / simulated[s], cpu[s] / 1e3 / frames[s],
+                    failed[s] > 0 ? "   " + failed[s] + " diverged" : "");
+        }
+        System.out.println(runs + " runs, " + mismatches + " diverged from the reference rate; wrote " + out);
+        return mismatches == 0 ? 0 : 1;
+    }
+
+    /** Plays one seed until the crash (or {@code maxSeconds} of game time) on one schedule. */
+    private static Result play(SweepGame game, Difficulty difficulty, long seed, Input input, Schedule schedule,
+            float maxSeconds) {
+        GameManager.getInstance().setDifficulty(difficulty);
+        GameManager.getInstance().setFixedSeed(seed);
+        PlayerInput script;
+        if (input == Input.AUTOPLAY) {
+            script = new AutoPlayerInput();
+        } else {
+            float[] pattern = input == Input.COMBO ? new float[] { COMBO_HOLD, COMBO_HOLD } : null;
+            script = new ScriptedPlayerInput(seed, pattern);
+        }
+        RecordingInput recording = new RecordingInput(script);
+        game.setPlayerInput(recording);
+        game.setIdleThrottling(false);
+        game.setMaxGhosts(0); // Ghosts of earlier rates would add work to later ones
+        game.setRenderScale(1f);
+
+        GameScreen screen = new GameScreen(game);
+        screen.show();
+        screen.resize(WIDTH, HEIGHT);
+        WaveSimulation simulation = recording.simulation;
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        RandomXS128 jitterRandom = new RandomXS128(seed * 1_000_003L + schedule.rate);
+        Result result = new Result();
+        result.maxDelta = schedule.maxDelta();
+        boolean waveMode = false;
+        while (!simulation.isCrashed() && result.simulatedSeconds < maxSeconds) {
+            float delta = 1f / schedule.rate;
+            if (schedule.jitter > 0) {
+                delta *= 1f + schedule.jitter * (2f * jitterRandom.nextFloat() - 1f);
+            }
+            long start = threads.getCurrentThreadCpuTime();
+            screen.render(delta);
+            result.cpuNanos += threads.getCurrentThreadCpuTime() - start;
+            result.frames++;
+            result.simulatedSeconds += delta;
+
+            if (simulation.isWaveModeActive() && !waveMode) {
+                result.comboTimes.add(simulation.getSurvivalTime()); // Known to within this frame
+            }
+            waveMode = simulation.isWaveModeActive();
+        }
+        result.crashed = simulation.isCrashed();
+        result.crashTime = simulation.getSurvivalTime();
+        result.crashFrame = result.frames;
+        result.score = simulation.getScoreTime();
+        screen.dispose();
+        return result;
+    }
+
+    /** Why {@code run} didn't play the game {@code reference} did, or null if it did. */
+    private static String compare(Result run, Result reference) {
+        // Collision is checked at the end of each step and combo activations are sampled per frame,
+        // so each run is only exact to within its own longest frame
+        float tolerance = run.maxDelta + reference.maxDelta;
+        if (run.crashed != reference.crashed) {
+            return run.crashed ? "crashed at " + run.crashTime + " s, reference survived"
+                    : "survived, reference crashed at " + reference.crashTime + " s";
+        }
+        if (run.crashed && Math.abs(run.crashTime - reference.crashTime) > tolerance) {
+            return "crash at " + run.crashTime + " s, reference " + reference.crashTime + " s";
+        }
+        if (run.comboTimes.size != reference.comboTimes.size) {
+            return run.comboTimes.size + " Wave Mode activations, reference " + reference.comboTimes.size;
+        }
+        for (int i = 0; i < run.comboTimes.size; i++) {
+            if (Math.abs(run.comboTimes.get(i) - reference.comboTimes.get(i)) > tolerance) {
+                return "Wave Mode " + (i + 1) + " at " + run.comboTimes.get(i) + " s, reference "
+                        + reference.comboTimes.get(i) + " s";
+            }
+        }
+        // The score is survival time plus corner bonuses; only the survival part may drift
+        if (Math.abs(run.score - reference.score) > tolerance) {
+            return "score " + run.score + ", reference " + reference.score;
+        }
+        return null;
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) paths.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.unspeakabletest.wavewavetribute.headless;
+
+import java.util.Arrays;
+
+/** Entry point for the command-line tools; the first argument picks the tool. */
+public class HeadlessLauncher {
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            usage();
+            System.exit(2);
+        }
+        String[] toolArgs = Arrays.copyOfRange(args, 1, args.length);
+        switch (args[0]) {
+            case "level-stats":
+                System.exit(LevelStatsTool.run(toolArgs));
+                break;
+            case "frame-sweep":
+                System.exit(FrameRateSweepTool.run(toolArgs));
+                break;
+            case "event-csv":
+                System.exit(EventLogTool.run(toolArgs));
+                break;
+            case "replay-verify":
+                System.exit(ReplayVerifyTool.run(toolArgs));
+                break;
+            default:
+                System.err.println("Unknown tool: " + args[0]);
+                usage();
+                System.exit(2);
+        }
+    }
+
+    private static void usage() {
+        System.err.println("Usage: <tool> [options]");
+        System.err.println("  level-stats  Obstacle statistics over many generated levels, as CSV");
+        System.err.println("  frame-sweep  Same input at several frame rates must play the same game; CPU cost per rate");
+        System.err.println("  event-csv    Gameplay event logs as CSV");
+        System.err.println("  replay-verify  Re-simulates replays to reject forged scores; batch, --watch or --http=<port>");
+    }
+}
@@ -0,0 +1,266 @@
+package com.unspeakabletest.wavewavetribute.headless;
+
+import com.unspeakabletest.wavewavetribute.LegacyLevelGenerator;
+import com.unspeakabletest.wavewavetribute.ObstacleColumnGenerator;
+import com.unspeakabletest.wavewavetribute.WaveSimulation;
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Generates many independent levels (one seed each, like separate runs) on
+ * all cores and histograms what the player meets, per {@link Difficulty}:
+ * <ul>
+ * <li>height: obstacle height in grid rows</li>
+ * <li>gap: free space between one obstacle's base and the next, after grid
+ * snapping, in pixels</li>
+ * <li>corridor: slack of the diagonal corridor between consecutive tips, in
+ * rows: how far the wave's climb (or fall) from under one tip to over the
+ * next may be shifted and still fit</li>
+ * <li>input_rate: direction changes per second the pair forces (at least one
+ * between consecutive tips), in Hz</li>
+ * </ul>
+ * Only the layout math runs ({@link ObstacleColumnGenerator}); nothing is
+ * allocated per column, and each worker fills its own histograms.
+ */
+public class LevelStatsTool {
+    private static final String[] METRICS = { "height", "gap", "corridor", "input_rate" };
+
+    /** Fixed-bin histogram with under / overflow counts and exact sum, min and max. */
+    static final class Histogram {
+        final double low;
+        final double binWidth;
+        final long[] counts;
+        long under, over, count;
+        double sum;
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+
+        Histogram(double low, double high, double binWidth) {
+            this.low = low;
+            this.binWidth = binWidth;
+            this.counts = new long[(int) Math.ceil((high - low) / binWidth)];
+        }
+
+        void add(double value) {
+            int bin = (int) Math.floor((value - low) / binWidth);
+            if (bin < 0) {
+                under++;
+            } else if (bin >= counts.length) {
+                over++;
+            } else {
+                counts[bin]++;
+            }
+            count++;
+            sum += value;
+            if (value < min) min = value;
+            if (value > max) max = value;
+        }
+
+        void merge(Histogram other) {
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] += other.counts[i];
+            }
+            under += other.under;
+            over += other.over;
+            count += other.count;
+            sum += other.sum;
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+
+        /** Lower edge of the bin holding quantile {@code q}. */
+        double quantile(double q) {
+            long target = (long) Math.ceil(q * count);
+            long seen = under;
+            if (seen >= target) return min;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= target) return low + i * binWidth;
+            }
+            return max;
+        }
+    }
+
+    /** One set of histograms, in {@link #METRICS} order. */
+    static final class Stats {
+        final Histogram[] histograms;
+        long columns;
+
+        Stats(int gridRows) {
+            histograms = new Histogram[] {
+                    new Histogram(0, gridRows + 1, 1),
+                    new Histogram(0, 128, 1),
+                    new Histogram(0, 4 * gridRows, 1),
+                    new Histogram(0, 20, 0.1),
+            };
+        }
+
+        void merge(Stats other) {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i].merge(other.histograms[i]);
+            }
+            columns += other.columns;
+        }
+    }
+
+    public static int run(String[] args) throws Exception {
+        long totalColumns = 1_000_000_000L;
+        long columnsPerSeed = 1000;
+        long firstSeed = 1;
+        List<Difficulty> difficulties = new ArrayList<>();
+        difficulties.add(Difficulty.WAVE);
+        int threads = Runtime.getRuntime().availableProcessors();
+        String out = "level-stats.csv";
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--columns=")) {
+                totalColumns = (long) Double.parseDouble(value);
+            } else if (arg.startsWith("--columns-per-seed=")) {
+                columnsPerSeed = (long) Double.parseDouble(value);
+            } else if (arg.startsWith("--seed=")) {
+                firstSeed = Long.parseLong(value);
+            } else if (arg.startsWith("--difficulty=")) {
+                difficulties.clear();
+                if (value.equalsIgnoreCase("ALL")) {
+                    difficulties.addAll(List.of(Difficulty.values()));
+                } else {
+                    difficulties.add(Difficulty.valueOf(value.toUpperCase(Locale.ROOT)));
+                }
+            } else if (arg.startsWith("--threads=")) {
+                threads = Integer.parseInt(value);
+            } else if (arg.startsWith("--out=")) {
+                out = value;
+            } else {
+                System.err.println("Unknown option: " + arg);
+                return 2;
+            }
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))) {
+            csv.println("difficulty,metric,bin_low,bin_high,count");
+            for (Difficulty difficulty : difficulties) {
+                long start = System.nanoTime();
+                Stats stats = sweep(pool, threads, difficulty, firstSeed, totalColumns, columnsPerSeed);
+                double seconds = (System.nanoTime() - start) / 1e9;
+                writeCsv(csv, difficulty, stats);
+                printSummary(difficulty, stats, seconds);
+            }
+        } finally {
+            pool.shutdown();
+        }
+        System.out.println("Wrote " + out);
+        return 0;
+    }
+
+    private static Stats sweep(ExecutorService pool, int threads, Difficulty difficulty, long firstSeed,
+            long totalColumns, long columnsPerSeed) throws Exception {
+        long seeds = (totalColumns + columnsPerSeed - 1) / columnsPerSeed;
+        // Enough chunks to keep every core busy to the end, few enough that merging is free
+        long seedsPerTask = Math.max(1, Math.min(4096, seeds / (threads * 16L)));
+
+        List<Future<Stats>> tasks = new ArrayList<>();
+        for (long first = 0; first < seeds; first += seedsPerTask) {
+            long from = first;
+            long to = Math.min(seeds, first + seedsPerTask);
+            tasks.add(pool.submit(() -> {
+                Stats stats = null;
+                for (long s = from; s < to; s++) {
+                    long columns = Math.min(columnsPerSeed, totalColumns - s * columnsPerSeed);
+                    ObstacleColumnGenerator generator = LegacyLevelGenerator.createColumnGenerator(difficulty,
+                            firstSeed + s);
+                    if (stats == null) {
+                        stats = new Stats(generator.getGridRows());
+                    }
+                    measure(generator, columns, stats);
+                }
+                return stats;
+            }));
+        }
+
+        Stats total = null;
+        for (Future<Stats> task : tasks) {
+            Stats stats = task.get();
+            if (total == null) {
+                total = stats;
+            } else {
+                total.merge(stats);
+            }
+        }
+        return total;
+    }
+
+    /** Generates {@code columns} columns of one level into {@code stats}. */
+    private static void measure(ObstacleColumnGenerator generator, long columns, Stats stats) {
+        Histogram heights = stats.histograms[0];
+        Histogram gaps = stats.histograms[1];
+        Histogram corridors = stats.histograms[2];
+        Histogram inputRates = stats.histograms[3];
+        int rows = generator.getGridRows();
+        float secondsPerColumn = generator.getSnapStep() / WaveSimulation.HORIZONTAL_SPEED;
+
+        int previousTip = 0;
+        int previousHeight = 0;
+        for (long c = 0; c < columns; c++) {
+            generator.next();
+            int height = generator.getHeightRows();
+            int tip = generator.getTipColumn();
+            heights.add(height);
+            if (c > 0) {
+                gaps.add(generator.getSnappedGap());
+                // Ceiling and floor alternate, and both flanks run at the wave's slope, so the
+                // corridor between the tips has the same height all the way along.
+                int tipDistance = tip - previousTip;
+                corridors.add(rows - previousHeight - height + tipDistance);
+                inputRates.add(1.0 / (tipDistance * secondsPerColumn));
+            }
+            previousTip = tip;
+            previousHeight = height;
+        }
+        stats.columns += columns;
+    }
+
+    private static void writeCsv(PrintWriter csv, Difficulty difficulty, Stats stats) {
+        for (int m = 0; m < METRICS.length; m++) {
+            Histogram h = stats.histograms[m];
+            String prefix = difficulty + "," + METRICS[m] + ",";
+            if (h.under > 0) {
+                csv.println(prefix + "-inf," + format(h.low) + "," + h.under);
+            }
+            for (int i = 0; i < h.counts.length; i++) {
+                if (h.counts[i] > 0) {
+                    csv.println(prefix + format(h.low + i * h.binWidth) + "," + format(h.low + (i + 1) * h.binWidth)
+                            + "," + h.counts[i]);
+                }
+            }
+            if (h.over > 0) {
+                csv.println(prefix + format(h.low + h.counts.length * h.binWidth) + ",inf," + h.over);
+            }
+        }
+    }
+
+    private static void printSummary(Difficulty difficulty, Stats stats, double seconds) {
+        System.out.printf(Locale.US, "%s: %,d columns in %.1f s (%,.0f columns/s)%n", difficulty, stats.columns,
+                seconds, stats.columns / seconds);
+        for (int m = 0; m < METRICS.length; m++) {
+            Histogram h = stats.histograms[m];
+            System.out.printf(Locale.US, "  %-10s mean %8.3f  min %8.3f  p50 %8.3f  p99 %8.3f  max %8.3f%n",
+                    METRICS[m], h.sum / h.count, h.min, h.quantile(0.5), h.quantile(0.99), h.max);
+        }
+    }
+
+    private static String format(double value) {
+        return String.format(Locale.US, "%.3f", value);
+    }
+}
@@ -0,0 +1,64 @@
+package com.unspeakabletest.wavewavetribute.headless;
+
+import com.badlogic.gdx.graphics.GL20;
+
+import java.lang.reflect.Proxy;
+import java.nio.FloatBuffer;
+import java.nio.IntBuffer;
+
+/**
+ * A {@link GL20} that draws nothing, so the game's renderers run without a
+ * display. Calls succeed: objects get fresh names, shaders compile and link,
+ * framebuffers are complete, and every other query reads zero or "".
+ */
+final class MockGL {
+    private MockGL() {
+    }
+
+    static GL20 create() {
+        int[] nextName = { 1 };
+        return (GL20) Proxy.newProxyInstance(GL20.class.getClassLoader(), new Class<?>[] { GL20.class },
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "glCreateShader":
+                        case "glCreateProgram":
+                        case "glGenBuffer":
+                        case "glGenTexture":
+                        case "glGenFramebuffer":
+                        case "glGenRenderbuffer":
+                            return nextName[0]++;
+                        case "glGetShaderiv":
+                        case "glGetProgramiv": {
+                            int pname = (Integer) args[1];
+                            ((IntBuffer) args[2]).put(0, pname == GL20.GL_COMPILE_STATUS
+                                    || pname == GL20.GL_LINK_STATUS ? GL20.GL_TRUE : 0);
+                            return null;
+                        }
+                        case "glGetIntegerv":
+                            // Sizes and unit counts; generous so nothing downsizes itself
+                            ((IntBuffer) args[1]).put(0, 4096);
+                            return null;
+                        case "glGetFloatv":
+                            ((FloatBuffer) args[1]).put(0, 0f);
+                            return null;
+                        case "glCheckFramebufferStatus":
+                            return GL20.GL_FRAMEBUFFER_COMPLETE;
+                        case "toString":
+                            return "MockGL";
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            break;
+                    }
+                    Class<?> type = method.getReturnType();
+                    if (type == String.class) return "";
+                    if (type == boolean.class) return false;
+                    if (type == int.class) return 0;
+                    if (type == float.class) return 0f;
+                    if (type == long.class) return 0L;
+                    return null;
+                });
+    }
+}
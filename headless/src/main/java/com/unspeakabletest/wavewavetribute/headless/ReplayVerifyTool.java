@@ -0,0 +1,309 @@
+package com.unspeakabletest.wavewavetribute.headless;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.unspeakabletest.wavewavetribute.ReplayVerifier;
+import com.unspeakabletest.wavewavetribute.history.Replay;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Verifies submitted replays ({@link ReplayVerifier}) so forged scores can be
+ * rejected: every {@code .replay} file under a folder, then optionally new
+ * files as they are dropped in ({@code --watch}), and / or replays POSTed to
+ * {@code http://localhost:<port>/verify} ({@code --http=<port>}), answered
+ * with a JSON verdict.
+ * <p>
+ * Simulations run on a fixed pool of {@code --threads} workers (default one
+ * per core), so however many replays arrive at once the CPU is never
+ * oversubscribed. Submissions wait for their verdict on their own thread:
+ * one per HTTP request, from a cached pool; Java 17 has no virtual threads,
+ * and these threads only block on a worker's result.
+ * <p>
+ * Verdicts go to a CSV, one row per replay; the exit code of a one-off run
+ * is 1 if any replay was rejected.
+ */
+public class ReplayVerifyTool {
+    private static final String SUFFIX = ".replay";
+    private static final int MAX_UPLOAD = 1 << 20; // A replay at MAX_TURNS is 256 KB
+
+    private final ExecutorService workers;
+    private final ThreadLocal<ReplayVerifier> verifiers;
+    private final PrintWriter csv;
+
+    private final AtomicInteger verified = new AtomicInteger();
+    private final AtomicInteger rejected = new AtomicInteger();
+    private final AtomicLong simulatedMillis = new AtomicLong();
+
+    private ReplayVerifyTool(int threads, float step, float tolerance, PrintWriter csv) {
+        AtomicInteger index = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "replay-verify-" + index.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.verifiers = ThreadLocal.withInitial(() -> new ReplayVerifier(step, tolerance));
+        this.csv = csv;
+    }
+
+    public static int run(String[] args) throws Exception {
+        String in = "assets/history/replays"; // Where lwjgl3:run keeps them
+        String out = "replay-verdicts.csv";
+        boolean watch = false;
+        int port = -1;
+        int threads = Runtime.getRuntime().availableProcessors();
+        float step = ReplayVerifier.DEFAULT_STEP;
+        float tolerance = ReplayVerifier.DEFAULT_TOLERANCE;
+
+        for (String arg : args) {
+            String value = arg.substring(arg.indexOf('=') + 1);
+            if (arg.startsWith("--in=")) {
+                in = value;
+            } else if (arg.startsWith("--out=")) {
+                out = value;
+            } else if (arg.equals("--watch")) {
+                watch = true;
+            } else if (arg.startsWith("--http=")) {
+                port = Integer.parseInt(value);
+            } else if (arg.startsWith("--threads=")) {
+                threads = Math.max(1, Integer.parseInt(value));
+            } else if (arg.startsWith("--step-hz=")) {
+                step = 1f / Float.parseFloat(value);
+            } else if (arg.startsWith("--tolerance=")) {
+                tolerance = Float.parseFloat(value);
+            } else {
+                System.err.println("Unknown option: " + arg);
+                return 2;
+            }
+        }
+
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(Paths.get(out), StandardCharsets.UTF_8))) {
+            csv.println("source,seed,difficulty,claimed_score,claimed_time,simulated_score,simulated_time,valid,reason");
+            ReplayVerifyTool tool = new ReplayVerifyTool(threads, step, tolerance, csv);
+            File input = new File(in);
+            if (input.exists()) {
+                tool.verifyAll(input);
+            }
+            if (port < 0 && !watch) {
+                return tool.rejected.get() == 0 ? 0 : 1;
+            }
+            if (port >= 0) {
+                tool.serve(port);
+            }
+            if (watch) {
+                tool.watch(input.toPath());
+            } else {
+                Thread.currentThread().join(); // The server runs until the process is stopped
+            }
+        }
+        return 0;
+    }
+
+    /** Verifies every replay file under {@code input} in parallel and prints the totals. */
+    private void verifyAll(File input) throws IOException, InterruptedException {
+        List<Path> files = new ArrayList<>();
+        if (input.isDirectory()) {
+            try (Stream<Path> paths = Files.walk(input.toPath())) {
+                paths.filter(p -> p.toString().endsWith(SUFFIX)).forEach(files::add);
+            }
+        } else {
+            files.add(input.toPath());
+        }
+
+        long start = System.nanoTime();
+        List<Future<?>> pending = new ArrayList<>();
+        for (Path file : files) {
+            pending.add(workers.submit(() -> verifyFile(file, true)));
+        }
+        for (Future<?> future : pending) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Verifying replays failed", e.getCause());
+            }
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        double hours = simulatedMillis.get() / 3.6e6;
+        System.out.printf(Locale.US, "%d replays, %d rejected; %.2f h of play in %.2f s (%.1f h of play per second)%n",
+                verified.get(), rejected.get(), hours, seconds, hours / Math.max(seconds, 1e-9));
+    }
+
+    /**
+     * Verifies one file and records the verdict. Files that don't parse are only
+     * reported if {@code reportUnreadable}: a watched file may still be being written.
+     *
+     * @return whether the file could be read
+     */
+    private boolean verifyFile(Path file, boolean reportUnreadable) {
+        Replay replay;
+        try {
+            replay = Replay.fromBytes(Files.readAllBytes(file));
+        } catch (IOException e) {
+            replay = null;
+        }
+        if (replay == null) {
+            if (reportUnreadable) {
+                record(file.toString(), null, null);
+            }
+            return false;
+        }
+        record(file.toString(), replay, verifiers.get().verify(replay));
+        return true;
+    }
+
+    private void record(String source, Replay replay, ReplayVerifier.Verdict verdict) {
+        verified.incrementAndGet();
+        boolean valid = verdict != null && verdict.valid;
+        if (!valid) {
+            rejected.incrementAndGet();
+        }
+        String reason = verdict == null ? "not a valid replay file" : verdict.reason != null ? verdict.reason : "";
+        if (verdict != null) {
+            simulatedMillis.addAndGet((long) (verdict.simulatedTime * 1000));
+        }
+        synchronized (csv) {
+            if (replay == null) {
+                csv.printf(Locale.US, "%s,,,,,,,false,\"%s\"%n", source, reason);
+            } else {
+                csv.printf(Locale.US, "%s,%d,%d,%.3f,%.3f,%.3f,%.3f,%b,\"%s\"%n", source, replay.seed, replay.difficulty,
+                        replay.score, replay.endTime, verdict.simulatedScore, verdict.simulatedTime, valid, reason);
+            }
+            csv.flush(); // Watched and served verdicts show up as they come
+        }
+        if (!valid) {
+            System.out.println("REJECTED " + source + ": " + reason);
+        }
+    }
+
+    /** Answers {@code POST /verify} with the replay as the body. */
+    private void serve(int port) throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        server.createContext("/verify", this::handle);
+        server.setExecutor(Executors.newCachedThreadPool()); // One waiting thread per request
+        server.start();
+        System.out.println("Verifying replays POSTed to http://localhost:" + server.getAddress().getPort() + "/verify");
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!exchange.getRequestMethod().equals("POST")) {
+                respond(exchange, 405, "{\"error\":\"POST the replay file\"}");
+                return;
+            }
+            byte[] body;
+            try (InputStream stream = exchange.getRequestBody()) {
+                body = stream.readNBytes(MAX_UPLOAD + 1);
+            }
+            Replay replay = body.length <= MAX_UPLOAD ? Replay.fromBytes(body) : null;
+            if (replay == null) {
+                record(exchange.getRemoteAddress().toString(), null, null);
+                respond(exchange, 400, "{\"valid\":false,\"reason\":\"not a valid replay file\"}");
+                return;
+            }
+            ReplayVerifier.Verdict verdict;
+            try {
+                verdict = workers.submit(() -> verifiers.get().verify(replay)).get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                respond(exchange, 503, "{\"error\":\"shutting down\"}");
+                return;
+            } catch (ExecutionException e) {
+                respond(exchange, 500, "{\"error\":\"verification failed\"}");
+                return;
+            }
+            record(exchange.getRemoteAddress().toString(), replay, verdict);
+            respond(exchange, 200, String.format(Locale.US,
+                    "{\"valid\":%b,\"reason\":%s,\"seed\":%d,\"simulatedTime\":%.3f,\"simulatedScore\":%.3f}",
+                    verdict.valid, verdict.reason == null ? "null" : "\"" + verdict.reason + "\"", replay.seed,
+                    verdict.simulatedTime, verdict.simulatedScore));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /** Verifies replay files as they appear under {@code root}, including in new subfolders, until stopped. */
+    private void watch(Path root) throws IOException, InterruptedException {
+        Files.createDirectories(root);
+        Set<Path> done = ConcurrentHashMap.newKeySet();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.forEach(done::add); // The initial pass already covered these
+        }
+        try (WatchService watcher = FileSystems.getDefault().newWatchService()) {
+            try (Stream<Path> paths = Files.walk(root)) {
+                for (Path dir : (Iterable<Path>) paths.filter(Files::isDirectory)::iterator) {
+                    register(watcher, dir);
+                }
+            }
+            System.out.println("Watching " + root + " for new replays");
+            while (true) {
+                WatchKey key = watcher.take();
+                Path dir = (Path) key.watchable();
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                        continue;
+                    }
+                    Path path = dir.resolve((Path) event.context());
+                    if (Files.isDirectory(path)) {
+                        register(watcher, path); // e.g. the folder of a new seed; files may already be in it
+                        try (Stream<Path> paths = Files.list(path)) {
+                            paths.forEach(p -> submitWatched(p, done));
+                        }
+                    } else {
+                        submitWatched(path, done);
+                    }
+                }
+                key.reset();
+            }
+        }
+    }
+
+    private void submitWatched(Path file, Set<Path> done) {
+        if (file.toString().endsWith(SUFFIX) && !done.contains(file)) {
+            workers.execute(() -> {
+                // A copy still in progress doesn't parse yet; its next change event retries it
+                if (done.add(file) && !verifyFile(file, false)) {
+                    done.remove(file);
+                }
+            });
+        }
+    }
+
+    private static void register(WatchService watcher, Path dir) throws IOException {
+        dir.register(watcher, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+    }
+}
@@ -0,0 +1,139 @@
+package com.unspeakabletest.wavewavetribute.lwjgl3;
+
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.io.PrintStream;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryUsage;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Collects frame times, heap, GC pauses and triangle counts for a benchmark run.
+ * <p>
+ * Frame times go into a fixed histogram (10 microsecond buckets up to 1 s) rather than a
+ * list, so an hour-long uncapped run costs no more memory than a one-minute one.
+ */
+public class BenchmarkStats {
+    private static final long BUCKET_NANOS = 10_000L;
+    private static final int BUCKETS = 100_000;
+
+    private final int[] frameHistogram = new int[BUCKETS];
+    private long frames = 0;
+    private long totalFrameNanos = 0;
+    private long worstFrameNanos = 0;
+
+    private long totalTriangles = 0;
+    private int maxTriangles = 0;
+    private int maxDrawCalls = 0;
+
+    // Written from the JMX notification thread
+    private final Object gcLock = new Object();
+    private int gcPauses = 0;
+    private long gcPauseTotalMs = 0;
+    private long gcPauseMaxMs = 0;
+    private long maxHeapUsed = 0;
+
+    private NotificationListener gcListener;
+
+    /** Starts listening for GC pause notifications. */
+    public void start() {
+        gcListener = (notification, handback) -> {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info = GarbageCollectionNotificationInfo
+                    .from((CompositeData) notification.getUserData());
+            long heapBefore = 0;
+            for (Map.Entry<String, MemoryUsage> pool : info.getGcInfo().getMemoryUsageBeforeGc().entrySet()) {
+                heapBefore += pool.getValue().getUsed();
+            }
+            synchronized (gcLock) {
+                maxHeapUsed = Math.max(maxHeapUsed, heapBefore);
+                // Concurrent cycles run beside the game; only count stop-the-world collections.
+                if (!info.getGcName().contains("Concurrent")) {
+                    long ms = info.getGcInfo().getDuration();
+                    gcPauses++;
+                    gcPauseTotalMs += ms;
+                    gcPauseMaxMs = Math.max(gcPauseMaxMs, ms);
+                }
+            }
+        };
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                ((NotificationEmitter) gc).addNotificationListener(gcListener, null, null);
+            }
+        }
+    }
+
+    public void stop() {
+        if (gcListener == null) return;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (gc instanceof NotificationEmitter) {
+                try {
+                    ((NotificationEmitter) gc).removeNotificationListener(gcListener);
+                } catch (javax.management.ListenerNotFoundException ignored) {
+                    // Already gone
+                }
+            }
+        }
+        gcListener = null;
+    }
+
+    public void recordFrame(long frameNanos, int triangles, int drawCalls) {
+        frames++;
+        totalFrameNanos += frameNanos;
+        worstFrameNanos = Math.max(worstFrameNanos, frameNanos);
+        frameHistogram[(int) Math.min(frameNanos / BUCKET_NANOS, BUCKETS - 1)]++;
+
+        totalTriangles += triangles;
+        maxTriangles = Math.max(maxTriangles, triangles);
+        maxDrawCalls = Math.max(maxDrawCalls, drawCalls);
+    }
+
+    /** Frame time in milliseconds below which {@code fraction} of all frames fall. */
+    private double percentileMs(double fraction) {
+        long target = (long) Math.ceil(frames * fraction);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += frameHistogram[i];
+            if (seen >= target) {
+                return (i + 1) * BUCKET_NANOS / 1e6;
+            }
+        }
+        return worstFrameNanos / 1e6;
+    }
+
+    public void report(PrintStream out, String header) {
+        Runtime runtime = Runtime.getRuntime();
+        long heapNow = runtime.totalMemory() - runtime.freeMemory();
+        int pauses;
+        long pauseTotal, pauseMax, heapMax;
+        synchronized (gcLock) {
+            pauses = gcPauses;
+            pauseTotal = gcPauseTotalMs;
+            pauseMax = gcPauseMaxMs;
+            heapMax = Math.max(maxHeapUsed, heapNow);
+        }
+        double seconds = totalFrameNanos / 1e9;
+
+        out.println("=== WaveWaveTribute benchmark ===");
+        out.println(header);
+        out.printf(Locale.US, "frames          %d in %.1f s (%.1f fps)%n", frames, seconds,
+                seconds > 0 ? frames / seconds : 0);
+        if (frames > 0) {
+            out.printf(Locale.US, "frame time ms   p50 %.3f  p90 %.3f  p99 %.3f  p99.9 %.3f  max %.3f%n",
+                    percentileMs(0.50), percentileMs(0.90), percentileMs(0.99), percentileMs(0.999),
+                    worstFrameNanos / 1e6);
+            out.printf(Locale.US, "triangles/frame avg %.0f  max %d  (max draw calls %d)%n",
+                    (double) totalTriangles / frames, maxTriangles, maxDrawCalls);
+        }
+        out.printf(Locale.US, "heap MB         max used %.1f  limit %.1f%n", heapMax / 1048576.0,
+                runtime.maxMemory() / 1048576.0);
+        out.printf(Locale.US, "GC pauses       %d  total %d ms  max %d ms%n", pauses, pauseTotal, pauseMax);
+    }
+}
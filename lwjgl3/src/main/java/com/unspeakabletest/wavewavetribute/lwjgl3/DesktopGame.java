@@ -0,0 +1,193 @@
+package com.unspeakabletest.wavewavetribute.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.profiling.GLProfiler;
+import com.unspeakabletest.wavewavetribute.AutoPlayerInput;
+import com.unspeakabletest.wavewavetribute.GameManager;
+import com.unspeakabletest.wavewavetribute.MainGame;
+import com.unspeakabletest.wavewavetribute.ScriptedPlayerInput;
+import com.unspeakabletest.wavewavetribute.capture.FrameCapture;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Desktop-only wrapper around {@link MainGame}. Measures time-to-first-frame and
+ * handles the launcher switches that need to run inside the render loop, such as
+ * the scripted benchmark mode.
+ */
+public class DesktopGame extends MainGame {
+    private static final String TAG = "WaveWaveTribute";
+
+    private final LaunchOptions options;
+    private final long mainStartNanos;
+    private long framesRendered = 0;
+    private FramePacer pacer; // Null unless --pacing=low-latency
+    private FrameCapture capture; // Null unless --capture
+    private boolean inFrame = false; // A resize during the pacer's input poll renders a frame of its own
+    private boolean playing = false; // Past the loading screen
+
+    // Benchmark
+    private GLProfiler profiler;
+    private BenchmarkStats stats;
+    private long benchmarkStartNanos;
+    private long lastFrameNanos;
+    private boolean reported = false;
+
+    public DesktopGame(LaunchOptions options, long mainStartNanos) {
+        this.options = options;
+        this.mainStartNanos = mainStartNanos;
+    }
+
+    @Override
+    public void create() {
+        if (options.seed != null) {
+            GameManager.getInstance().setFixedSeed(options.seed);
+        }
+        if (options.difficulty != null) {
+            GameManager.getInstance().setDifficulty(options.difficulty);
+        }
+        if (options.maxGhosts != null) {
+            setMaxGhosts(options.maxGhosts);
+        }
+        setSimulationThreaded(options.simulationThread && !options.isScripted());
+        setRenderScale(options.renderScale);
+        setSplitScreen(options.splitScreen && !options.isScripted());
+        if (options.isScripted()) {
+            long inputSeed = options.seed != null ? options.seed : 0L;
+            setPlayerInput(options.autoplay ? new AutoPlayerInput()
+                    : new ScriptedPlayerInput(inputSeed, options.inputPattern));
+            setIdleThrottling(false); // Keep frames coming through the game-over screen
+        }
+        if (options.lowLatencyPacing && !options.isUncapped()) {
+            int refreshRate = Gdx.graphics.getDisplayMode().refreshRate;
+            pacer = new FramePacer(refreshRate > 0 ? refreshRate : 60, options.pacingMarginMillis);
+        }
+        if (options.captureDir != null) {
+            capture = new FrameCapture(new File(options.captureDir), options.captureFormat, options.captureThreads);
+        }
+        if (options.benchmark) {
+            profiler = new GLProfiler(Gdx.graphics);
+            profiler.enable();
+            stats = new BenchmarkStats();
+            stats.start();
+        }
+        super.create();
+    }
+
+    @Override
+    public void render() {
+        boolean outermost = !inFrame;
+        boolean paced = pacer != null && outermost;
+        inFrame = true;
+        if (paced) {
+            pacer.beginFrame();
+        }
+        if (capture != null && outermost) {
+            capture.beginFrame(); // Before this frame queues any GPU work
+        }
+        long frameStart = System.nanoTime();
+
+        if (options.fixedDelta > 0 && screen != null) {
+            screen.render(options.fixedDelta);
+        } else {
+            super.render();
+        }
+        framesRendered++;
+        if (capture != null && outermost) {
+            capture.endFrame();
+        }
+        if (paced) {
+            pacer.endFrame();
+        }
+        if (outermost) {
+            inFrame = false;
+        }
+
+        if (framesRendered == 1) {
+            logTimeToFirstFrame();
+        }
+        if (!playing) {
+            // Loading frames aren't gameplay; the frame that shows the game screen is the start,
+            // as the first frame used to be
+            benchmarkStartNanos = frameStart;
+            playing = !isLoading();
+        } else if (stats != null) {
+            // Start-to-start, so the time spent in buffer swap and event polling is included.
+            stats.recordFrame(frameStart - lastFrameNanos, (int) (profiler.getVertexCount().total / 3),
+                    profiler.getDrawCalls());
+        }
+        lastFrameNanos = frameStart;
+        if (profiler != null) {
+            profiler.reset();
+        }
+
+        if (options.exitAfterFrames > 0 && framesRendered >= options.exitAfterFrames) {
+            Gdx.app.exit();
+        }
+        if (stats != null && (frameStart - benchmarkStartNanos) / 1e9 >= options.durationSeconds) {
+            reportBenchmark();
+            Gdx.app.exit();
+        }
+    }
+
+    @Override
+    public void dispose() {
+        // Closing the window early still prints what was measured so far.
+        if (stats != null) {
+            reportBenchmark();
+        }
+        if (pacer != null) {
+            pacer.report();
+        }
+        if (capture != null) {
+            capture.dispose();
+        }
+        super.dispose();
+    }
+
+    private void reportBenchmark() {
+        if (reported) return;
+        reported = true;
+        stats.stop();
+
+        String header = "seed " + options.seed + ", difficulty " + GameManager.getInstance().getDifficulty()
+                + ", mode " + GameManager.getInstance().getGameMode() + ", duration " + options.durationSeconds
+                + " s, fixed step " + options.fixedDelta + " s\nGL renderer " + Gdx.gl.glGetString(GL20.GL_RENDERER)
+                + " (" + Gdx.gl.glGetString(GL20.GL_VERSION) + ")";
+        stats.report(System.out, header);
+        if (options.reportFile != null) {
+            try (PrintStream out = new PrintStream(new FileOutputStream(options.reportFile), true, "UTF-8")) {
+                stats.report(out, header);
+            } catch (IOException e) {
+                Gdx.app.error(TAG, "Could not write benchmark report " + options.reportFile, e);
+            }
+        }
+    }
+
+    private void logTimeToFirstFrame() {
+        // JVM start covers class loading before main (what the CDS archive speeds up);
+        // main start covers window creation, GL setup and the loading screen's show() (the font
+        // loads behind it, so this no longer waits for FreeType).
+        long sinceJvmMs = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        long sinceMainMs = (System.nanoTime() - mainStartNanos) / 1_000_000L;
+        boolean cds = ManagementFactory.getRuntimeMXBean().getInputArguments().stream()
+                .anyMatch(a -> a.startsWith("-XX:SharedArchiveFile"));
+
+        Gdx.app.log(TAG, "Time to first frame: " + sinceJvmMs + " ms since JVM start, " + sinceMainMs
+                + " ms since main" + (cds ? " (CDS archive)" : ""));
+
+        if (options.startupLogFile != null) {
+            try (FileWriter out = new FileWriter(options.startupLogFile, true)) {
+                out.write(System.currentTimeMillis() + "," + sinceJvmMs + "," + sinceMainMs + "," + cds + "\n");
+            } catch (IOException e) {
+                Gdx.app.error(TAG, "Could not append to startup log " + options.startupLogFile, e);
+            }
+        }
+    }
+}
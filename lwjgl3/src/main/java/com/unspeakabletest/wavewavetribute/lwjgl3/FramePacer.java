@@ -0,0 +1,141 @@
+package com.unspeakabletest.wavewavetribute.lwjgl3;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Input;
+import org.lwjgl.glfw.GLFW;
+
+import java.util.Locale;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Low-latency frame pacing ({@code --pacing=low-latency}). With plain vsync a frame starts as soon as the
+ * previous swap returns, right after a refresh, so the input it reads is almost a whole refresh old by the
+ * time it is shown; with a frame cap on top, frames can also queue up behind the swap.
+ * <p>
+ * Here the swap still waits for the refresh, but each frame first waits out the part of the refresh period
+ * it doesn't need: it starts at the last refresh (when the previous swap returned) plus the period, minus
+ * the longest of its recent frames and a safety margin. Only then are input events polled, so the
+ * simulation sees them as late as possible, and the frame ends with {@code glFinish} so the swap has no GPU
+ * work queued behind it and returns at the refresh, which dates the next one.
+ * <p>
+ * Every {@link #REPORT_SECONDS} the achieved latency (input poll to the refresh that shows the frame) and
+ * the missed refreshes are logged, and {@link #report} gives the totals at exit.
+ */
+public class FramePacer {
+    private static final String TAG = "FramePacer";
+    private static final int WORK_SAMPLES = 32; // Frames the work prediction looks back on (half a second at 60 Hz)
+    private static final long SPIN_NANOS = 1_500_000L; // Park until this close to the target, then spin; parks overshoot
+    private static final float MISSED = 1.5f; // Refresh-to-refresh interval (in periods) that counts as a missed deadline
+    private static final float REPORT_SECONDS = 10f;
+
+    private final long periodNanos;
+    private final long marginNanos;
+
+    private final long[] workNanos = new long[WORK_SAMPLES]; // Input poll to glFinish, per frame
+    private int workIndex = 0;
+
+    private long lastSwapNanos = -1; // When the previous frame's swap returned; -1 after a pause in pacing
+    private long inputNanos; // When this frame polled input
+    private boolean pacing = false; // Whether this frame waited (endFrame only measures those)
+
+    // Since the last periodic report
+    private long frames, missed, latencyTotalNanos, latencyMaxNanos, waitTotalNanos;
+    private long reportStartNanos = -1;
+    // Whole session
+    private long totalFrames, totalMissed, totalLatencyNanos, totalLatencyMaxNanos;
+
+    /**
+     * @param refreshRate  Display refresh rate in Hz
+     * @param marginMillis Time left between the predicted end of a frame and the refresh
+     */
+    public FramePacer(int refreshRate, float marginMillis) {
+        this.periodNanos = 1_000_000_000L / Math.max(1, refreshRate);
+        this.marginNanos = (long) (marginMillis * 1e6f);
+    }
+
+    /**
+     * Call first thing in the frame: waits until the frame has to start to make the next refresh, then
+     * hands the input events that arrived meanwhile to the input processor.
+     */
+    public void beginFrame() {
+        long now = System.nanoTime();
+        pacing = Gdx.graphics.isContinuousRendering(); // Paused / idle frames come on demand, not per refresh
+        if (!pacing) {
+            lastSwapNanos = -1;
+            return;
+        }
+
+        // The previous frame was shown at the refresh its swap waited for, which was just now
+        if (lastSwapNanos >= 0) {
+            recordShown(now, now - lastSwapNanos);
+        }
+        lastSwapNanos = now;
+
+        long predicted = 0;
+        for (long work : workNanos) {
+            predicted = Math.max(predicted, work);
+        }
+        long target = now + periodNanos - predicted - marginNanos;
+        long remaining;
+        while ((remaining = target - System.nanoTime()) > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (target - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+
+        // Late input: what the window system has now, not what it had at the last swap
+        inputNanos = System.nanoTime();
+        waitTotalNanos += inputNanos - now;
+        GLFW.glfwPollEvents();
+        ((Lwjgl3Input) Gdx.input).update();
+    }
+
+    /** Call last thing in the frame, before the backend swaps buffers. */
+    public void endFrame() {
+        if (!pacing) {
+            return;
+        }
+        Gdx.gl.glFinish(); // Nothing left for the swap to wait on but the refresh
+        workNanos[workIndex] = System.nanoTime() - inputNanos;
+        workIndex = (workIndex + 1) % WORK_SAMPLES;
+    }
+
+    private void recordShown(long now, long sinceLastSwap) {
+        long latency = now - inputNanos;
+        frames++;
+        latencyTotalNanos += latency;
+        latencyMaxNanos = Math.max(latencyMaxNanos, latency);
+        if (sinceLastSwap > periodNanos * MISSED) {
+            missed++;
+        }
+
+        if (reportStartNanos < 0) {
+            reportStartNanos = now;
+        } else if ((now - reportStartNanos) / 1e9f >= REPORT_SECONDS) {
+            Gdx.app.log(TAG, String.format(Locale.US,
+                    "%d frames: input latency %.2f ms average, %.2f ms worst; %d missed refreshes; waited %.2f ms/frame",
+                    frames, latencyTotalNanos / 1e6 / frames, latencyMaxNanos / 1e6, missed,
+                    waitTotalNanos / 1e6 / frames));
+            totalFrames += frames;
+            totalMissed += missed;
+            totalLatencyNanos += latencyTotalNanos;
+            totalLatencyMaxNanos = Math.max(totalLatencyMaxNanos, latencyMaxNanos);
+            frames = missed = latencyTotalNanos = latencyMaxNanos = waitTotalNanos = 0;
+            reportStartNanos = now;
+        }
+    }
+
+    /** Logs the totals for the whole session. */
+    public void report() {
+        long all = totalFrames + frames;
+        if (all == 0) {
+            return;
+        }
+        Gdx.app.log(TAG, String.format(Locale.US,
+                "Session: %d frames at %.1f Hz, input latency %.2f ms average, %.2f ms worst; %d missed refreshes (%.2f%%)",
+                all, 1e9 / periodNanos, (totalLatencyNanos + latencyTotalNanos) / 1e6 / all,
+                Math.max(totalLatencyMaxNanos, latencyMaxNanos) / 1e6, totalMissed + missed,
+                100.0 * (totalMissed + missed) / all));
+    }
+}
@@ -0,0 +1,191 @@
+package com.unspeakabletest.wavewavetribute.lwjgl3;
+
+import com.unspeakabletest.wavewavetribute.capture.FrameCapture;
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+
+/**
+ * Command-line switches understood by {@link Lwjgl3Launcher}. Unknown arguments are ignored so the
+ * game still starts if a script passes something newer than this build understands.
+ * <p>
+ * Benchmark example: {@code --benchmark --duration=60m --seed=42 --difficulty=WAVE --no-angle}
+ */
+public class LaunchOptions {
+    /** Quit after this many rendered frames; 0 runs until the window is closed. */
+    public int exitAfterFrames = 0;
+    /** Set for the short scripted run used to train the class-data sharing archive. */
+    public boolean cdsTraining = false;
+    /**
+     * Set for the workload an instrumented native image runs to record its PGO profile: headless
+     * generation and collision loops ({@link PgoTraining}), then an uncapped autoplayed session.
+     */
+    public boolean pgoTraining = false;
+    /** If set, each startup's time-to-first-frame is appended to this file as CSV. */
+    public String startupLogFile = null;
+
+    // --- Benchmark / soak mode ---
+    /** Uncapped FPS, scripted input and a timing report at the end. */
+    public boolean benchmark = false;
+    /** Wall-clock length of the benchmark run in seconds. */
+    public float durationSeconds = 60f;
+    /** Level seed for every run; null keeps the normal random seed per run. */
+    public Long seed = null;
+    public Difficulty difficulty = null;
+    /** Let the lattice autoplayer play (demos, soak tests) instead of scripted or mouse input. */
+    public boolean autoplay = false;
+    /** Alternating hold / release durations for the scripted input; null uses seeded random taps. */
+    public float[] inputPattern = null;
+    /**
+     * Simulation step fed to the game each frame instead of the measured delta. Benchmarks use a
+     * fixed step so every frame does the same work no matter how fast the machine renders.
+     */
+    public float fixedDelta = 0f;
+    /** If set, the benchmark report is also written to this file. */
+    public String reportFile = null;
+    /** Skip the ANGLE GLES20 emulation and use the system OpenGL driver (e.g. Mesa llvmpipe). */
+    public boolean nativeGl = false;
+    /**
+     * Ask the system driver for GL 3.2 instead of ANGLE's GLES20, so the grid is drawn as instances.
+     * Where no such context can be created the launcher stays on GLES20 and the batched grid.
+     */
+    public boolean gl30 = false;
+    /**
+     * Run game rules and level generation on their own thread at a fixed rate. Ignored with scripted
+     * input, which steps in lockstep with the frames.
+     */
+    public boolean simulationThread = false;
+    /** Most recorded runs raced as ghosts on the same seed; null keeps the game's default. */
+    public Integer maxGhosts = null;
+    /** World resolution as a fraction of the window's, 0.5 to 1; 0 adapts it to the display. */
+    public float renderScale = 0f;
+    /**
+     * Start each frame as late as it can and still make the refresh, polling input just before it
+     * ({@link FramePacer}), instead of right after the previous swap. Ignored by uncapped runs.
+     */
+    public boolean lowLatencyPacing = false;
+    /** Time the low-latency pacing leaves between a frame's predicted end and the refresh. */
+    public float pacingMarginMillis = 1f;
+    /** If set, every frame shown is written to this directory ({@link FrameCapture}). */
+    public String captureDir = null;
+    public FrameCapture.Format captureFormat = FrameCapture.Format.PNG;
+    /** PNG encoder threads; raw capture always has one writer. */
+    public int captureThreads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+    /** Two players racing one seed, one half of the window each. Ignored with scripted input. */
+    public boolean splitScreen = false;
+
+    /** Frames rendered by the {@code --cds-training} run; long enough to reach gameplay classes. */
+    private static final int CDS_TRAINING_FRAMES = 300;
+    /** Frames of the {@code --pgo-training} window session; about a minute of game time, several runs. */
+    private static final int PGO_TRAINING_FRAMES = 3600;
+    private static final long DEFAULT_BENCHMARK_SEED = 1L;
+
+    public static LaunchOptions parse(String[] args) {
+        LaunchOptions options = new LaunchOptions();
+        for (String arg : args) {
+            if (arg.equals("--cds-training")) {
+                options.cdsTraining = true;
+                options.exitAfterFrames = CDS_TRAINING_FRAMES;
+            } else if (arg.equals("--pgo-training")) {
+                options.pgoTraining = true;
+                options.autoplay = true;
+                options.exitAfterFrames = PGO_TRAINING_FRAMES;
+            } else if (arg.startsWith("--exit-after-frames=")) {
+                options.exitAfterFrames = Integer.parseInt(value(arg));
+            } else if (arg.startsWith("--startup-log=")) {
+                options.startupLogFile = value(arg);
+            } else if (arg.equals("--benchmark")) {
+                options.benchmark = true;
+            } else if (arg.startsWith("--duration=")) {
+                options.durationSeconds = parseDuration(value(arg));
+            } else if (arg.startsWith("--seed=")) {
+                options.seed = Long.parseLong(value(arg));
+            } else if (arg.startsWith("--difficulty=")) {
+                options.difficulty = Difficulty.valueOf(value(arg).toUpperCase(java.util.Locale.ROOT));
+            } else if (arg.equals("--autoplay")) {
+                options.autoplay = true;
+            } else if (arg.startsWith("--input-pattern=")) {
+                String[] parts = value(arg).split(",");
+                options.inputPattern = new float[parts.length];
+                for (int i = 0; i < parts.length; i++) {
+                    options.inputPattern[i] = Float.parseFloat(parts[i].trim());
+                }
+            } else if (arg.startsWith("--fixed-step=")) {
+                options.fixedDelta = 1f / Float.parseFloat(value(arg));
+            } else if (arg.startsWith("--report=")) {
+                options.reportFile = value(arg);
+            } else if (arg.equals("--no-angle")) {
+                options.nativeGl = true;
+            } else if (arg.equals("--gl30")) {
+                options.gl30 = true;
+            } else if (arg.equals("--sim-thread")) {
+                options.simulationThread = true;
+            } else if (arg.startsWith("--ghosts=")) {
+                options.maxGhosts = Integer.parseInt(value(arg));
+            } else if (arg.startsWith("--render-scale=")) {
+                String scale = value(arg);
+                options.renderScale = scale.equals("auto") ? 0f : Float.parseFloat(scale);
+            } else if (arg.startsWith("--pacing=")) {
+                String pacing = value(arg);
+                if (pacing.equals("low-latency")) {
+                    options.lowLatencyPacing = true;
+                } else if (pacing.equals("vsync")) {
+                    options.lowLatencyPacing = false;
+                }
+            } else if (arg.startsWith("--pacing-margin=")) {
+                options.pacingMarginMillis = Float.parseFloat(value(arg));
+            } else if (arg.startsWith("--capture=")) {
+                options.captureDir = value(arg);
+            } else if (arg.startsWith("--capture-format=")) {
+                options.captureFormat = FrameCapture.Format.valueOf(value(arg).toUpperCase(java.util.Locale.ROOT));
+            } else if (arg.startsWith("--capture-threads=")) {
+                options.captureThreads = Integer.parseInt(value(arg));
+            } else if (arg.equals("--split-screen")) {
+                options.splitScreen = true;
+            }
+        }
+        if (options.benchmark) {
+            if (options.seed == null) options.seed = DEFAULT_BENCHMARK_SEED;
+            if (options.fixedDelta == 0f) options.fixedDelta = 1f / 60f;
+            if (options.maxGhosts == null) options.maxGhosts = 0; // Saved runs would change the workload
+            if (options.renderScale == 0f) options.renderScale = 1f; // Uncapped frames are never "on time"
+        }
+        if (options.pgoTraining) {
+            // Game time per frame as on a 60 Hz display, however fast the uncapped frames come
+            if (options.fixedDelta == 0f) options.fixedDelta = 1f / 60f;
+            if (options.renderScale == 0f) options.renderScale = 1f;
+        }
+        return options;
+    }
+
+    /** Whether frames run uncapped, without vsync, and keep running without focus. */
+    public boolean isUncapped() {
+        return benchmark || pgoTraining;
+    }
+
+    /** Whether input comes from a script rather than the mouse. */
+    public boolean isScripted() {
+        return benchmark || cdsTraining || autoplay;
+    }
+
+    private static String value(String arg) {
+        return arg.substring(arg.indexOf('=') + 1);
+    }
+
+    /** Parses {@code 90}, {@code 90s}, {@code 60m} or {@code 2h} into seconds. */
+    static float parseDuration(String text) {
+        char unit = text.charAt(text.length() - 1);
+        if (Character.isDigit(unit)) {
+            return Float.parseFloat(text);
+        }
+        float amount = Float.parseFloat(text.substring(0, text.length() - 1));
+        switch (unit) {
+            case 'h':
+                return amount * 3600f;
+            case 'm':
+                return amount * 60f;
+            case 's':
+                return amount;
+            default:
+                throw new IllegalArgumentException("Unknown duration unit in " + text);
+        }
+    }
+}
@@ -2,20 +2,27 @@ package com.unspeakabletest.wavewavetribute.lwjgl3;
 
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
-import com.unspeakabletest.wavewavetribute.MainGame;
+import com.badlogic.gdx.utils.Os;
+import com.badlogic.gdx.utils.SharedLibraryLoader;
+import org.lwjgl.glfw.GLFW;
 
 /** Launches the desktop (LWJGL3) application. */
 public class Lwjgl3Launcher {
     public static void main(String[] args) {
-        if (StartupHelper.startNewJvmIfRequired()) return; // This handles macOS support and helps on Windows.
-        createApplication();
+        long mainStartNanos = System.nanoTime();
+        if (StartupHelper.startNewJvmIfRequired(true, args)) return; // This handles macOS support and helps on Windows.
+        LaunchOptions options = LaunchOptions.parse(args);
+        if (options.pgoTraining) {
+            PgoTraining.runHeadless();
+        }
+        createApplication(options, mainStartNanos);
     }
 
-    private static Lwjgl3Application createApplication() {
-        return new Lwjgl3Application(new MainGame(), getDefaultConfiguration());
+    private static Lwjgl3Application createApplication(LaunchOptions options, long mainStartNanos) {
+        return new Lwjgl3Application(new DesktopGame(options, mainStartNanos), getDefaultConfiguration(options));
     }
 
-    private static Lwjgl3ApplicationConfiguration getDefaultConfiguration() {
+    private static Lwjgl3ApplicationConfiguration getDefaultConfiguration(LaunchOptions options) {
         Lwjgl3ApplicationConfiguration configuration = new Lwjgl3ApplicationConfiguration();
         configuration.setTitle("WaveWaveTribute");
         //// Vsync limits the frames per second to what your hardware can display, and helps eliminate
@@ -24,6 +31,10 @@ public class Lwjgl3Launcher {
         //// Limits FPS to the refresh rate of the currently active monitor, plus 1 to try to match fractional
         //// refresh rates. The Vsync setting above should limit the actual FPS to match the monitor.
         configuration.setForegroundFPS(Lwjgl3ApplicationConfiguration.getDisplayMode().refreshRate + 1);
+        if (options.lowLatencyPacing && !options.isUncapped()) {
+            //// Low-latency pacing waits inside the frame itself (FramePacer); a cap would add a second wait after the swap.
+            configuration.setForegroundFPS(0);
+        }
         //// If you remove the above line and set Vsync to false, you can get unlimited FPS, which can be
         //// useful for testing performance, but can also be very stressful to some hardware.
         //// You may also need to configure GPU drivers to fully disable Vsync; this can cause screen tearing.
@@ -38,8 +49,48 @@ public class Lwjgl3Launcher {
         //// This uses the dependency `com.badlogicgames.gdx:gdx-lwjgl3-angle` to function.
         //// You can choose to remove the following line and the mentioned dependency if you want; they
         //// are not intended for games that use GL30 (which is compatibility with OpenGL ES 3.0).
-        configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.ANGLE_GLES20, 0, 0);
+        //// Benchmarks can pass --no-angle to measure the system driver instead (e.g. Mesa software GL).
+        //// --gl30 asks the system driver for GL 3.2 so the grid can be drawn with instancing, if it has it.
+        if (options.gl30 && supportsGl30()) {
+            configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.GL30, 3, 2);
+        } else if (!options.nativeGl) {
+            if (options.gl30) {
+                System.out.println("GL 3.2 is not available; using ANGLE GLES20 and the batched grid");
+            }
+            configuration.setOpenGLEmulation(Lwjgl3ApplicationConfiguration.GLEmulation.ANGLE_GLES20, 0, 0);
+        }
+
+        if (options.isUncapped()) {
+            //// Benchmarks measure throughput (and PGO training wants many frames quickly): no vsync, no FPS cap, and keep going without focus.
+            configuration.useVsync(false);
+            configuration.setForegroundFPS(0);
+            configuration.setIdleFPS(0);
+            configuration.setPauseWhenLostFocus(false);
+            configuration.setPauseWhenMinimized(false);
+        }
 
         return configuration;
     }
+
+    /**
+     * Whether the system driver can create the GL 3.2 context libGDX asks for with GL30 emulation,
+     * tried on a hidden 1x1 window. GLFW is already up: {@code getDisplayMode()} started it.
+     */
+    private static boolean supportsGl30() {
+        if (SharedLibraryLoader.os == Os.MacOsX) {
+            //// 3.2 on macOS is core profile only, where the GLSL 1.00 shaders (SpriteBatch's, ours) don't compile.
+            return false;
+        }
+        GLFW.glfwDefaultWindowHints();
+        GLFW.glfwWindowHint(GLFW.GLFW_VISIBLE, GLFW.GLFW_FALSE);
+        GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MAJOR, 3);
+        GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MINOR, 2);
+        long window = GLFW.glfwCreateWindow(1, 1, "", 0, 0);
+        GLFW.glfwDefaultWindowHints(); // libGDX sets its own hints, but don't leave ours behind
+        if (window == 0) {
+            return false;
+        }
+        GLFW.glfwDestroyWindow(window);
+        return true;
+    }
 }
\ No newline at end of file
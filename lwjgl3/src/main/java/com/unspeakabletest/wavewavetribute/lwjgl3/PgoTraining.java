@@ -0,0 +1,83 @@
+package com.unspeakabletest.wavewavetribute.lwjgl3;
+
+import com.badlogic.gdx.math.Vector2;
+import com.unspeakabletest.wavewavetribute.AutoPlayerInput;
+import com.unspeakabletest.wavewavetribute.LegacyLevelGenerator;
+import com.unspeakabletest.wavewavetribute.LevelVerifier;
+import com.unspeakabletest.wavewavetribute.TouchEvents;
+import com.unspeakabletest.wavewavetribute.WaveSimulation;
+import com.unspeakabletest.wavewavetribute.enums.Difficulty;
+
+/**
+ * The headless half of the workload an instrumented native image runs to
+ * record its profile ({@code --pgo-training}, see {@code lwjgl3:nativeTrain}).
+ * A profile only speeds up what the training ran, so this covers level
+ * generation, the lattice and collision on every difficulty, which a short
+ * window session on one difficulty would barely touch. The window session
+ * that follows (autoplayed, see {@link LaunchOptions}) covers rendering.
+ */
+final class PgoTraining {
+    private static final int LEVELS_PER_DIFFICULTY = 50;
+    private static final int OBSTACLES_PER_LEVEL = 400;
+    private static final float PLAYED_SECONDS_PER_DIFFICULTY = 300f;
+    private static final float STEP = 1f / 60f; // What a frame feeds the simulation on a common display
+
+    private PgoTraining() {
+    }
+
+    /** Generates, verifies and autoplays levels on every difficulty; takes a few seconds. */
+    static void runHeadless() {
+        long start = System.nanoTime();
+        int impassable = 0;
+        for (Difficulty difficulty : Difficulty.values()) {
+            // Generator and lattice, as the verifier drives them
+            for (long seed = 1; seed <= LEVELS_PER_DIFFICULTY; seed++) {
+                if (LevelVerifier.findFirstImpassable(difficulty, seed, OBSTACLES_PER_LEVEL) >= 0) {
+                    impassable++;
+                }
+            }
+            // Simulation and collision, as a run drives them
+            play(difficulty, PLAYED_SECONDS_PER_DIFFICULTY);
+        }
+        // Printed so the loops can't be optimized away and a broken generator shows in the build log
+        System.out.printf(java.util.Locale.US, "PGO training: headless workload took %.1f s, %d impassable levels%n",
+                (System.nanoTime() - start) / 1e9, impassable);
+    }
+
+    /** Autoplays runs of {@code difficulty}, restarting after each crash, for {@code seconds} of game time. */
+    private static void play(Difficulty difficulty, float seconds) {
+        WaveSimulation.Listener listener = new WaveSimulation.Listener() {
+            @Override
+            public void onCorner(Vector2 corner, boolean bonus) {
+            }
+
+            @Override
+            public void onWaveModeStart() {
+            }
+
+            @Override
+            public void onWaveModeEnd() {
+            }
+
+            @Override
+            public void onCrash(Vector2 crashPoint) {
+            }
+        };
+        AutoPlayerInput input = new AutoPlayerInput();
+        TouchEvents events = new TouchEvents();
+        long seed = 1;
+        float played = 0;
+        while (played < seconds) {
+            LegacyLevelGenerator generator = new LegacyLevelGenerator(difficulty, seed++);
+            WaveSimulation simulation = new WaveSimulation(generator, WaveSimulation.START_X, WaveSimulation.START_Y,
+                    listener);
+            input.begin(simulation, generator);
+            while (!simulation.isCrashed() && played < seconds) {
+                events.clear();
+                input.collect(STEP, events);
+                simulation.advance(STEP, events);
+                played += STEP;
+            }
+        }
+    }
+}
@@ -70,13 +70,20 @@ public class StartupHelper {
      *            whether the output of the new JVM should be rerouted to the
      *            old JVM, so it can be accessed in the same place; keeps the
      *            old JVM running if enabled
+     * @param appArgs
+     *            the program arguments to pass on to the new JVM, if one is
+     *            started
      * @return whether a new JVM was started and thus no code should be executed
      *         in this one
      */
-    public static boolean startNewJvmIfRequired(boolean redirectOutput) {
+    public static boolean startNewJvmIfRequired(boolean redirectOutput, String... appArgs) {
         String osName = System.getProperty("os.name").toLowerCase(java.util.Locale.ROOT);
         if (!osName.contains("mac")) {
-            if (osName.contains("windows")) {
+            // Linux never needs a new JVM. Windows only needs the tmpdir workaround below when the
+            // extraction path would contain characters LWJGL3 can't load from; otherwise skip it so
+            // natives are loaded once, lazily, by Lwjgl3Application itself.
+            if (osName.contains("windows") && (!isSafeForNatives(System.getProperty("java.io.tmpdir", ""))
+                    || !isSafeForNatives(System.getProperty("user.name", "")))) {
 // Here, we are trying to work around an issue with how LWJGL3 loads its extracted .dll files.
 // By default, LWJGL3 extracts to the directory specified by "java.io.tmpdir", which is usually the user's home.
 // If the user's name has non-ASCII (or some non-alphanumeric) characters in it, that would fail.
@@ -154,6 +161,7 @@ public class StartupHelper {
             }
         }
         jvmArgs.add(mainClass);
+        java.util.Collections.addAll(jvmArgs, appArgs);
 
         try {
             if (!redirectOutput) {
@@ -180,6 +188,21 @@ public class StartupHelper {
         return true;
     }
 
+    /**
+     * Whether LWJGL3 can extract and load its natives from a path containing
+     * {@code text}. Plain ASCII letters, digits and common path punctuation are
+     * known to work; anything else may not.
+     */
+    private static boolean isSafeForNatives(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c >= 128 || !(Character.isLetterOrDigit(c) || " \\/:._-~()".indexOf(c) >= 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Starts a new JVM if the application was started on macOS without the
      * {@code -XstartOnFirstThread} argument. Returns whether a new JVM was
@@ -199,6 +222,6 @@ public class StartupHelper {
      *         in this one
      */
     public static boolean startNewJvmIfRequired() {
-        return startNewJvmIfRequired(true);
+        return startNewJvmIfRequired(true, new String[0]);
     }
 }
\ No newline at end of file